@@ -2,6 +2,8 @@ package com.rest.earthquakeapi.ParserManager;
 
 import com.rest.earthquakeapi.XMLParsing.*;
 import com.rest.earthquakeapi.model.QuakeEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
@@ -12,72 +14,62 @@ import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.Collections;
-public class EarthQuakeParser {
+import java.util.function.Consumer;
+
+/**
+ * DOM based {@link QuakeFeedParser}: builds the whole document and reads every entry with the {@link EntryExtractor}.
+ */
+public class EarthQuakeParser implements QuakeFeedParser {
+    private static final Logger logger = LoggerFactory.getLogger(EarthQuakeParser.class);
     public EarthQuakeParser() {
     }
+    @Override
     public ArrayList<QuakeEntry> read(String source) {
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
         ArrayList<QuakeEntry> list = new ArrayList<QuakeEntry>();
+        read(source, list::add);
+        return list;
+    }
+    /**
+     * The whole document is parsed before the first entry is handed over, so the sink gets nothing from a broken feed.
+     */
+    @Override
+    public boolean read(String source, Consumer<QuakeEntry> sink) {
+        return read(builder -> source.startsWith("http") ? builder.parse(source) : builder.parse(new File(source)), sink);
+    }
+
+    @Override
+    public boolean read(InputStream in, Consumer<QuakeEntry> sink) {
+        return read(builder -> builder.parse(in), sink);
+    }
+
+    private interface DocumentSource {
+        Document parse(DocumentBuilder builder) throws SAXException, IOException;
+    }
+
+    private boolean read(DocumentSource source, Consumer<QuakeEntry> sink) {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
         try {
             DocumentBuilder builder = factory.newDocumentBuilder();
-            Document document = null;
-
-            if (source.startsWith("http")) {
-                document = builder.parse(source);
-            } else {
-                document = builder.parse(new File(source));
-            }
+            Document document = source.parse(builder);
             NodeList nodeList = document.getDocumentElement().getChildNodes();
 
-            // Create an instance of Parser object
-            ElementParser<String> idParser = new IdParser();
-            ElementParser<String> titleParser = new TitleParser();
-            ElementParser<String> dateTimeParser =  new DateTimeParser();
-            ElementParser<Double> depthParser = new DepthParser();
-            ElementParser<String> linkParser = new LinkParser();
-            ElementParser<Double> magParser = new MagnitudeParser();
-
+            ElementParser<QuakeEntry> entryExtractor = new EntryExtractor();
 
             for (int k = 0; k < nodeList.getLength(); k++) {
                 Node node = nodeList.item(k);
 
                 if (node.getNodeName().equals("entry")) {
-                    Element elem = (Element) node;
-
-                    //retrieves the latitude and longittude of earthquake.
-                    NodeList t1 = elem.getElementsByTagName("georss:point");
-                    double lat = 0.0, lon = 0.0, depth = 0.0;
-
-                    if (t1 != null && t1.getLength()>0) {
-                        String s2 = t1.item(0).getChildNodes().item(0).getNodeValue();
-                        //System.out.print("point2: "+s2);
-                        String[] args = s2.split(" ");
-                        lat = Double.parseDouble(args[0]);
-                        lon = Double.parseDouble(args[1]);
-                    }
-                    String dateTime = dateTimeParser.parseElement(elem);
-                    //depth parser
-                    depth = depthParser.parseElement(elem);
-
-                    String id = idParser.parseElement(elem);
-
-                    String link = linkParser.parseElement(elem);
-
-                    double mag = magParser.parseElement(elem);
-
-                    String title = titleParser.parseElement(elem);
-
-                    QuakeEntry loc = new QuakeEntry(id,lat,lon,mag,title,depth,dateTime,link);
-                    // Add the quakeEntry to the list
-                    list.add(loc);
+                    // Hand the quakeEntry to the caller
+                    sink.accept(entryExtractor.parseElement((Element) node));
                 }
             }
+            return true;
         } catch (ParserConfigurationException | SAXException | IOException e) {
-            e.printStackTrace();
+            logger.error("Could not read the feed", e);
+            return false;
         }
-        return list;
     }
     /**
      * A method specifically designed for pagination support
@@ -157,7 +149,7 @@ public class EarthQuakeParser {
                 }
             }
         } catch (ParserConfigurationException | SAXException | IOException e) {
-            e.printStackTrace();
+            logger.error("Could not read the feed", e);
         }
         return list;
     }
@@ -192,7 +184,7 @@ public class EarthQuakeParser {
                 }
             }
         } catch (ParserConfigurationException | SAXException | IOException e) {
-            e.printStackTrace();
+            logger.error("Could not read the feed", e);
         }
         return titles;
     }
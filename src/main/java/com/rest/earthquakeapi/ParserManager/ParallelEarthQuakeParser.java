@@ -0,0 +1,186 @@
+package com.rest.earthquakeapi.ParserManager;
+
+import com.rest.earthquakeapi.model.QuakeEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+/**
+ * {@link QuakeFeedParser} that parses a large feed file on several threads.
+ * The file is memory-mapped and cut into chunks at {@code <entry>} start tags. Every chunk is parsed on a
+ * fork-join pool by the streaming {@link StaxEarthQuakeParser}, behind the bytes of the feed before the first
+ * entry (so the namespaces of the root element are declared) and followed by {@code </feed>}. The chunks are
+ * handed to the sink in file order, so the entries come out in feed order like with the other parsers.
+ * Nothing is handed over before every chunk is parsed: when one chunk cannot be read, or the file does not end
+ * with {@code </feed>}, the whole feed is rejected.
+ * Urls and already opened streams cannot be mapped and are streamed on the calling thread.
+ */
+public class ParallelEarthQuakeParser implements QuakeFeedParser {
+    private static final Logger logger = LoggerFactory.getLogger(ParallelEarthQuakeParser.class);
+
+    private static final int MIN_CHUNK_BYTES = 256 * 1024; //smaller chunks cost more in setup than they save
+    private static final int CHUNKS_PER_THREAD = 4; //some slack for chunks that take longer
+    private static final byte[] ENTRY = "<entry".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] FEED_END = "</feed>".getBytes(StandardCharsets.US_ASCII);
+
+    private final ForkJoinPool pool;
+    private final int minChunkBytes;
+    private final StaxEarthQuakeParser entryParser = new StaxEarthQuakeParser();
+
+    /**
+     * @param threads how many chunks are parsed at the same time
+     */
+    public ParallelEarthQuakeParser(int threads) {
+        this(threads, MIN_CHUNK_BYTES);
+    }
+
+    ParallelEarthQuakeParser(int threads, int minChunkBytes) {
+        this.pool = new ForkJoinPool(threads);
+        this.minChunkBytes = minChunkBytes;
+    }
+
+    @Override
+    public boolean read(String source, Consumer<QuakeEntry> sink) {
+        if (source.startsWith("http")) {
+            return entryParser.read(source, sink);
+        }
+        try (FileChannel channel = FileChannel.open(Path.of(source), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                return entryParser.read(source, sink); //one mapping holds at most 2 GB
+            }
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), sink);
+        } catch (IOException e) {
+            logger.error("Could not read the feed", e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean read(InputStream in, Consumer<QuakeEntry> sink) {
+        return entryParser.read(in, sink);
+    }
+
+    private boolean read(MappedByteBuffer feed, Consumer<QuakeEntry> sink) {
+        int first = nextEntry(feed, 0, feed.limit());
+        if (first < 0) {
+            return entryParser.read(new BufferInputStream(feed), sink); //no entries, still has to be a whole feed
+        }
+        int end = lastIndexOf(feed, FEED_END);
+        if (end < first) {
+            logger.error("Could not read the feed: it does not end with </feed>");
+            return false;
+        }
+        ByteBuffer header = feed.slice(0, first);
+
+        int chunks = Math.max(1, Math.min(pool.getParallelism() * CHUNKS_PER_THREAD, (end - first) / minChunkBytes));
+        List<ForkJoinTask<List<QuakeEntry>>> tasks = new ArrayList<>(chunks);
+        int from = first;
+        for (int chunk = 1; chunk <= chunks && from < end; chunk++) {
+            int target = first + (int) ((long) (end - first) * chunk / chunks);
+            int to = chunk == chunks ? end : nextEntry(feed, Math.max(target, from + 1), end);
+            if (to < 0) {
+                to = end;
+            }
+            ByteBuffer body = feed.slice(from, to - from);
+            tasks.add(pool.submit(() -> parseChunk(header, body)));
+            from = to;
+        }
+        List<List<QuakeEntry>> parsed = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<List<QuakeEntry>> task : tasks) {
+            parsed.add(task.join());
+        }
+        if (parsed.contains(null)) {
+            return false; //the parser logged why
+        }
+        parsed.forEach(entries -> entries.forEach(sink));
+        return true;
+    }
+
+    /**
+     * @return the entries of the chunk, null when it could not be read
+     */
+    private List<QuakeEntry> parseChunk(ByteBuffer header, ByteBuffer body) {
+        List<QuakeEntry> entries = new ArrayList<>();
+        InputStream in = new SequenceInputStream(Collections.enumeration(List.of(
+                new BufferInputStream(header), new BufferInputStream(body), new ByteArrayInputStream(FEED_END))));
+        return entryParser.read(in, entries::add) ? entries : null;
+    }
+
+    /**
+     * @return the position of the first {@code <entry>} or {@code <entry ...>} start tag in [from, to), or -1
+     */
+    private static int nextEntry(ByteBuffer feed, int from, int to) {
+        for (int i = from; i + ENTRY.length < to; i++) {
+            if (matches(feed, i, ENTRY)) {
+                byte after = feed.get(i + ENTRY.length);
+                if (after == '>' || after == ' ' || after == '\t' || after == '\r' || after == '\n') {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(ByteBuffer feed, byte[] pattern) {
+        for (int i = feed.limit() - pattern.length; i >= 0; i--) {
+            if (matches(feed, i, pattern)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(ByteBuffer feed, int at, byte[] pattern) {
+        for (int k = 0; k < pattern.length; k++) {
+            if (feed.get(at + k) != pattern[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads a buffer from its position to its limit, without touching the position of the buffer it was given.
+     */
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer.duplicate();
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+    }
+}
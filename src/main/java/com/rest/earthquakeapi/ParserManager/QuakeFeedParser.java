@@ -0,0 +1,46 @@
+package com.rest.earthquakeapi.ParserManager;
+
+import com.rest.earthquakeapi.model.QuakeEntry;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Strategy for turning an Atom earthquake feed into {@link QuakeEntry} objects.
+ * Which implementation is used is picked by the {@code earthquake.parser} property.
+ */
+public interface QuakeFeedParser {
+
+    /**
+     * Parses the feed and hands every entry to {@code sink} in feed order.
+     * A streaming parser hands entries over while it reads, so when the feed turns out to be broken or cut short
+     * the sink may already have received part of it. The caller has to drop those when false is returned.
+     * @param source a file path or an http(s) url of the feed
+     * @param sink   receives each parsed entry
+     * @return true when the feed was read up to the end of its root element, false when it could not be read
+     */
+    boolean read(String source, Consumer<QuakeEntry> sink);
+
+    /**
+     * Parses a feed that was already opened, for example the body of an http response. The caller closes the stream.
+     * Same contract as {@link #read(String, Consumer)}.
+     * @param in   the bytes of the feed
+     * @param sink receives each parsed entry
+     * @return true when the feed was read up to the end of its root element, false when it could not be read
+     */
+    boolean read(InputStream in, Consumer<QuakeEntry> sink);
+
+    /**
+     * Parses the whole feed into a list.
+     * @param source a file path or an http(s) url of the feed
+     * @return the entries of the feed, empty if the feed could not be read
+     */
+    default ArrayList<QuakeEntry> read(String source) {
+        ArrayList<QuakeEntry> list = new ArrayList<>();
+        if (!read(source, list::add)) {
+            list.clear(); //part of a feed is not a feed
+        }
+        return list;
+    }
+}
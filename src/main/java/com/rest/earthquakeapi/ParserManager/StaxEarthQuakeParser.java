@@ -0,0 +1,115 @@
+package com.rest.earthquakeapi.ParserManager;
+
+import com.rest.earthquakeapi.XMLParsing.EntryExtractor;
+import com.rest.earthquakeapi.model.QuakeEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+/**
+ * Streaming {@link QuakeFeedParser} built on {@link XMLStreamReader}.
+ * Each {@code <entry>} is read in a single forward pass and handed to the sink straight away,
+ * so no document tree is built and only the entry being read is held in memory.
+ * Entries are handed over before the end of the feed is known, so a feed that breaks off halfway has already
+ * delivered its first entries: the read then returns false and {@link #read(String)} returns an empty list.
+ */
+public class StaxEarthQuakeParser implements QuakeFeedParser {
+    private static final Logger logger = LoggerFactory.getLogger(StaxEarthQuakeParser.class);
+
+    @Override
+    public boolean read(String source, Consumer<QuakeEntry> sink) {
+        try (InputStream in = open(source)) {
+            return read(in, sink);
+        } catch (IOException e) {
+            logger.error("Could not read the feed", e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean read(InputStream in, Consumer<QuakeEntry> sink) {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // merge CDATA sections (the <summary> html) into plain text and never fetch external entities
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        try {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT && "entry".equals(reader.getLocalName())) {
+                        sink.accept(readEntry(reader));
+                    } else if (event == XMLStreamConstants.END_DOCUMENT) {
+                        return true;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+            logger.error("Could not read the feed: it ends before the end of the document");
+        } catch (XMLStreamException e) {
+            logger.error("Could not read the feed", e);
+        }
+        return false;
+    }
+
+    private InputStream open(String source) throws IOException {
+        if (source.startsWith("http")) {
+            return new BufferedInputStream(URI.create(source).toURL().openStream());
+        }
+        return new BufferedInputStream(Files.newInputStream(Path.of(source)));
+    }
+
+    /**
+     * Reads the children of the current {@code <entry>} up to its end tag and builds the QuakeEntry from them.
+     * Defaults for missing elements are the same as the DOM {@link EarthQuakeParser} produces, see
+     * {@link EntryExtractor#entryFrom}.
+     */
+    private QuakeEntry readEntry(XMLStreamReader reader) throws XMLStreamException {
+        String rawId = null;
+        String rawTitle = null;
+        String link = "";
+        String summary = null;
+        String point = null;
+        String elev = null;
+        boolean hasLink = false;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (reader.getLocalName()) {
+                    case "id" -> rawId = reader.getElementText();
+                    case "title" -> rawTitle = reader.getElementText();
+                    case "summary" -> summary = reader.getElementText();
+                    case "point" -> point = reader.getElementText();   // georss:point
+                    case "elev" -> elev = reader.getElementText();     // georss:elev
+                    case "link" -> {
+                        // only the first <link> of an entry is kept
+                        if (!hasLink) {
+                            String href = reader.getAttributeValue(null, "href");
+                            link = href == null ? "" : href;
+                            hasLink = true;
+                        }
+                    }
+                    default -> {
+                    }
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && "entry".equals(reader.getLocalName())) {
+                break;
+            }
+        }
+
+        return EntryExtractor.entryFrom(rawId, rawTitle, link, summary, point, elev);
+    }
+}
@@ -0,0 +1,73 @@
+package com.rest.earthquakeapi.XMLParsing;
+
+import com.rest.earthquakeapi.model.QuakeEntry;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Reads a whole {@code <entry>} into a {@link QuakeEntry} in one pass over its child elements, each child is
+ * routed to its field by name. The single-field {@link ElementParser}s search the entry's subtree again for every
+ * field, and both {@link TitleParser} and {@link MagnitudeParser} read the {@code <title>}. They are still there for
+ * reading one field on its own.
+ */
+public class EntryExtractor implements ElementParser<QuakeEntry> {
+
+    @Override
+    public QuakeEntry parseElement(Element element) {
+        String rawId = null;
+        String rawTitle = null;
+        String link = "";
+        String summary = null;
+        String point = null;
+        String elev = null;
+        boolean hasLink = false;
+
+        for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+            if (child.getNodeType() != Node.ELEMENT_NODE) {
+                continue;
+            }
+            switch (child.getNodeName()) {
+                case "id" -> rawId = child.getTextContent();
+                case "title" -> rawTitle = child.getTextContent();
+                case "summary" -> summary = child.getTextContent();
+                case "georss:point" -> point = child.getTextContent();
+                case "georss:elev" -> elev = child.getTextContent();
+                case "link" -> {
+                    // only the first <link> of an entry is kept
+                    if (!hasLink) {
+                        link = ((Element) child).getAttribute("href");
+                        hasLink = true;
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+        return entryFrom(rawId, rawTitle, link, summary, point, elev);
+    }
+
+    /**
+     * Builds an entry from the text of its elements as they are in the feed, null for the ones that are missing.
+     * @param link  the href of the first {@code <link>}, "" when there is none
+     * @param point the {@code georss:point}, "latitude longitude"
+     * @param elev  the {@code georss:elev}, the depth
+     */
+    public static QuakeEntry entryFrom(String rawId, String rawTitle, String link, String summary, String point,
+                                       String elev) {
+        double lat = 0.0, lon = 0.0;
+        if (point != null) {
+            String[] args = point.split(" ");
+            lat = Double.parseDouble(args[0]);
+            lon = Double.parseDouble(args[1]);
+        }
+        double depth = elev == null ? 0.0 : Double.parseDouble(elev);
+        String id = rawId == null ? null : IdParser.idFrom(rawId);
+        double mag = rawTitle == null ? 0.0 : MagnitudeParser.magnitudeFrom(rawTitle);
+        String title = rawTitle == null ? null : TitleParser.titleFrom(rawTitle);
+        QuakeSummary quakeSummary = summary == null ? null : SummaryExtractor.extract(summary);
+        String dateTime = quakeSummary == null ? null : quakeSummary.getTimeText();
+        long time = quakeSummary == null ? 0L : quakeSummary.getEpochMillis();
+
+        return new QuakeEntry(id, lat, lon, mag, title, depth, dateTime, time, link);
+    }
+}
@@ -8,12 +8,17 @@ public class IdParser implements ElementParser<String>{
 
         if(idNode!=null && idNode.getLength()>0){
             String s2 = idNode.item(0).getChildNodes().item(0).getNodeValue();
-            String id = s2.substring(s2.indexOf(':', s2.indexOf(':', s2.indexOf(':') + 1) + 1) + 1);
-
-            return id;
+            return idFrom(s2);
         }
         return null;
     }
 
+    /**
+     * Keeps the part after the third ':' of a feed id, "urn:earthquake-usgs-gov:ak:12022791" becomes "12022791".
+     */
+    public static String idFrom(String rawId) {
+        return rawId.substring(rawId.indexOf(':', rawId.indexOf(':', rawId.indexOf(':') + 1) + 1) + 1);
+    }
+
 
 }
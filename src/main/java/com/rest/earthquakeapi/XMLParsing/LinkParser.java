@@ -1,11 +1,14 @@
 package com.rest.earthquakeapi.XMLParsing;
 
 import com.rest.earthquakeapi.model.QuakeEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 
 public class LinkParser implements ElementParser<String>{
+    private static final Logger logger = LoggerFactory.getLogger(LinkParser.class);
     @Override
     public String parseElement(Element element) {
 
@@ -18,7 +21,7 @@ public class LinkParser implements ElementParser<String>{
 
             String hrefValue = ((Element) linkNode).getAttribute("href");
             link = hrefValue;
-            System.out.println("The link is: " + link);
+            logger.trace("The link is: {}", link);
         }
         return link;
 
@@ -2,9 +2,12 @@ package com.rest.earthquakeapi.XMLParsing;
 
 import com.rest.earthquakeapi.model.QuakeEntry;
 import org.springframework.boot.autoconfigure.integration.IntegrationProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 public class MagnitudeParser implements ElementParser<Double> {
+    private static final Logger logger = LoggerFactory.getLogger(MagnitudeParser.class);
     public MagnitudeParser() {
     }
     @Override
@@ -14,21 +17,25 @@ public class MagnitudeParser implements ElementParser<Double> {
 
         if (t2 != null && t2.getLength() > 0) {
             String s2 = t2.item(0).getChildNodes().item(0).getNodeValue();
-            String mags = s2.substring(2, s2.indexOf(" ", 2));
-            System.out.println("the mags is: " + mags);
-            double mag = 0.0;
-            if (mags.contains("?")) {
-                mag = 0.0;
-                System.err.println("unknown magnitude in data");
-            } else {
-                mag = Double.parseDouble(mags);
-            }
-            return mag;
+            return magnitudeFrom(s2);
         }
         return null;
 
     }
 
+    /**
+     * Reads the magnitude out of a raw feed title such as "M 1.6 - 72km SW of Delta Junction, Alaska".
+     * @return the magnitude, 0.0 when the feed reports it as unknown ("M ?")
+     */
+    public static double magnitudeFrom(String rawTitle) {
+        String mags = rawTitle.substring(2, rawTitle.indexOf(" ", 2));
+        if (mags.contains("?")) {
+            logger.debug("unknown magnitude in {}", rawTitle);
+            return 0.0;
+        }
+        return Double.parseDouble(mags);
+    }
+
 
 
 }
@@ -0,0 +1,69 @@
+package com.rest.earthquakeapi.XMLParsing;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * The fields USGS puts in the html {@code <summary>} of an entry:
+ * the UTC time, the time at the epicenter and the depth in km and mi.
+ */
+public class QuakeSummary {
+
+    private final String timeText; //the UTC time as written in the feed, ex ---> 2015-11-21 03:20:53 UTC
+    private final Instant time;
+    private final int epicenterOffsetMinutes;
+    private final boolean hasEpicenterTime;
+    private final double depthKm;
+    private final double depthMi;
+
+    public QuakeSummary(String timeText, Instant time, int epicenterOffsetMinutes, boolean hasEpicenterTime,
+                        double depthKm, double depthMi) {
+        this.timeText = timeText;
+        this.time = time;
+        this.epicenterOffsetMinutes = epicenterOffsetMinutes;
+        this.hasEpicenterTime = hasEpicenterTime;
+        this.depthKm = depthKm;
+        this.depthMi = depthMi;
+    }
+
+    public String getTimeText() {
+        return timeText;
+    }
+
+    /**
+     * @return when the quake happened, or null if the summary had no readable UTC time
+     */
+    public Instant getTime() {
+        return time;
+    }
+
+    /**
+     * @return when the quake happened in epoch millis, 0 if the summary had no readable UTC time
+     */
+    public long getEpochMillis() {
+        return time == null ? 0L : time.toEpochMilli();
+    }
+
+    /**
+     * @return the time of the quake in the local time of the epicenter, or null if the summary does not list it
+     */
+    public OffsetDateTime getEpicenterTime() {
+        if (time == null || !hasEpicenterTime) {
+            return null;
+        }
+        return time.atOffset(ZoneOffset.ofTotalSeconds(epicenterOffsetMinutes * 60));
+    }
+
+    public int getEpicenterOffsetMinutes() {
+        return epicenterOffsetMinutes;
+    }
+
+    public double getDepthKm() {
+        return depthKm;
+    }
+
+    public double getDepthMi() {
+        return depthMi;
+    }
+}
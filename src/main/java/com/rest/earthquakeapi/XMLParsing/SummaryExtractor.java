@@ -0,0 +1,185 @@
+package com.rest.earthquakeapi.XMLParsing;
+
+import java.time.Instant;
+
+/**
+ * Pulls the time and depth out of an entry's {@code <summary>} html by scanning its characters.
+ * The summary always has the same shape:
+ * <pre>
+ * &lt;dl&gt;&lt;dt&gt;Time&lt;/dt&gt;&lt;dd&gt;2015-11-21 03:20:53 UTC&lt;/dd&gt;&lt;dd&gt;2015-11-20 18:20:53 -09:00 at epicenter&lt;/dd&gt;
+ * ...&lt;dt&gt;Depth&lt;/dt&gt;&lt;dd&gt;10.41 km (6.47 mi)&lt;/dd&gt;&lt;/dl&gt;
+ * </pre>
+ * so there is no need to parse it as a second xml document. Numbers are read in place, the only
+ * objects created per summary are the display string of the UTC time and the result itself.
+ */
+public final class SummaryExtractor {
+
+    private static final String DD = "<dd>";
+    private static final String DD_END = "</dd>";
+    private static final String DEPTH = "Depth</dt>";
+
+    private SummaryExtractor() {
+    }
+
+    /**
+     * @param summary the text content of a {@code <summary>} element
+     * @return the parsed summary, or null if it has no {@code <dl>}
+     */
+    public static QuakeSummary extract(String summary) {
+        int dl = summary.indexOf("<dl>");
+        if (dl < 0) {
+            return null;
+        }
+        // first <dd>: the UTC time
+        int start = summary.indexOf(DD, dl);
+        if (start < 0) {
+            return new QuakeSummary("", null, 0, false, Double.NaN, Double.NaN);
+        }
+        start += DD.length();
+        int end = summary.indexOf(DD_END, start);
+        if (end < 0) {
+            return null;
+        }
+        int from = skipSpaces(summary, start, end);
+        int to = trimEnd(summary, from, end);
+        String timeText = summary.substring(from, to);
+        long epochSecond = parseDateTime(summary, from, to);
+        Instant time = epochSecond == Long.MIN_VALUE ? null : Instant.ofEpochSecond(epochSecond);
+
+        // second <dd>, when it ends with "at epicenter": the local time, only its offset is needed
+        int offsetMinutes = 0;
+        boolean hasEpicenterTime = false;
+        int local = summary.startsWith(DD, end + DD_END.length()) ? end + DD_END.length() + DD.length() : -1;
+        if (local > 0) {
+            int localEnd = summary.indexOf(DD_END, local);
+            // "2015-11-20 18:20:53 -09:00 at epicenter", the offset starts at column 20
+            int sign = skipSpaces(summary, local, localEnd) + 20;
+            if (localEnd > 0 && sign + 6 <= localEnd && summary.startsWith("at epicenter", localEnd - 12)) {
+                int hours = digits(summary, sign + 1, 2);
+                int minutes = digits(summary, sign + 4, 2);
+                char c = summary.charAt(sign);
+                if (hours >= 0 && minutes >= 0 && (c == '+' || c == '-')) {
+                    offsetMinutes = (c == '-' ? -1 : 1) * (hours * 60 + minutes);
+                    hasEpicenterTime = true;
+                }
+            }
+        }
+
+        // depth <dd>: "10.41 km (6.47 mi)"
+        double depthKm = Double.NaN;
+        double depthMi = Double.NaN;
+        int depth = summary.indexOf(DEPTH, end);
+        if (depth > 0 && summary.startsWith(DD, depth + DEPTH.length())) {
+            int numStart = depth + DEPTH.length() + DD.length();
+            int depthEnd = summary.indexOf(DD_END, numStart);
+            int km = summary.indexOf(" km", numStart);
+            if (depthEnd > 0 && km > 0 && km < depthEnd) {
+                depthKm = parseDecimal(summary, numStart, km);
+                int open = summary.indexOf('(', km);
+                int mi = summary.indexOf(" mi", km);
+                if (open > 0 && mi > open && mi < depthEnd) {
+                    depthMi = parseDecimal(summary, open + 1, mi);
+                }
+            }
+        }
+        return new QuakeSummary(timeText, time, offsetMinutes, hasEpicenterTime, depthKm, depthMi);
+    }
+
+    /**
+     * Parses "yyyy-MM-dd HH:mm:ss" at the start of the range.
+     * @return seconds since the epoch (UTC), or Long.MIN_VALUE if the text is not in that form
+     */
+    static long parseDateTime(CharSequence s, int from, int to) {
+        if (to - from < 19 || s.charAt(from + 4) != '-' || s.charAt(from + 7) != '-'
+                || s.charAt(from + 10) != ' ' || s.charAt(from + 13) != ':' || s.charAt(from + 16) != ':') {
+            return Long.MIN_VALUE;
+        }
+        int year = digits(s, from, 4);
+        int month = digits(s, from + 5, 2);
+        int day = digits(s, from + 8, 2);
+        int hour = digits(s, from + 11, 2);
+        int minute = digits(s, from + 14, 2);
+        int second = digits(s, from + 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31 || hour < 0 || hour > 23
+                || minute < 0 || minute > 59 || second < 0 || second > 60) {
+            return Long.MIN_VALUE;
+        }
+        return daysFromCivil(year, month, day) * 86_400L + hour * 3_600L + minute * 60L + second;
+    }
+
+    /**
+     * Days since 1970-01-01 of a proleptic Gregorian date (Howard Hinnant's days_from_civil).
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = Math.floorDiv(y, 400);
+        int yoe = y - era * 400;
+        int doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146_097L + doe - 719_468L;
+    }
+
+    /**
+     * @return the value of {@code count} decimal digits starting at {@code from}, or -1 if one of them is not a digit
+     */
+    private static int digits(CharSequence s, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    /**
+     * Reads a plain decimal like "-10.41" without creating a substring. Short decimals like the ones in
+     * the feed come out exactly as {@link Double#parseDouble} would read them.
+     * @return the value, or NaN if the range is not a decimal number
+     */
+    static double parseDecimal(CharSequence s, int from, int to) {
+        from = skipSpaces(s, from, to);
+        boolean negative = from < to && s.charAt(from) == '-';
+        if (negative) {
+            from++;
+        }
+        long mantissa = 0;
+        int scale = -1;
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c == '.' && scale < 0) {
+                scale = 0;
+            } else if (c >= '0' && c <= '9' && count < 18) {
+                mantissa = mantissa * 10 + (c - '0');
+                count++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double value = scale > 0 ? mantissa / Math.pow(10, scale) : mantissa;
+        return negative ? -value : value;
+    }
+
+    private static int skipSpaces(CharSequence s, int from, int to) {
+        while (from < to && Character.isWhitespace(s.charAt(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimEnd(CharSequence s, int from, int to) {
+        while (to > from && Character.isWhitespace(s.charAt(to - 1))) {
+            to--;
+        }
+        return to;
+    }
+}
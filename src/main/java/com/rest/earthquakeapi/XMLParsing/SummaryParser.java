@@ -0,0 +1,19 @@
+package com.rest.earthquakeapi.XMLParsing;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Reads the {@code <summary>} of an entry into a {@link QuakeSummary}.
+ */
+public class SummaryParser implements ElementParser<QuakeSummary> {
+    @Override
+    public QuakeSummary parseElement(Element element) {
+        NodeList summary = element.getElementsByTagName("summary");
+
+        if (summary != null && summary.getLength() > 0) {
+            return SummaryExtractor.extract(summary.item(0).getTextContent());
+        }
+        return null;
+    }
+}
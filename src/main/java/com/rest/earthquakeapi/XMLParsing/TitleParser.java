@@ -1,10 +1,13 @@
 package com.rest.earthquakeapi.XMLParsing;
 
 import com.rest.earthquakeapi.model.QuakeEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
 public class TitleParser implements ElementParser<String> {
+    private static final Logger logger = LoggerFactory.getLogger(TitleParser.class);
 
     public TitleParser() {
 
@@ -18,9 +21,18 @@ public class TitleParser implements ElementParser<String> {
 
         String s2 = t2.item(0).getChildNodes().item(0).getNodeValue();
 
-        int sp = s2.indexOf(" ", 5); //6
-        String title = s2.substring(sp + 1);
-        System.out.println("the title is: " + title);
+        String title = titleFrom(s2);
+        logger.trace("the title is: {}", title);
+        return title;
+    }
+
+    /**
+     * Strips the magnitude prefix from a raw feed title, "M 1.6 - 72km SW of Delta Junction, Alaska" becomes
+     * "72km SW of Delta Junction, Alaska".
+     */
+    public static String titleFrom(String rawTitle) {
+        int sp = rawTitle.indexOf(" ", 5); //6
+        String title = rawTitle.substring(sp + 1);
         if (title.startsWith("-")) {
             int pos = title.indexOf(" ");
             title = title.substring(pos + 1);
@@ -87,17 +87,6 @@ public class Location  {
     private float mAccuracy = 0.0f;
     private boolean mIsFromMockProvider = false;
 
-    // Cache the inputs and outputs of computeDistanceAndBearing
-    // so calls to distanceTo() and bearingTo() can share work
-    private double mLat1 = 0.0;
-    private double mLon1 = 0.0;
-    private double mLat2 = 0.0;
-    private double mLon2 = 0.0;
-    private float mDistance = 0.0f;
-    private float mInitialBearing = 0.0f;
-    // Scratchpad
-    private final float[] mResults = new float[2];
-
     /**
      * Construct a new Location with a named provider.
      *
@@ -281,8 +270,14 @@ public class Location  {
         }
     }
 
-    private static void computeDistanceAndBearing(double lat1, double lon1,
-                                                  double lat2, double lon2, float[] results) {
+    /**
+     * Runs the inverse formula once. The results array may be null, it is filled the same way as
+     * in {@link #distanceBetween} when it is not.
+     *
+     * @return the initial bearing when {@code bearing} is true, the distance otherwise
+     */
+    private static float computeDistanceAndBearing(double lat1, double lon1,
+                                                   double lat2, double lon2, float[] results, boolean bearing) {
         // Based on http://www.ngs.noaa.gov/PUBS_LIB/inverse.pdf
         // using the "Inverse Formula" (section 4)
 
@@ -367,19 +362,25 @@ public class Location  {
         }
 
         float distance = (float) (b * A * (sigma - deltaSigma));
-        results[0] = distance;
-        if (results.length > 1) {
-            float initialBearing = (float) Math.atan2(cosU2 * sinLambda,
+        float initialBearing = 0.0f;
+        if (bearing || (results != null && results.length > 1)) {
+            initialBearing = (float) Math.atan2(cosU2 * sinLambda,
                     cosU1 * sinU2 - sinU1 * cosU2 * cosLambda);
             initialBearing *= 180.0 / Math.PI;
-            results[1] = initialBearing;
-            if (results.length > 2) {
-                float finalBearing = (float) Math.atan2(cosU1 * sinLambda,
-                        -sinU1 * cosU2 + cosU1 * sinU2 * cosLambda);
-                finalBearing *= 180.0 / Math.PI;
-                results[2] = finalBearing;
+        }
+        if (results != null) {
+            results[0] = distance;
+            if (results.length > 1) {
+                results[1] = initialBearing;
+                if (results.length > 2) {
+                    float finalBearing = (float) Math.atan2(cosU1 * sinLambda,
+                            -sinU1 * cosU2 + cosU1 * sinU2 * cosLambda);
+                    finalBearing *= 180.0 / Math.PI;
+                    results[2] = finalBearing;
+                }
             }
         }
+        return bearing ? initialBearing : distance;
     }
 
     /**
@@ -406,7 +407,40 @@ public class Location  {
             throw new IllegalArgumentException("results is null or has length < 1");
         }
         computeDistanceAndBearing(startLatitude, startLongitude,
-                endLatitude, endLongitude, results);
+                endLatitude, endLongitude, results, false);
+    }
+
+    /**
+     * Returns the approximate distance in meters between two points, defined using the WGS84 ellipsoid.
+     * Unlike {@link #distanceTo} this touches no object state, so it is safe to call from any number
+     * of threads at once and allocates nothing.
+     *
+     * @param startLatitude the starting latitude
+     * @param startLongitude the starting longitude
+     * @param endLatitude the ending latitude
+     * @param endLongitude the ending longitude
+     * @return the approximate distance in meters
+     */
+    public static float distance(double startLatitude, double startLongitude,
+                                 double endLatitude, double endLongitude) {
+        return computeDistanceAndBearing(startLatitude, startLongitude,
+                endLatitude, endLongitude, null, false);
+    }
+
+    /**
+     * Returns the approximate initial bearing in degrees East of true North when traveling along
+     * the shortest path between two points, see {@link #bearingTo}. Stateless like {@link #distance}.
+     *
+     * @param startLatitude the starting latitude
+     * @param startLongitude the starting longitude
+     * @param endLatitude the ending latitude
+     * @param endLongitude the ending longitude
+     * @return the initial bearing in degrees
+     */
+    public static float initialBearing(double startLatitude, double startLongitude,
+                                       double endLatitude, double endLongitude) {
+        return computeDistanceAndBearing(startLatitude, startLongitude,
+                endLatitude, endLongitude, null, true);
     }
 
     /**
@@ -418,21 +452,7 @@ public class Location  {
      * @return the approximate distance in meters
      */
     public float distanceTo(Location dest) {
-        // See if we already have the result
-        synchronized (mResults) {
-            if (mLatitude != mLat1 || mLongitude != mLon1 ||
-                    dest.mLatitude != mLat2 || dest.mLongitude != mLon2) {
-                computeDistanceAndBearing(mLatitude, mLongitude,
-                        dest.mLatitude, dest.mLongitude, mResults);
-                mLat1 = mLatitude;
-                mLon1 = mLongitude;
-                mLat2 = dest.mLatitude;
-                mLon2 = dest.mLongitude;
-                mDistance = mResults[0];
-                mInitialBearing = mResults[1];
-            }
-            return mDistance;
-        }
+        return distance(mLatitude, mLongitude, dest.mLatitude, dest.mLongitude);
     }
 
     /**
@@ -446,21 +466,7 @@ public class Location  {
      * @return the initial bearing in degrees
      */
     public float bearingTo(Location dest) {
-        synchronized (mResults) {
-            // See if we already have the result
-            if (mLatitude != mLat1 || mLongitude != mLon1 ||
-                    dest.mLatitude != mLat2 || dest.mLongitude != mLon2) {
-                computeDistanceAndBearing(mLatitude, mLongitude,
-                        dest.mLatitude, dest.mLongitude, mResults);
-                mLat1 = mLatitude;
-                mLon1 = mLongitude;
-                mLat2 = dest.mLatitude;
-                mLon2 = dest.mLongitude;
-                mDistance = mResults[0];
-                mInitialBearing = mResults[1];
-            }
-            return mInitialBearing;
-        }
+        return initialBearing(mLatitude, mLongitude, dest.mLatitude, dest.mLongitude);
     }
 
     /**
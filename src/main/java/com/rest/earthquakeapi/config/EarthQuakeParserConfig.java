@@ -1,15 +1,30 @@
 package com.rest.earthquakeapi.config;
 
 import com.rest.earthquakeapi.ParserManager.EarthQuakeParser;
+import com.rest.earthquakeapi.ParserManager.ParallelEarthQuakeParser;
+import com.rest.earthquakeapi.ParserManager.QuakeFeedParser;
+import com.rest.earthquakeapi.ParserManager.StaxEarthQuakeParser;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class EarthQuakeParserConfig {
 
+    /**
+     * Picks the feed parser from {@code earthquake.parser}: "stax" streams the feed one entry at a time,
+     * "dom" builds the whole document first, "parallel" parses chunks of a feed file on
+     * {@code earthquake.parser-threads} threads (0 for one per core).
+     */
     @Bean
-    public EarthQuakeParser earthQuakeParser(){
-        return new EarthQuakeParser();
+    public QuakeFeedParser earthQuakeParser(@Value("${earthquake.parser:stax}") String parserType,
+                                            @Value("${earthquake.parser-threads:0}") int threads){
+        return switch (parserType) {
+            case "stax" -> new StaxEarthQuakeParser();
+            case "parallel" -> new ParallelEarthQuakeParser(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+            case "dom" -> new EarthQuakeParser();
+            default -> throw new IllegalArgumentException("Unknown earthquake.parser: " + parserType);
+        };
     }
 
 
@@ -2,8 +2,16 @@ package com.rest.earthquakeapi.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.rest.earthquakeapi.metrics.QuakeMetrics;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
 
 @Configuration
 public class JacksonConfig {
@@ -15,4 +23,25 @@ public class JacksonConfig {
         return objectMapper;
     }
 
+    /**
+     * Writes the response bodies with the {@link #objectMapper()} and times every write as
+     * {@code earthquake.serialization}, tagged with the class of the body.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   QuakeMetrics metrics) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                    throws IOException, HttpMessageNotWritableException {
+                Timer.Sample sample = Timer.start(metrics.getRegistry());
+                try {
+                    super.writeInternal(object, type, outputMessage);
+                } finally {
+                    sample.stop(metrics.serializationTimer(object.getClass()));
+                }
+            }
+        };
+    }
+
 }
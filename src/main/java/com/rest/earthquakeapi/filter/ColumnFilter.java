@@ -0,0 +1,62 @@
+package com.rest.earthquakeapi.filter;
+
+import com.rest.earthquakeapi.snapshot.QuakeColumns;
+import com.rest.earthquakeapi.snapshot.QuakeSnapshot;
+import com.rest.earthquakeapi.snapshot.QuakeStats;
+
+import java.util.BitSet;
+
+/**
+ * A filter that can also run as a tight loop over the primitive columns of a {@link QuakeColumns} store.
+ * It also describes itself to the planner of {@link MatchAllFilter}: what a row costs to check and how many
+ * rows are expected to pass.
+ */
+public interface ColumnFilter extends Filter {
+
+    /**
+     * Keeps the rows in {@code rows[0..count)} that satisfy the filter, moved to the front of the array in their original order.
+     * The rows are read from the snapshot's columns, its dictionaries and indexes can be used for lookups.
+     * @return how many rows passed
+     */
+    int select(QuakeSnapshot snapshot, int[] rows, int count);
+
+    /**
+     * @return the relative cost of checking one row, a comparison of one numeric column costs 1
+     */
+    double cost();
+
+    /**
+     * @return the estimated fraction of rows that pass, between 0 and 1
+     */
+    double selectivity(QuakeStats stats);
+
+    /**
+     * Answers the filter from a sorted index of the snapshot, as a bitmap over all its rows, so that several
+     * filters can be combined by AND-ing their bitmaps a word at a time.
+     * @return a new bitmap with bit {@code row} set for every row that passes, or null if there is no index for it
+     */
+    default BitSet bitmap(QuakeSnapshot snapshot) {
+        return null;
+    }
+
+    /**
+     * @return whether {@link #bitmap} is answered from an index
+     */
+    default boolean hasBitmap() {
+        return false;
+    }
+
+    /**
+     * @return true if the filter lets every quake through and can be left out
+     */
+    default boolean matchesAll() {
+        return false;
+    }
+
+    /**
+     * @return one filter that checks both this and {@code other}, or null if they cannot be combined
+     */
+    default ColumnFilter fuse(ColumnFilter other) {
+        return null;
+    }
+}
@@ -2,8 +2,13 @@ package com.rest.earthquakeapi.filter;
 
 import com.rest.earthquakeapi.apache.Location;
 import com.rest.earthquakeapi.model.QuakeEntry;
+import com.rest.earthquakeapi.snapshot.QuakeColumns;
+import com.rest.earthquakeapi.snapshot.QuakeSnapshot;
+import com.rest.earthquakeapi.snapshot.QuakeStats;
 
-public class DepthFilter implements Filter{
+import java.util.BitSet;
+
+public class DepthFilter implements ColumnFilter{
 
     private double minDepth;
     private double maxDepth;
@@ -19,4 +24,73 @@ public class DepthFilter implements Filter{
         }
         return qe.getDepth()>=minDepth && qe.getDepth()<=maxDepth;
     }
+
+    @Override
+    public int select(QuakeSnapshot snapshot, int[] rows, int count) {
+        QuakeColumns columns = snapshot.getColumns();
+        if(minDepth == 0.0 || maxDepth==0.0){
+            return count;
+        }
+        double[] depths = columns.getDepths();
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            double depth = depths[row];
+            if (depth >= minDepth && depth <= maxDepth) {
+                rows[kept++] = row;
+            }
+        }
+        return kept;
+    }
+
+    @Override
+    public double cost() {
+        return 1.0;
+    }
+
+    @Override
+    public double selectivity(QuakeStats stats) {
+        return matchesAll() ? 1.0 : stats.getDepths().fractionBetween(minDepth, maxDepth);
+    }
+
+    @Override
+    public boolean hasBitmap() {
+        return true;
+    }
+
+    @Override
+    public BitSet bitmap(QuakeSnapshot snapshot) {
+        if (matchesAll()) {
+            BitSet all = new BitSet(snapshot.size());
+            all.set(0, snapshot.size());
+            return all;
+        }
+        return snapshot.getDepthIndex().bitsBetween(minDepth, maxDepth);
+    }
+
+    // a 0.0 bound means no depth range was given
+    @Override
+    public boolean matchesAll() {
+        return minDepth == 0.0 || maxDepth == 0.0;
+    }
+
+    @Override
+    public ColumnFilter fuse(ColumnFilter other) {
+        if (other instanceof DepthFilter) {
+            DepthFilter that = (DepthFilter) other;
+            if (matchesAll()) {
+                return that;
+            }
+            if (that.matchesAll()) {
+                return this;
+            }
+            return new DepthFilter(Math.max(minDepth, that.minDepth), Math.min(maxDepth, that.maxDepth));
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "depth in [" + minDepth + ", " + maxDepth + "]";
+    }
 }
@@ -1,19 +1,88 @@
 package com.rest.earthquakeapi.filter;
 
 import com.rest.earthquakeapi.apache.Location;
+import com.rest.earthquakeapi.index.DistancePrecision;
 import com.rest.earthquakeapi.model.QuakeEntry;
+import com.rest.earthquakeapi.snapshot.QuakeColumns;
+import com.rest.earthquakeapi.snapshot.QuakeSnapshot;
+import com.rest.earthquakeapi.snapshot.QuakeStats;
 
-public class DistanceFilter implements Filter{
+import java.util.Locale;
 
-    private Location location;
-    private double maxDistance;
+public class DistanceFilter implements ColumnFilter{
+
+    private static final double MEAN_RADIUS_METERS = 6371008.8;
+
+    // kept as plain values, so one filter can be shared by any number of threads
+    private final double latitude;
+    private final double longitude;
+    private final double maxDistance;
+    private final DistancePrecision precision;
 
     public DistanceFilter(Location location, double maxDistance){
-        this.location = location;
+        this(location, maxDistance, DistancePrecision.EXACT);
+    }
+
+    public DistanceFilter(Location location, double maxDistance, DistancePrecision precision){
+        this.latitude = (Double) location.getLatitude();
+        this.longitude = location.getLongitude();
         this.maxDistance = maxDistance;
+        this.precision = precision;
     }
     @Override
     public boolean satisfies(QuakeEntry qe) {
-        return qe.getLocation().distanceTo(location) < maxDistance;
+        Location quake = qe.getLocation();
+        return precision.within((Double) quake.getLatitude(), quake.getLongitude(), latitude, longitude, maxDistance);
+    }
+
+    @Override
+    public int select(QuakeSnapshot snapshot, int[] rows, int count) {
+        QuakeColumns columns = snapshot.getColumns();
+        double[] latitudes = columns.getLatitudes();
+        double[] longitudes = columns.getLongitudes();
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            if (precision.within(latitudes[row], longitudes[row], latitude, longitude, maxDistance)) {
+                rows[kept++] = row;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Vincenty iterates with a dozen trig calls per step, fast mode mostly gets by with one haversine.
+     */
+    @Override
+    public double cost() {
+        return precision == DistancePrecision.EXACT ? 60.0 : 8.0;
+    }
+
+    /**
+     * The rows reaching this filter come from the grid cells around the circle, so the estimate is the share
+     * of the circle's latitude/longitude bounding box that the circle itself covers.
+     */
+    @Override
+    public double selectivity(QuakeStats stats) {
+        double angle = maxDistance / MEAN_RADIUS_METERS;
+        if (angle >= Math.PI) {
+            return 1.0;
+        }
+        double cap = (1 - Math.cos(angle)) / 2; //share of the sphere inside the circle
+        double phi = Math.toRadians(latitude);
+        double south = Math.max(-Math.PI / 2, phi - angle);
+        double north = Math.min(Math.PI / 2, phi + angle);
+        double lonShare = 1.0;
+        if (south > -Math.PI / 2 && north < Math.PI / 2) {
+            lonShare = Math.min(1.0, Math.asin(Math.min(1.0, Math.sin(angle) / Math.cos(phi))) / Math.PI);
+        }
+        double box = (Math.sin(north) - Math.sin(south)) / 2 * lonShare; //share of the sphere inside the box
+        return box <= 0 ? 1.0 : Math.min(1.0, cap / box);
+    }
+
+    @Override
+    public String toString() {
+        return "distance < " + maxDistance + " m from (" + latitude + ", " + longitude + "), "
+                + precision.name().toLowerCase(Locale.ROOT) + " precision";
     }
 }
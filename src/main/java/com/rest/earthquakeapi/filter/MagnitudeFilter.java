@@ -1,8 +1,13 @@
 package com.rest.earthquakeapi.filter;
 
 import com.rest.earthquakeapi.model.QuakeEntry;
+import com.rest.earthquakeapi.snapshot.QuakeColumns;
+import com.rest.earthquakeapi.snapshot.QuakeSnapshot;
+import com.rest.earthquakeapi.snapshot.QuakeStats;
 
-public class MagnitudeFilter implements Filter{
+import java.util.BitSet;
+
+public class MagnitudeFilter implements ColumnFilter{
 
     private double minMag;
     private double maxMag;
@@ -17,5 +22,52 @@ public class MagnitudeFilter implements Filter{
         return qe.getMagnitude() >= minMag && qe.getMagnitude() <= maxMag;
     }
 
+    @Override
+    public int select(QuakeSnapshot snapshot, int[] rows, int count) {
+        QuakeColumns columns = snapshot.getColumns();
+        double[] magnitudes = columns.getMagnitudes();
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            double magnitude = magnitudes[row];
+            if (magnitude >= minMag && magnitude <= maxMag) {
+                rows[kept++] = row;
+            }
+        }
+        return kept;
+    }
+
+    @Override
+    public double cost() {
+        return 1.0;
+    }
+
+    @Override
+    public double selectivity(QuakeStats stats) {
+        return stats.getMagnitudes().fractionBetween(minMag, maxMag);
+    }
+
+    @Override
+    public boolean hasBitmap() {
+        return true;
+    }
+
+    @Override
+    public BitSet bitmap(QuakeSnapshot snapshot) {
+        return snapshot.getMagnitudeIndex().bitsBetween(minMag, maxMag);
+    }
 
+    @Override
+    public ColumnFilter fuse(ColumnFilter other) {
+        if (other instanceof MagnitudeFilter) {
+            MagnitudeFilter that = (MagnitudeFilter) other;
+            return new MagnitudeFilter(Math.max(minMag, that.minMag), Math.min(maxMag, that.maxMag));
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "magnitude in [" + minMag + ", " + maxMag + "]";
+    }
 }
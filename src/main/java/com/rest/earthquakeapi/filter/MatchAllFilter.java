@@ -1,8 +1,12 @@
 package com.rest.earthquakeapi.filter;
 
 import com.rest.earthquakeapi.model.QuakeEntry;
+import com.rest.earthquakeapi.snapshot.QuakeSnapshot;
+import com.rest.earthquakeapi.snapshot.QuakeStats;
 
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 
 public class MatchAllFilter implements Filter{
 
@@ -26,4 +30,51 @@ public class MatchAllFilter implements Filter{
         return true;
     }
 
+    /**
+     * Plans how to run the filters over a snapshot, instead of in the order they were added.
+     * Column filters on the same field are fused into one check and filters that match every quake are left out.
+     * The rest are ordered by cost / (1 - selectivity), estimated from the snapshot's statistics, so cheap filters
+     * that remove many rows run first and the expensive ones only see what is left.
+     * Filters that are not {@link ColumnFilter}s keep their order and run last.
+     */
+    public QueryPlan plan(QuakeSnapshot snapshot) {
+        List<String> notes = new ArrayList<>();
+        List<ColumnFilter> columnFilters = new ArrayList<>();
+        List<Filter> entryFilters = new ArrayList<>();
+        for (Filter filter : filters) {
+            if (filter instanceof ColumnFilter) {
+                fuseInto(columnFilters, (ColumnFilter) filter, notes);
+            } else {
+                entryFilters.add(filter);
+            }
+        }
+
+        QuakeStats stats = snapshot.getStats();
+        List<QueryPlan.Step> steps = new ArrayList<>();
+        for (ColumnFilter filter : columnFilters) {
+            if (filter.matchesAll()) {
+                notes.add("left out " + filter + ", it matches every quake");
+            } else {
+                steps.add(new QueryPlan.Step(filter, filter.cost(), filter.selectivity(stats)));
+            }
+        }
+        steps.sort(Comparator.comparingDouble(QueryPlan.Step::rank));
+        for (Filter filter : entryFilters) {
+            steps.add(new QueryPlan.Step(filter, null, null));
+        }
+        return new QueryPlan(snapshot, steps, notes);
+    }
+
+    private static void fuseInto(List<ColumnFilter> planned, ColumnFilter filter, List<String> notes) {
+        for (int i = 0; i < planned.size(); i++) {
+            ColumnFilter fused = planned.get(i).fuse(filter);
+            if (fused != null) {
+                notes.add("fused " + planned.get(i) + " and " + filter + " into " + fused);
+                planned.set(i, fused);
+                return;
+            }
+        }
+        planned.add(filter);
+    }
+
 }
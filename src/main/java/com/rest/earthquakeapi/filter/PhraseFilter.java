@@ -1,20 +1,48 @@
 package com.rest.earthquakeapi.filter;
 
 import com.rest.earthquakeapi.model.QuakeEntry;
+import com.rest.earthquakeapi.index.TitleIndex;
+import com.rest.earthquakeapi.snapshot.QuakeColumns;
+import com.rest.earthquakeapi.snapshot.QuakeSnapshot;
+import com.rest.earthquakeapi.snapshot.QuakeStats;
 
-public class PhraseFilter implements Filter{
+import java.util.BitSet;
+import java.util.Locale;
+
+public class PhraseFilter implements ColumnFilter{
+
+    // titles checked for the selectivity estimate, spread evenly over the title dictionary
+    private static final int SAMPLED_TITLES = 1024;
 
     private String typeOfRequest;
     private String phraseToSearch;
+    private boolean ignoreCase;
+    // per title id of the last columns seen: 0 not checked yet, 1 matches, 2 does not match
+    private QuakeColumns memoColumns;
+    private byte[] memo;
 
     public PhraseFilter(String typeOfRequest, String phraseToSearch) {
+        this(typeOfRequest, phraseToSearch, false);
+    }
+
+    public PhraseFilter(String typeOfRequest, String phraseToSearch, boolean ignoreCase) {
         this.typeOfRequest = typeOfRequest;
-        this.phraseToSearch = phraseToSearch;
+        this.phraseToSearch = ignoreCase ? phraseToSearch.toLowerCase(Locale.ROOT) : phraseToSearch;
+        this.ignoreCase = ignoreCase;
     }
 
     @Override
     public boolean satisfies(QuakeEntry qe) {
-        String title = qe.getInfo();
+        return matches(qe.getInfo());
+    }
+
+    private boolean matches(String title) {
+        if (title == null) {
+            return false; //an entry without a <title>
+        }
+        if (ignoreCase) {
+            title = title.toLowerCase(Locale.ROOT);
+        }
         return switch (typeOfRequest) {
             case "start" -> title.startsWith(phraseToSearch);
             case "end" -> title.endsWith(phraseToSearch);
@@ -22,4 +50,85 @@ public class PhraseFilter implements Filter{
             default -> false;
         };
     }
+
+    /**
+     * Many quakes share a title, so each distinct title is only matched once and the rows look up the answer.
+     */
+    @Override
+    public int select(QuakeSnapshot snapshot, int[] rows, int count) {
+        QuakeColumns columns = snapshot.getColumns();
+        int[] titleIds = columns.getTitleIds();
+        String[] titles = columns.getTitles();
+        byte[] known = memoFor(columns);
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            int titleId = titleIds[row];
+            if (known[titleId] == 0) {
+                known[titleId] = matches(titles[titleId]) ? (byte) 1 : (byte) 2;
+            }
+            if (known[titleId] == 1) {
+                rows[kept++] = row;
+            }
+        }
+        return kept;
+    }
+
+    @Override
+    public boolean hasBitmap() {
+        return true;
+    }
+
+    /**
+     * Looks the phrase up in the snapshot's title index instead of matching titles.
+     */
+    @Override
+    public BitSet bitmap(QuakeSnapshot snapshot) {
+        TitleIndex index = snapshot.getTitleIndex(ignoreCase);
+        return index.rowBits(index.titlesMatching(typeOfRequest, phraseToSearch));
+    }
+
+    private byte[] memoFor(QuakeColumns columns) {
+        if (memoColumns != columns) {
+            memo = new byte[columns.getTitles().length];
+            memoColumns = columns;
+        }
+        return memo;
+    }
+
+    @Override
+    public double cost() {
+        return 2.0; //a dictionary lookup, plus the string match the first time a title is seen
+    }
+
+    /**
+     * Matches a sample of the distinct titles, weighted by how many quakes carry each one.
+     */
+    @Override
+    public double selectivity(QuakeStats stats) {
+        String[] titles = stats.getColumns().getTitles();
+        if (titles.length == 0) {
+            return 0.0;
+        }
+        int step = Math.max(1, titles.length / SAMPLED_TITLES);
+        long sampled = 0;
+        long matched = 0;
+        for (int titleId = 0; titleId < titles.length; titleId += step) {
+            int rows = stats.titleCount(titleId);
+            sampled += rows;
+            if (matches(titles[titleId])) {
+                matched += rows;
+            }
+        }
+        return sampled == 0 ? 0.0 : (double) matched / sampled;
+    }
+
+    @Override
+    public String toString() {
+        String how = "start".equals(typeOfRequest) ? "starts with"
+                : "end".equals(typeOfRequest) ? "ends with"
+                : "any".equals(typeOfRequest) ? "contains"
+                : typeOfRequest;
+        return "title " + how + " '" + phraseToSearch + "'" + (ignoreCase ? " ignoring case" : "");
+    }
 }
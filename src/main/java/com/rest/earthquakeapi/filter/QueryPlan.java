@@ -0,0 +1,262 @@
+package com.rest.earthquakeapi.filter;
+
+import com.rest.earthquakeapi.snapshot.QuakeSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The order {@link MatchAllFilter#plan} chose to run its filters in, over one snapshot.
+ * Column filters run first, each as one loop over the rows the previous ones kept. Filters that only work on
+ * whole entries run last. After {@link #execute} every step also records how many rows went in and out,
+ * which is what {@code /filter-all?explain=true} shows.
+ * <p>
+ * When most of the snapshot is a candidate, the range filters that have a sorted index are instead answered as
+ * bitmaps over all rows and AND-ed together, see {@link Strategy#BITMAP}.
+ */
+public class QueryPlan {
+
+    public enum Strategy {
+        /** every filter loops over the rows the previous ones kept */
+        ROW_LOOP,
+        /** range filters become bitmaps from the sorted indexes and are AND-ed, the rest loop over what is left */
+        BITMAP
+    }
+
+    private final QuakeSnapshot snapshot;
+    private final List<Step> steps;
+    private final List<String> notes;
+    private String accessPath;
+    private Integer candidates;
+    private Strategy strategy;
+    private int[] rows;
+
+    QueryPlan(QuakeSnapshot snapshot, List<Step> steps, List<String> notes) {
+        this.snapshot = snapshot;
+        this.steps = steps;
+        this.notes = notes;
+    }
+
+    /**
+     * Runs the plan over the candidate rows with the strategy that is estimated to be cheaper.
+     * @param accessPath how the candidates were found, shown in the explain output
+     * @param candidateRows ascending rows, the array is not modified
+     * @return the rows that pass every filter, ascending
+     */
+    public int[] execute(String accessPath, int[] candidateRows) {
+        return execute(accessPath, candidateRows, cheaperStrategy(candidateRows.length));
+    }
+
+    public int[] execute(String accessPath, int[] candidateRows, Strategy strategy) {
+        this.accessPath = accessPath;
+        this.candidates = candidateRows.length;
+        this.strategy = strategy;
+        for (Step step : steps) {
+            step.rowsIn = null;
+            step.rowsOut = null;
+        }
+        rows = strategy == Strategy.BITMAP ? runBitmaps(candidateRows) : runLoops(candidateRows.clone(), steps);
+        return rows;
+    }
+
+    private int[] runLoops(int[] work, List<Step> loopSteps) {
+        int count = work.length;
+        for (Step step : loopSteps) {
+            step.rowsIn = count;
+            count = step.run(snapshot, work, count);
+            step.rowsOut = count;
+        }
+        return Arrays.copyOf(work, count);
+    }
+
+    private int[] runBitmaps(int[] candidateRows) {
+        int n = snapshot.size();
+        BitSet bits = null; //null while every row is still in
+        if (candidateRows.length < n) {
+            bits = new BitSet(n);
+            for (int row : candidateRows) {
+                bits.set(row);
+            }
+        }
+        List<Step> loopSteps = new ArrayList<>();
+        for (Step step : steps) {
+            BitSet stepBits = step.hasBitmap() ? ((ColumnFilter) step.filter).bitmap(snapshot) : null;
+            if (stepBits == null) {
+                loopSteps.add(step);
+                continue;
+            }
+            step.rowsIn = bits == null ? n : bits.cardinality();
+            if (bits == null) {
+                bits = stepBits;
+            } else {
+                bits.and(stepBits); //one AND per 64 rows
+            }
+            step.rowsOut = bits.cardinality();
+        }
+        int[] work;
+        if (bits == null) {
+            work = candidateRows.clone();
+        } else {
+            work = new int[bits.cardinality()];
+            int k = 0;
+            for (int row = bits.nextSetBit(0); row >= 0; row = bits.nextSetBit(row + 1)) {
+                work[k++] = row;
+            }
+        }
+        return runLoops(work, loopSteps);
+    }
+
+    /**
+     * Row loops cost about one unit per row and filter, scaled by the filter's cost. A bitmap costs a unit per
+     * matching row of the whole snapshot to build, and a unit per 64 rows to AND and read back, so it only wins
+     * when the candidates are a large part of the snapshot.
+     */
+    Strategy cheaperStrategy(int candidateCount) {
+        int n = snapshot.size();
+        double words = n / 64.0;
+        double loopCost = 0;
+        double rowsLeft = candidateCount;
+        for (Step step : steps) {
+            double cost = step.cost == null ? 1.0 : step.cost;
+            loopCost += rowsLeft * cost;
+            rowsLeft *= step.estimatedSelectivity == null ? 1.0 : step.estimatedSelectivity;
+        }
+
+        double bitmapCost = candidateCount < n ? candidateCount + words : 0;
+        double bitmapRows = candidateCount;
+        boolean anyBitmap = false;
+        for (Step step : steps) {
+            if (step.hasBitmap()) {
+                double selectivity = step.estimatedSelectivity == null ? 1.0 : step.estimatedSelectivity;
+                anyBitmap = true;
+                bitmapCost += selectivity * n + 3 * words; //set bits, AND, two counts
+                bitmapRows *= selectivity;
+            }
+        }
+        bitmapCost += words + bitmapRows; //read the rows back
+        for (Step step : steps) {
+            if (!step.hasBitmap()) {
+                double cost = step.cost == null ? 1.0 : step.cost;
+                bitmapCost += bitmapRows * cost;
+                bitmapRows *= step.estimatedSelectivity == null ? 1.0 : step.estimatedSelectivity;
+            }
+        }
+        return anyBitmap && bitmapCost < loopCost ? Strategy.BITMAP : Strategy.ROW_LOOP;
+    }
+
+    /**
+     * @return the matching rows of the last {@link #execute}
+     */
+    public int[] rows() {
+        return rows;
+    }
+
+    public String getAccessPath() {
+        return accessPath;
+    }
+
+    public Integer getCandidates() {
+        return candidates;
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    public List<Step> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * @return what the planner fused or left out
+     */
+    public List<String> getNotes() {
+        return Collections.unmodifiableList(notes);
+    }
+
+    public Integer getMatched() {
+        return rows == null ? null : rows.length;
+    }
+
+    @Override
+    public String toString() {
+        List<String> lines = new ArrayList<>();
+        for (Step step : steps) {
+            lines.add(step.toString());
+        }
+        return String.join(" -> ", lines);
+    }
+
+    /**
+     * One filter of the plan with the planner's estimates.
+     */
+    public static final class Step {
+        private final Filter filter;
+        private final Double cost;                 //null when not estimated
+        private final Double estimatedSelectivity; //null when not estimated
+        private Integer rowsIn;
+        private Integer rowsOut;
+
+        Step(Filter filter, Double cost, Double estimatedSelectivity) {
+            this.filter = filter;
+            this.cost = cost;
+            this.estimatedSelectivity = estimatedSelectivity;
+        }
+
+        private boolean hasBitmap() {
+            return filter instanceof ColumnFilter && ((ColumnFilter) filter).hasBitmap();
+        }
+
+        private int run(QuakeSnapshot snapshot, int[] rows, int count) {
+            if (filter instanceof ColumnFilter) {
+                return ((ColumnFilter) filter).select(snapshot, rows, count);
+            }
+            int kept = 0;
+            for (int i = 0; i < count; i++) {
+                if (filter.satisfies(snapshot.getEntries().get(rows[i]))) {
+                    rows[kept++] = rows[i];
+                }
+            }
+            return kept;
+        }
+
+        /**
+         * Cheap filters that remove many rows go first: the planner orders by cost / (1 - selectivity).
+         */
+        double rank() {
+            return cost / Math.max(1e-9, 1.0 - estimatedSelectivity);
+        }
+
+        public String getFilter() {
+            return filter.toString();
+        }
+
+        public Double getCost() {
+            return cost;
+        }
+
+        public Double getEstimatedSelectivity() {
+            return estimatedSelectivity;
+        }
+
+        public Integer getRowsIn() {
+            return rowsIn;
+        }
+
+        public Integer getRowsOut() {
+            return rowsOut;
+        }
+
+        @Override
+        public String toString() {
+            if (cost == null) {
+                return filter.toString();
+            }
+            return filter + " (cost " + cost + ", selectivity " + String.format(Locale.ROOT, "%.3f", estimatedSelectivity) + ")";
+        }
+    }
+}
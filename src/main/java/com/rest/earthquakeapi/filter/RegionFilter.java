@@ -0,0 +1,102 @@
+package com.rest.earthquakeapi.filter;
+
+import com.rest.earthquakeapi.model.QuakeEntry;
+import com.rest.earthquakeapi.snapshot.QuakeColumns;
+import com.rest.earthquakeapi.snapshot.QuakeSnapshot;
+import com.rest.earthquakeapi.snapshot.QuakeStats;
+
+import java.util.BitSet;
+
+/**
+ * Keeps the quakes of one region, the part of the title after the comma, see {@link QuakeColumns#regionOf(String)}.
+ */
+public class RegionFilter implements ColumnFilter{
+
+    private String region;
+
+    /**
+     * @param region the region to keep, null keeps every quake
+     */
+    public RegionFilter(String region) {
+        this.region = region;
+    }
+
+    @Override
+    public boolean satisfies(QuakeEntry qe) {
+        return region == null || region.equals(QuakeColumns.regionOf(qe.getTitle()));
+    }
+
+    /**
+     * Compares region ids, the region name is only looked up once in the snapshot's region index.
+     */
+    @Override
+    public int select(QuakeSnapshot snapshot, int[] rows, int count) {
+        if (region == null) {
+            return count;
+        }
+        int regionId = snapshot.getRegionIndex().idOf(region);
+        int[] regionIds = snapshot.getColumns().getRegionIds();
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            if (regionIds[row] == regionId) {
+                rows[kept++] = row;
+            }
+        }
+        return kept;
+    }
+
+    @Override
+    public double cost() {
+        return 1.0;
+    }
+
+    @Override
+    public double selectivity(QuakeStats stats) {
+        if (region == null) {
+            return 1.0;
+        }
+        int regionId = stats.getRegionIndex().idOf(region);
+        return regionId < 0 || stats.getRowCount() == 0 ? 0.0 : (double) stats.getRegionIndex().count(regionId) / stats.getRowCount();
+    }
+
+    @Override
+    public boolean hasBitmap() {
+        return true;
+    }
+
+    @Override
+    public BitSet bitmap(QuakeSnapshot snapshot) {
+        if (region == null) {
+            BitSet all = new BitSet(snapshot.size());
+            all.set(0, snapshot.size());
+            return all;
+        }
+        int regionId = snapshot.getRegionIndex().idOf(region);
+        return regionId < 0 ? new BitSet() : snapshot.getRegionIndex().rowBits(new int[]{regionId});
+    }
+
+    @Override
+    public boolean matchesAll() {
+        return region == null;
+    }
+
+    @Override
+    public ColumnFilter fuse(ColumnFilter other) {
+        if (other instanceof RegionFilter) {
+            RegionFilter that = (RegionFilter) other;
+            if (matchesAll() || region.equals(that.region)) {
+                return that;
+            }
+            if (that.matchesAll()) {
+                return this;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "region is '" + region + "'";
+    }
+}
@@ -0,0 +1,83 @@
+package com.rest.earthquakeapi.filter;
+
+import com.rest.earthquakeapi.model.QuakeEntry;
+import com.rest.earthquakeapi.snapshot.QuakeColumns;
+import com.rest.earthquakeapi.snapshot.QuakeSnapshot;
+import com.rest.earthquakeapi.snapshot.QuakeStats;
+
+import java.time.Instant;
+import java.util.BitSet;
+
+public class TimeFilter implements ColumnFilter{
+
+    private long from;
+    private long to;
+
+    /**
+     * @param from earliest event time in epoch millis, inclusive
+     * @param to   latest event time in epoch millis, inclusive
+     */
+    public TimeFilter(long from, long to){
+        this.from = from;
+        this.to = to;
+    }
+    @Override
+    public boolean satisfies(QuakeEntry qe) {
+        return qe.getTime() >= from && qe.getTime() <= to;
+    }
+
+    @Override
+    public int select(QuakeSnapshot snapshot, int[] rows, int count) {
+        QuakeColumns columns = snapshot.getColumns();
+        long[] times = columns.getTimes();
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            long time = times[row];
+            if (time >= from && time <= to) {
+                rows[kept++] = row;
+            }
+        }
+        return kept;
+    }
+
+    @Override
+    public double cost() {
+        return 1.0;
+    }
+
+    @Override
+    public double selectivity(QuakeStats stats) {
+        return stats.getTimes().fractionBetween(from, to);
+    }
+
+    @Override
+    public boolean hasBitmap() {
+        return true;
+    }
+
+    @Override
+    public BitSet bitmap(QuakeSnapshot snapshot) {
+        return snapshot.getTimeIndex().bitsBetween(from, to);
+    }
+
+    @Override
+    public boolean matchesAll() {
+        return from == Long.MIN_VALUE && to == Long.MAX_VALUE;
+    }
+
+    @Override
+    public ColumnFilter fuse(ColumnFilter other) {
+        if (other instanceof TimeFilter) {
+            TimeFilter that = (TimeFilter) other;
+            return new TimeFilter(Math.max(from, that.from), Math.min(to, that.to));
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "time in [" + (from == Long.MIN_VALUE ? "-inf" : Instant.ofEpochMilli(from)) + ", "
+                + (to == Long.MAX_VALUE ? "+inf" : Instant.ofEpochMilli(to)) + "]";
+    }
+}
@@ -0,0 +1,108 @@
+package com.rest.earthquakeapi.index;
+
+/**
+ * Keeps the {@code capacity} rows with the smallest keys seen so far, on primitive arrays.
+ * Internally a max-heap, so the current worst row is at the top and is replaced in O(log k).
+ * Equal keys are ordered by row, the lower row wins, which matches a stable scan in feed order.
+ */
+public final class BoundedRowHeap {
+
+    private final double[] keys;
+    private final int[] rows;
+    private int size;
+
+    public BoundedRowHeap(int capacity) {
+        keys = new double[Math.max(capacity, 0)];
+        rows = new int[Math.max(capacity, 0)];
+    }
+
+    public boolean isFull() {
+        return size == keys.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the largest key kept, only meaningful when the heap is not empty
+     */
+    public double maxKey() {
+        return keys[0];
+    }
+
+    /**
+     * Offers a row, it is kept if the heap is not full yet or if it beats the current worst row.
+     */
+    public void offer(double key, int row) {
+        if (size < keys.length) {
+            int i = size++;
+            keys[i] = key;
+            rows[i] = row;
+            siftUp(i);
+        } else if (size > 0 && worse(keys[0], rows[0], key, row)) {
+            keys[0] = key;
+            rows[0] = row;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * @return the kept rows ordered by ascending key, then ascending row. Empties the heap.
+     */
+    public int[] drainAscending() {
+        int[] result = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = rows[0];
+            size--;
+            keys[0] = keys[size];
+            rows[0] = rows[size];
+            siftDown(0);
+        }
+        return result;
+    }
+
+    // true if (k1, r1) sorts after (k2, r2)
+    private static boolean worse(double k1, int r1, double k2, int r2) {
+        return k1 > k2 || (k1 == k2 && r1 > r2);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!worse(keys[i], rows[i], keys[parent], rows[parent])) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int largest = left;
+            int right = left + 1;
+            if (right < size && worse(keys[right], rows[right], keys[left], rows[left])) {
+                largest = right;
+            }
+            if (!worse(keys[largest], rows[largest], keys[i], rows[i])) {
+                return;
+            }
+            swap(i, largest);
+            i = largest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        double k = keys[a];
+        keys[a] = keys[b];
+        keys[b] = k;
+        int r = rows[a];
+        rows[a] = rows[b];
+        rows[b] = r;
+    }
+}
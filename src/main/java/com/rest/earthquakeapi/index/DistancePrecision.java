@@ -0,0 +1,103 @@
+package com.rest.earthquakeapi.index;
+
+import com.rest.earthquakeapi.apache.Location;
+
+import java.util.Locale;
+
+/**
+ * How distances are measured for radius and nearest-quake queries.
+ * {@link #EXACT} runs the iterative Vincenty formula of {@link Location#distance} for every quake.
+ * {@link #FAST} first rejects quakes outside the latitude band of the circle, then uses the closed-form
+ * haversine formula on a sphere and only runs Vincenty for quakes whose haversine distance is within
+ * {@link #HAVERSINE_TOLERANCE} of the radius. A radius query therefore returns the same quakes in both modes,
+ * only the distances used for ordering are the spherical ones in fast mode.
+ */
+public enum DistancePrecision {
+
+    FAST {
+        @Override
+        public double distance(double lat1, double lon1, double lat2, double lon2) {
+            return haversine(lat1, lon1, lat2, lon2);
+        }
+
+        @Override
+        public boolean within(double lat1, double lon1, double lat2, double lon2, double radiusMeters) {
+            if (Math.abs(lat1 - lat2) > Math.toDegrees(radiusMeters / SAFE_RADIUS_METERS)) {
+                return false; //outside the latitude band of the circle
+            }
+            double d = haversine(lat1, lon1, lat2, lon2);
+            if (d < radiusMeters * (1 - HAVERSINE_TOLERANCE)) {
+                return true;
+            }
+            if (d >= radiusMeters * (1 + HAVERSINE_TOLERANCE)) {
+                return false;
+            }
+            return Location.distance(lat1, lon1, lat2, lon2) < radiusMeters; //too close to the edge to trust the sphere
+        }
+    },
+
+    EXACT {
+        @Override
+        public double distance(double lat1, double lon1, double lat2, double lon2) {
+            return Location.distance(lat1, lon1, lat2, lon2);
+        }
+
+        @Override
+        public boolean within(double lat1, double lon1, double lat2, double lon2, double radiusMeters) {
+            return Location.distance(lat1, lon1, lat2, lon2) < radiusMeters;
+        }
+    };
+
+    /**
+     * Largest relative difference between the haversine distance on the mean-radius sphere and the
+     * WGS84 ellipsoidal distance is about 0.56%. 1% leaves headroom for rounding in both formulas.
+     */
+    public static final double HAVERSINE_TOLERANCE = 0.01;
+
+    private static final double MEAN_RADIUS_METERS = 6371008.8;
+    /**
+     * Smallest radius of the WGS84 ellipsoid with 1% headroom. A distance in meters divided by it is an angle that
+     * is never smaller than the real one, so a box or band around a circle built from it always covers the circle.
+     */
+    public static final double SAFE_RADIUS_METERS = 6356752.3142 / 1.01;
+
+    /**
+     * @return the distance in meters between two points, spherical in fast mode and ellipsoidal in exact mode
+     */
+    public abstract double distance(double lat1, double lon1, double lat2, double lon2);
+
+    /**
+     * @return whether the second point is strictly closer than {@code radiusMeters} to the first
+     */
+    public abstract boolean within(double lat1, double lon1, double lat2, double lon2, double radiusMeters);
+
+    /**
+     * Great-circle distance in meters on a sphere of the mean earth radius.
+     */
+    public static double haversine(double lat1, double lon1, double lat2, double lon2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double sinHalfDPhi = Math.sin((phi2 - phi1) / 2);
+        double sinHalfDLambda = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+        double h = sinHalfDPhi * sinHalfDPhi + Math.cos(phi1) * Math.cos(phi2) * sinHalfDLambda * sinHalfDLambda;
+        return 2 * MEAN_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(h)));
+    }
+
+    /**
+     * @param value "fast" or "exact" in any case, null means exact
+     * @throws IllegalArgumentException for any other value
+     */
+    public static DistancePrecision parse(String value) {
+        if (value == null) {
+            return EXACT;
+        }
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "fast":
+                return FAST;
+            case "exact":
+                return EXACT;
+            default:
+                throw new IllegalArgumentException("Unknown precision '" + value + "', expected fast or exact");
+        }
+    }
+}
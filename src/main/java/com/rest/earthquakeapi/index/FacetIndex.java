@@ -0,0 +1,142 @@
+package com.rest.earthquakeapi.index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * The rows of every value of a dictionary-encoded column, such as the region of a quake.
+ * Listing the values, counting them and finding the rows of one value are lookups, no row is scanned.
+ */
+public final class FacetIndex {
+
+    private final String[] values; //indexed by value id
+    private final Map<String, Integer> idsByValue;
+    private final int[] sorted; //ids of the non-null values, ordered by value
+    private final int[] rowStarts; //rows of value v are valueRows[rowStarts[v] .. rowStarts[v + 1])
+    private final int[] valueRows;
+
+    private FacetIndex(String[] values, Map<String, Integer> idsByValue, int[] sorted, int[] rowStarts, int[] valueRows) {
+        this.values = values;
+        this.idsByValue = idsByValue;
+        this.sorted = sorted;
+        this.rowStarts = rowStarts;
+        this.valueRows = valueRows;
+    }
+
+    /**
+     * @param dictionary the distinct values, indexed by value id
+     * @param valueIds the value id of every row
+     */
+    public static FacetIndex build(String[] dictionary, int[] valueIds) {
+        Map<String, Integer> idsByValue = new HashMap<>();
+        for (int id = 0; id < dictionary.length; id++) {
+            idsByValue.put(dictionary[id], id);
+        }
+        int[] sorted = IntStream.range(0, dictionary.length)
+                .filter(id -> dictionary[id] != null)
+                .boxed()
+                .sorted(Comparator.comparing(id -> dictionary[id]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        // counting sort of the rows by value id keeps the rows of each value ascending
+        int[] rowStarts = new int[dictionary.length + 1];
+        for (int id : valueIds) {
+            rowStarts[id + 1]++;
+        }
+        for (int id = 0; id < dictionary.length; id++) {
+            rowStarts[id + 1] += rowStarts[id];
+        }
+        int[] fill = Arrays.copyOf(rowStarts, dictionary.length);
+        int[] valueRows = new int[valueIds.length];
+        for (int row = 0; row < valueIds.length; row++) {
+            valueRows[fill[valueIds[row]]++] = row;
+        }
+        return new FacetIndex(dictionary, idsByValue, sorted, rowStarts, valueRows);
+    }
+
+    /**
+     * @return every value that occurs, sorted, without null
+     */
+    public String[] values() {
+        String[] result = new String[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            result[i] = values[sorted[i]];
+        }
+        return result;
+    }
+
+    /**
+     * @return every value that occurs with its number of rows, sorted by value, without null
+     */
+    public Map<String, Integer> counts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (int id : sorted) {
+            counts.put(values[id], count(id));
+        }
+        return counts;
+    }
+
+    /**
+     * @return the ids of the non-null values, ordered by value. Shared, not copied.
+     */
+    int[] sortedIds() {
+        return sorted;
+    }
+
+    /**
+     * @return the id of the value, or -1 if no row has it
+     */
+    public int idOf(String value) {
+        return Objects.requireNonNullElse(idsByValue.get(value), -1);
+    }
+
+    public int count(int id) {
+        return id < 0 ? 0 : rowStarts[id + 1] - rowStarts[id];
+    }
+
+    /**
+     * @return the rows with the value, ascending, empty if no row has it
+     */
+    public int[] rows(String value) {
+        int id = idOf(value);
+        return id < 0 ? new int[0] : Arrays.copyOfRange(valueRows, rowStarts[id], rowStarts[id + 1]);
+    }
+
+    /**
+     * @return the rows that have any of the value ids, ascending
+     */
+    public int[] rows(int[] ids) {
+        int count = 0;
+        for (int id : ids) {
+            count += count(id);
+        }
+        int[] result = new int[count];
+        int k = 0;
+        for (int id : ids) {
+            System.arraycopy(valueRows, rowStarts[id], result, k, count(id));
+            k += count(id);
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * @return the rows that have any of the value ids, as a bitmap over every row
+     */
+    public BitSet rowBits(int[] ids) {
+        BitSet bits = new BitSet(valueRows.length);
+        for (int id : ids) {
+            for (int i = rowStarts[id]; i < rowStarts[id + 1]; i++) {
+                bits.set(valueRows[i]);
+            }
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,139 @@
+package com.rest.earthquakeapi.index;
+
+import java.util.Arrays;
+
+/**
+ * Buckets quake rows into a fixed latitude/longitude grid. A radius query only looks at the cells that
+ * overlap the bounding box of the search circle and computes the exact distance for the quakes in them.
+ * The cells are stored compressed: the rows of cell {@code c} are {@code cellRows[cellStart[c] .. cellStart[c+1])}.
+ */
+public final class GeoGridIndex {
+
+    public static final double DEFAULT_CELL_DEGREES = 1.0;
+
+    private final double cellDegrees;
+    private final int latCells;
+    private final int lonCells;
+    private final int[] cellStart;
+    private final int[] cellRows;
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    private GeoGridIndex(double cellDegrees, int[] cellStart, int[] cellRows, double[] latitudes, double[] longitudes) {
+        this.cellDegrees = cellDegrees;
+        this.latCells = (int) Math.ceil(180.0 / cellDegrees);
+        this.lonCells = (int) Math.ceil(360.0 / cellDegrees);
+        this.cellStart = cellStart;
+        this.cellRows = cellRows;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+    }
+
+    /**
+     * The arrays are kept, not copied, and must not change afterwards.
+     */
+    public static GeoGridIndex build(double[] latitudes, double[] longitudes) {
+        return build(latitudes, longitudes, DEFAULT_CELL_DEGREES);
+    }
+
+    public static GeoGridIndex build(double[] latitudes, double[] longitudes, double cellDegrees) {
+        int n = latitudes.length;
+        int latCells = (int) Math.ceil(180.0 / cellDegrees);
+        int lonCells = (int) Math.ceil(360.0 / cellDegrees);
+        int[] cellOf = new int[n];
+        int[] cellStart = new int[latCells * lonCells + 1];
+        for (int row = 0; row < n; row++) {
+            int cell = latCell(latitudes[row], cellDegrees, latCells) * lonCells
+                    + lonCell(longitudes[row], cellDegrees, lonCells);
+            cellOf[row] = cell;
+            cellStart[cell + 1]++;
+        }
+        for (int c = 0; c < latCells * lonCells; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        int[] fill = Arrays.copyOf(cellStart, cellStart.length - 1);
+        int[] cellRows = new int[n];
+        for (int row = 0; row < n; row++) {
+            cellRows[fill[cellOf[row]]++] = row;
+        }
+        return new GeoGridIndex(cellDegrees, cellStart, cellRows, latitudes, longitudes);
+    }
+
+    /**
+     * @return the rows in every cell touching the bounding box of the circle, in ascending row order.
+     * This is a superset of the quakes inside the circle, the exact distance still has to be checked.
+     */
+    public int[] candidates(double latitude, double longitude, double radiusMeters) {
+        double angle = radiusMeters / DistancePrecision.SAFE_RADIUS_METERS; //angular radius in radians
+        double radius = Math.toDegrees(angle);
+        double minLat = latitude - radius;
+        double maxLat = latitude + radius;
+        boolean allLongitudes;
+        double lonRadius = 180.0;
+        if (angle >= Math.PI || minLat <= -90.0 || maxLat >= 90.0) {
+            // the circle reaches a pole, every longitude is inside the box
+            allLongitudes = true;
+        } else {
+            lonRadius = Math.toDegrees(Math.asin(Math.sin(angle) / Math.cos(Math.toRadians(latitude))));
+            allLongitudes = lonRadius >= 180.0;
+        }
+        int firstLat = latCell(minLat, cellDegrees, latCells);
+        int lastLat = latCell(maxLat, cellDegrees, latCells);
+        int firstLon = (int) Math.floor((longitude - lonRadius + 180.0) / cellDegrees);
+        int lastLon = (int) Math.floor((longitude + lonRadius + 180.0) / cellDegrees);
+        if (allLongitudes || lastLon - firstLon + 1 >= lonCells) {
+            firstLon = 0;
+            lastLon = lonCells - 1;
+        }
+
+        int count = 0;
+        for (int la = firstLat; la <= lastLat; la++) {
+            for (int lo = firstLon; lo <= lastLon; lo++) {
+                int cell = la * lonCells + Math.floorMod(lo, lonCells);
+                count += cellStart[cell + 1] - cellStart[cell];
+            }
+        }
+        int[] result = new int[count];
+        int k = 0;
+        for (int la = firstLat; la <= lastLat; la++) {
+            for (int lo = firstLon; lo <= lastLon; lo++) {
+                int cell = la * lonCells + Math.floorMod(lo, lonCells);
+                int length = cellStart[cell + 1] - cellStart[cell];
+                System.arraycopy(cellRows, cellStart[cell], result, k, length);
+                k += length;
+            }
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * @return the rows strictly closer than {@code radiusMeters} to the point, in ascending row order
+     */
+    public int[] within(double latitude, double longitude, double radiusMeters) {
+        return within(latitude, longitude, radiusMeters, DistancePrecision.EXACT);
+    }
+
+    /**
+     * @return the rows strictly closer than {@code radiusMeters} to the point, measured with the given precision
+     */
+    public int[] within(double latitude, double longitude, double radiusMeters, DistancePrecision precision) {
+        int[] candidates = candidates(latitude, longitude, radiusMeters);
+        int k = 0;
+        for (int row : candidates) {
+            if (precision.within(latitude, longitude, latitudes[row], longitudes[row], radiusMeters)) {
+                candidates[k++] = row;
+            }
+        }
+        return Arrays.copyOf(candidates, k);
+    }
+
+    private static int latCell(double latitude, double cellDegrees, int latCells) {
+        int cell = (int) Math.floor((latitude + 90.0) / cellDegrees);
+        return Math.max(0, Math.min(latCells - 1, cell));
+    }
+
+    private static int lonCell(double longitude, double cellDegrees, int lonCells) {
+        return Math.floorMod((int) Math.floor((longitude + 180.0) / cellDegrees), lonCells);
+    }
+}
@@ -0,0 +1,364 @@
+package com.rest.earthquakeapi.index;
+
+import com.rest.earthquakeapi.apache.Location;
+
+import java.util.Arrays;
+
+/**
+ * A k-d tree over the epicentres as 3D unit vectors, for k-nearest-neighbour queries.
+ * On the unit sphere the straight-line (chord) distance grows with the great-circle distance,
+ * so the tree can be searched best-first with plain euclidean bounding boxes.
+ * The k nearest by chord are then re-checked with the exact (Vincenty) distance, see {@link #nearest}.
+ */
+public final class KdTree {
+
+    private static final int LEAF_SIZE = 8;
+
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final int[] order; //rows, permuted so that node i covers order[nodeLo[i] .. nodeHi[i])
+
+    private int[] nodeLo;
+    private int[] nodeHi;
+    private int[] nodeLeft;  //-1 for a leaf
+    private int[] nodeRight; //-1 for a leaf
+    private double[] bounds; //6 per node: min x, y, z then max x, y, z
+    private int nodeCount;
+
+    private KdTree(double[] latitudes, double[] longitudes) {
+        int n = latitudes.length;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        x = new double[n];
+        y = new double[n];
+        z = new double[n];
+        order = new int[n];
+        for (int row = 0; row < n; row++) {
+            double lat = Math.toRadians(latitudes[row]);
+            double lon = Math.toRadians(longitudes[row]);
+            x[row] = Math.cos(lat) * Math.cos(lon);
+            y[row] = Math.cos(lat) * Math.sin(lon);
+            z[row] = Math.sin(lat);
+            order[row] = row;
+        }
+        int capacity = Math.max(1, 4 * n / LEAF_SIZE + 1);
+        nodeLo = new int[capacity];
+        nodeHi = new int[capacity];
+        nodeLeft = new int[capacity];
+        nodeRight = new int[capacity];
+        bounds = new double[capacity * 6];
+        if (n > 0) {
+            build(0, n);
+        }
+    }
+
+    /**
+     * The arrays are kept, not copied, and must not change afterwards.
+     */
+    public static KdTree build(double[] latitudes, double[] longitudes) {
+        return new KdTree(latitudes, longitudes);
+    }
+
+    public int size() {
+        return order.length;
+    }
+
+    /**
+     * Finds the {@code k} quakes closest to a point by exact (Vincenty) distance.
+     * The tree gives the k nearest by chord; their largest exact distance bounds a second, range search
+     * that collects every quake that could still be closer once the ellipsoid is taken into account.
+     * @param k how many rows to return, more than {@link #size()} returns every row
+     * @return up to k rows ordered by ascending exact distance, ties by ascending row
+     */
+    public int[] nearest(double latitude, double longitude, int k) {
+        int[] byChord = nearestByChord(latitude, longitude, k);
+        if (byChord.length == 0) {
+            return byChord;
+        }
+        double farthest = 0;
+        for (int row : byChord) {
+            farthest = Math.max(farthest, exactDistance(latitude, longitude, row));
+        }
+        double angle = Math.min(Math.PI, farthest / DistancePrecision.SAFE_RADIUS_METERS);
+        double chord = 2 * Math.sin(angle / 2);
+        int[] candidates = withinChord(latitude, longitude, chord * chord + 1e-12);
+
+        BoundedRowHeap best = new BoundedRowHeap(Math.min(k, candidates.length));
+        for (int row : candidates) {
+            best.offer(exactDistance(latitude, longitude, row), row);
+        }
+        return best.drainAscending();
+    }
+
+    /**
+     * Exact mode is {@link #nearest(double, double, int)}. Fast mode stops at the chord order, which is the
+     * order of the spherical (haversine) distance, and skips the Vincenty re-rank.
+     */
+    public int[] nearest(double latitude, double longitude, int k, DistancePrecision precision) {
+        return precision == DistancePrecision.FAST
+                ? nearestByChord(latitude, longitude, k)
+                : nearest(latitude, longitude, k);
+    }
+
+    /**
+     * @param k how many rows to return, more than {@link #size()} returns every row
+     * @return up to k rows ordered by ascending great-circle distance on a sphere, ties by ascending row
+     */
+    public int[] nearestByChord(double latitude, double longitude, int k) {
+        if (k <= 0 || order.length == 0) {
+            return new int[0];
+        }
+        double[] q = unitVector(latitude, longitude);
+        BoundedRowHeap best = new BoundedRowHeap(Math.min(k, order.length));
+        NodeQueue queue = new NodeQueue();
+        queue.push(boxDistance(0, q), 0);
+        while (!queue.isEmpty()) {
+            if (best.isFull() && queue.peekKey() > best.maxKey()) {
+                break; //no unvisited node can hold anything closer
+            }
+            int node = queue.pop();
+            if (nodeLeft[node] < 0) {
+                for (int i = nodeLo[node]; i < nodeHi[node]; i++) {
+                    int row = order[i];
+                    best.offer(distance2(row, q), row);
+                }
+            } else {
+                pushIfCloser(queue, best, nodeLeft[node], q);
+                pushIfCloser(queue, best, nodeRight[node], q);
+            }
+        }
+        return best.drainAscending();
+    }
+
+    /**
+     * @return every row whose squared chord distance to the point is at most {@code chord2}, in ascending row order
+     */
+    public int[] withinChord(double latitude, double longitude, double chord2) {
+        double[] q = unitVector(latitude, longitude);
+        int[] found = new int[16];
+        int count = 0;
+        int[] stack = new int[64];
+        int top = 0;
+        if (order.length > 0) {
+            stack[top++] = 0;
+        }
+        while (top > 0) {
+            int node = stack[--top];
+            if (boxDistance(node, q) > chord2) {
+                continue;
+            }
+            if (nodeLeft[node] < 0) {
+                for (int i = nodeLo[node]; i < nodeHi[node]; i++) {
+                    int row = order[i];
+                    if (distance2(row, q) <= chord2) {
+                        if (count == found.length) {
+                            found = Arrays.copyOf(found, count * 2);
+                        }
+                        found[count++] = row;
+                    }
+                }
+            } else {
+                if (top + 2 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = nodeLeft[node];
+                stack[top++] = nodeRight[node];
+            }
+        }
+        int[] result = Arrays.copyOf(found, count);
+        Arrays.sort(result);
+        return result;
+    }
+
+    private void pushIfCloser(NodeQueue queue, BoundedRowHeap best, int node, double[] q) {
+        double d = boxDistance(node, q);
+        if (!best.isFull() || d <= best.maxKey()) {
+            queue.push(d, node);
+        }
+    }
+
+    private double exactDistance(double latitude, double longitude, int row) {
+        return Location.distance(latitudes[row], longitudes[row], latitude, longitude);
+    }
+
+    private int build(int lo, int hi) {
+        int node = newNode(lo, hi);
+        double[] box = computeBounds(lo, hi);
+        System.arraycopy(box, 0, bounds, node * 6, 6);
+        if (hi - lo <= LEAF_SIZE) {
+            nodeLeft[node] = -1;
+            nodeRight[node] = -1;
+            return node;
+        }
+        // split on the widest axis at the median
+        int axis = 0;
+        double widest = box[3] - box[0];
+        for (int a = 1; a < 3; a++) {
+            if (box[3 + a] - box[a] > widest) {
+                widest = box[3 + a] - box[a];
+                axis = a;
+            }
+        }
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, coordinates(axis));
+        nodeLeft[node] = build(lo, mid);
+        nodeRight[node] = build(mid, hi);
+        return node;
+    }
+
+    private int newNode(int lo, int hi) {
+        if (nodeCount == nodeLo.length) {
+            int capacity = nodeCount * 2;
+            nodeLo = Arrays.copyOf(nodeLo, capacity);
+            nodeHi = Arrays.copyOf(nodeHi, capacity);
+            nodeLeft = Arrays.copyOf(nodeLeft, capacity);
+            nodeRight = Arrays.copyOf(nodeRight, capacity);
+            bounds = Arrays.copyOf(bounds, capacity * 6);
+        }
+        nodeLo[nodeCount] = lo;
+        nodeHi[nodeCount] = hi;
+        return nodeCount++;
+    }
+
+    private double[] computeBounds(int lo, int hi) {
+        double[] box = {Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE,
+                -Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE};
+        for (int i = lo; i < hi; i++) {
+            int row = order[i];
+            box[0] = Math.min(box[0], x[row]);
+            box[1] = Math.min(box[1], y[row]);
+            box[2] = Math.min(box[2], z[row]);
+            box[3] = Math.max(box[3], x[row]);
+            box[4] = Math.max(box[4], y[row]);
+            box[5] = Math.max(box[5], z[row]);
+        }
+        return box;
+    }
+
+    private double[] coordinates(int axis) {
+        return axis == 0 ? x : axis == 1 ? y : z;
+    }
+
+    // quickselect: afterwards order[k] holds the median by coord, smaller to its left, larger to its right
+    private void select(int lo, int hi, int k, double[] coord) {
+        while (lo < hi) {
+            double pivot = coord[order[(lo + hi) >>> 1]];
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (coord[order[i]] < pivot) {
+                    i++;
+                }
+                while (coord[order[j]] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int t = order[i];
+                    order[i] = order[j];
+                    order[j] = t;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private double distance2(int row, double[] q) {
+        double dx = x[row] - q[0];
+        double dy = y[row] - q[1];
+        double dz = z[row] - q[2];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    // squared distance from q to the bounding box of a node, 0 if q is inside it
+    private double boxDistance(int node, double[] q) {
+        double d = 0;
+        int b = node * 6;
+        for (int a = 0; a < 3; a++) {
+            double v = q[a];
+            if (v < bounds[b + a]) {
+                d += (bounds[b + a] - v) * (bounds[b + a] - v);
+            } else if (v > bounds[b + 3 + a]) {
+                d += (v - bounds[b + 3 + a]) * (v - bounds[b + 3 + a]);
+            }
+        }
+        return d;
+    }
+
+    private static double[] unitVector(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        return new double[]{Math.cos(lat) * Math.cos(lon), Math.cos(lat) * Math.sin(lon), Math.sin(lat)};
+    }
+
+    /**
+     * Min-heap of tree nodes keyed by their distance bound, for the best-first search.
+     */
+    private static final class NodeQueue {
+        private double[] keys = new double[32];
+        private int[] nodes = new int[32];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        double peekKey() {
+            return keys[0];
+        }
+
+        void push(double key, int node) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                nodes = Arrays.copyOf(nodes, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                keys[i] = keys[parent];
+                nodes[i] = nodes[parent];
+                i = parent;
+            }
+            keys[i] = key;
+            nodes[i] = node;
+        }
+
+        int pop() {
+            int top = nodes[0];
+            size--;
+            double key = keys[size];
+            int node = nodes[size];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= size) {
+                    break;
+                }
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (keys[child] >= key) {
+                    break;
+                }
+                keys[i] = keys[child];
+                nodes[i] = nodes[child];
+                i = child;
+            }
+            keys[i] = key;
+            nodes[i] = node;
+            return top;
+        }
+    }
+}
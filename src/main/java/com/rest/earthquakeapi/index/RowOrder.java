@@ -0,0 +1,88 @@
+package com.rest.earthquakeapi.index;
+
+import java.util.Arrays;
+
+/**
+ * A precomputed sort order over all rows of a snapshot. Besides the sorted rows it keeps the rank of every row,
+ * where rows with equal sort keys share a rank, so any subset of rows can be put in this order by sorting
+ * plain longs instead of comparing entries.
+ */
+public final class RowOrder {
+
+    private final int[] rows; //every row, in sorted order
+    private final int[] rank; //rank[row], equal keys share a rank
+
+    private RowOrder(int[] rows, int[] rank) {
+        this.rows = rows;
+        this.rank = rank;
+    }
+
+    /**
+     * Orders the rows by ascending key, ties in ascending row order.
+     */
+    public static RowOrder byKey(long[] keys) {
+        int[] rows = SortSupport.sortedRows(keys);
+        return new RowOrder(rows, ranks(rows, keys, null));
+    }
+
+    /**
+     * Orders the rows by ascending primary key, then by ascending secondary key, then by ascending row.
+     */
+    public static RowOrder byKeys(long[] primary, long[] secondary) {
+        int[] rows = SortSupport.sortedRows(secondary);
+        SortSupport.sortRows(rows, primary); //stable, so the secondary order survives inside equal primary keys
+        return new RowOrder(rows, ranks(rows, primary, secondary));
+    }
+
+    /**
+     * @return a key for {@link #byKey} that orders like {@link Double#compare}
+     */
+    public static long key(double value) {
+        return SortSupport.sortableKey(value);
+    }
+
+    /**
+     * @return every row in this order, callers must not modify the array
+     */
+    public int[] rows() {
+        return rows;
+    }
+
+    public int rankOf(int row) {
+        return rank[row];
+    }
+
+    /**
+     * Computes the stable order of a list of rows, the same order a stable sort of the list would give.
+     * Rows may repeat.
+     * @return positions into {@code subset}, in sorted order
+     */
+    public int[] sortPositions(int[] subset) {
+        long[] keys = new long[subset.length];
+        for (int i = 0; i < subset.length; i++) {
+            keys[i] = ((long) rank[subset[i]] << 32) | i; //ties fall back to the position in the list
+        }
+        Arrays.sort(keys);
+        int[] positions = new int[subset.length];
+        for (int i = 0; i < keys.length; i++) {
+            positions[i] = (int) keys[i];
+        }
+        return positions;
+    }
+
+    private static int[] ranks(int[] rows, long[] primary, long[] secondary) {
+        int[] rank = new int[rows.length];
+        int current = 0;
+        for (int i = 0; i < rows.length; i++) {
+            int row = rows[i];
+            if (i > 0) {
+                int previous = rows[i - 1];
+                if (primary[row] != primary[previous] || (secondary != null && secondary[row] != secondary[previous])) {
+                    current++;
+                }
+            }
+            rank[row] = current;
+        }
+        return rank;
+    }
+}
@@ -0,0 +1,43 @@
+package com.rest.earthquakeapi.index;
+
+import java.util.Arrays;
+
+/**
+ * Operations on row sets kept as ascending int arrays.
+ */
+public final class RowSets {
+
+    private RowSets() {
+    }
+
+    /**
+     * @return every row of a dataset of {@code size} rows, ascending
+     */
+    public static int[] all(int size) {
+        int[] rows = new int[size];
+        for (int row = 0; row < size; row++) {
+            rows[row] = row;
+        }
+        return rows;
+    }
+
+    /**
+     * @return the rows present in both ascending arrays, ascending
+     */
+    public static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[k++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, k);
+    }
+}
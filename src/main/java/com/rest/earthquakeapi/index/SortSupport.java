@@ -0,0 +1,62 @@
+package com.rest.earthquakeapi.index;
+
+/**
+ * Helpers for sorting row ids by a primitive key without boxing every row.
+ */
+final class SortSupport {
+
+    private SortSupport() {
+    }
+
+    /**
+     * @return the rows 0..keys.length-1 ordered by ascending key, ties keep ascending row order
+     */
+    static int[] sortedRows(long[] keys) {
+        int n = keys.length;
+        int[] rows = new int[n];
+        for (int i = 0; i < n; i++) {
+            rows[i] = i;
+        }
+        sortRows(rows, keys);
+        return rows;
+    }
+
+    /**
+     * Stably sorts the rows in place by ascending {@code keys[row]}, rows with the same key keep their relative order.
+     */
+    static void sortRows(int[] rows, long[] keys) {
+        int[] buffer = new int[rows.length];
+        mergeSort(rows, buffer, 0, rows.length, keys);
+    }
+
+    /**
+     * @return a long that orders like {@link Double#compare} orders the doubles
+     */
+    static long sortableKey(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private static void mergeSort(int[] rows, int[] buffer, int from, int to, long[] keys) {
+        if (to - from < 2) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(rows, buffer, from, mid, keys);
+        mergeSort(rows, buffer, mid, to, keys);
+        if (keys[rows[mid - 1]] <= keys[rows[mid]]) {
+            return; //already in order
+        }
+        System.arraycopy(rows, from, buffer, from, to - from);
+        int i = from, j = mid, k = from;
+        while (i < mid && j < to) {
+            rows[k++] = keys[buffer[j]] < keys[buffer[i]] ? buffer[j++] : buffer[i++];
+        }
+        while (i < mid) {
+            rows[k++] = buffer[i++];
+        }
+        while (j < to) {
+            rows[k++] = buffer[j++];
+        }
+    }
+}
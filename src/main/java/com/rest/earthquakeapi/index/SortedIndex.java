@@ -0,0 +1,137 @@
+package com.rest.earthquakeapi.index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The rows of one numeric column ordered by value, so a value range is found with two binary searches.
+ * Rows with equal values stay in ascending row order, -0.0 counts as 0.0 and NaN values are never in a range.
+ */
+public final class SortedIndex {
+
+    private final double[] values; //ascending, NaN last
+    private final int[] rows;      //rows[i] is the row whose value is values[i]
+    private final int ordered;     //number of values that are not NaN
+
+    private SortedIndex(double[] values, int[] rows, int ordered) {
+        this.values = values;
+        this.rows = rows;
+        this.ordered = ordered;
+    }
+
+    public static SortedIndex build(double[] column) {
+        int n = column.length;
+        long[] keys = new long[n];
+        for (int row = 0; row < n; row++) {
+            keys[row] = SortSupport.sortableKey(column[row] + 0.0); //-0.0 + 0.0 is 0.0
+        }
+        int[] rows = SortSupport.sortedRows(keys);
+        double[] values = new double[n];
+        int ordered = 0;
+        for (int i = 0; i < n; i++) {
+            values[i] = column[rows[i]];
+            if (!Double.isNaN(values[i])) {
+                ordered++;
+            }
+        }
+        return new SortedIndex(values, rows, ordered);
+    }
+
+    /**
+     * @return the position of the first value >= lo
+     */
+    public int lowerBound(double lo) {
+        int from = 0, to = ordered;
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (values[mid] < lo) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * @return the position after the last value <= hi
+     */
+    public int upperBound(double hi) {
+        int from = 0, to = ordered;
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (values[mid] <= hi) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    /**
+     * @return the rows with a value inside [lo, hi], ordered by value
+     */
+    public int[] rowsBetween(double lo, double hi) {
+        if (!(lo <= hi)) {
+            return new int[0];
+        }
+        return Arrays.copyOfRange(rows, lowerBound(lo), upperBound(hi));
+    }
+
+    /**
+     * @return the rows with a value inside (lo, hi), bounds excluded, ordered by value
+     */
+    public int[] rowsInside(double lo, double hi) {
+        if (!(lo < hi)) {
+            return new int[0];
+        }
+        int from = upperBound(lo);
+        return Arrays.copyOfRange(rows, from, Math.max(from, lowerBound(hi)));
+    }
+
+    /**
+     * @return the rows with a value above lo, ordered by value
+     */
+    public int[] rowsAbove(double lo) {
+        return Arrays.copyOfRange(rows, upperBound(lo), ordered);
+    }
+
+    /**
+     * @return every row ordered by value, NaN values last
+     */
+    public int[] rowsInValueOrder() {
+        return rows.clone();
+    }
+
+    /**
+     * @return a bitmap of the rows with a value inside [lo, hi], bit {@code row} set for every match
+     */
+    public BitSet bitsBetween(double lo, double hi) {
+        BitSet bits = new BitSet(rows.length);
+        if (lo <= hi) {
+            for (int i = lowerBound(lo), end = upperBound(hi); i < end; i++) {
+                bits.set(rows[i]);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * @return how many rows have a value inside [lo, hi]
+     */
+    public int countBetween(double lo, double hi) {
+        return lo <= hi ? upperBound(hi) - lowerBound(lo) : 0;
+    }
+
+    /**
+     * @return the row at a position of the value order
+     */
+    public int rowAt(int position) {
+        return rows[position];
+    }
+
+    public int size() {
+        return rows.length;
+    }
+}
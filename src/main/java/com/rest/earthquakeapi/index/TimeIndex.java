@@ -0,0 +1,100 @@
+package com.rest.earthquakeapi.index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Quake rows sorted by event time, so a time window is found with two binary searches instead of a scan.
+ * A row is the position of a quake in the snapshot's entry list.
+ */
+public final class TimeIndex {
+
+    private final long[] times; //ascending
+    private final int[] rows;   //rows[i] is the row whose time is times[i]
+
+    private TimeIndex(long[] times, int[] rows) {
+        this.times = times;
+        this.rows = rows;
+    }
+
+    /**
+     * @param keys the event time of every row, in epoch millis
+     */
+    public static TimeIndex build(long[] keys) {
+        int n = keys.length;
+        int[] order = SortSupport.sortedRows(keys);
+        long[] times = new long[n];
+        for (int i = 0; i < n; i++) {
+            times[i] = keys[order[i]];
+        }
+        return new TimeIndex(times, order);
+    }
+
+    /**
+     * @param from earliest time in epoch millis, inclusive
+     * @param to   latest time in epoch millis, inclusive
+     * @return the rows with a time inside [from, to], in ascending row order
+     */
+    public int[] rowsBetween(long from, long to) {
+        if (from > to) {
+            return new int[0];
+        }
+        int start = lowerBound(from);
+        int end = upperBound(to);
+        int[] result = Arrays.copyOfRange(rows, start, end);
+        Arrays.sort(result);
+        return result;
+    }
+
+    /**
+     * @return a bitmap of the rows with a time inside [from, to], bit {@code row} set for every match
+     */
+    public BitSet bitsBetween(long from, long to) {
+        BitSet bits = new BitSet(rows.length);
+        if (from <= to) {
+            for (int i = lowerBound(from), end = upperBound(to); i < end; i++) {
+                bits.set(rows[i]);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * @return how many quakes fall inside [from, to]
+     */
+    public int countBetween(long from, long to) {
+        return from > to ? 0 : upperBound(to) - lowerBound(from);
+    }
+
+    public int size() {
+        return times.length;
+    }
+
+    // first position whose time is >= key
+    private int lowerBound(long key) {
+        int lo = 0, hi = times.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (times[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // first position whose time is > key
+    private int upperBound(long key) {
+        int lo = 0, hi = times.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (times[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,196 @@
+package com.rest.earthquakeapi.index;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Phrase lookups over the distinct titles of a dataset, for /by-phrase and the phrase filter.
+ * <ul>
+ *     <li>"any": a posting list per trigram of title ids. The lists of the phrase's trigrams are intersected and
+ *     only the titles left are checked with {@link String#contains}. Phrases shorter than three characters check
+ *     every distinct title.</li>
+ *     <li>"start": the titles in sorted order, the titles with the prefix are one slice found by binary search.</li>
+ *     <li>"end": the same over the reversed titles.</li>
+ * </ul>
+ * Titles are the ids of a title dictionary, a {@link FacetIndex} over them turns matching titles into rows.
+ * An index built with {@code ignoreCase} holds the lower-cased titles and lower-cases each phrase once.
+ * A null title, from an entry without a {@code <title>}, matches no phrase.
+ */
+public final class TitleIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private final String[] titles; //as searched, lower-cased when ignoreCase
+    private final boolean ignoreCase;
+    private final long[] grams; //distinct trigrams, ascending
+    private final int[] gramStarts; //postings of grams[i] are gramTitles[gramStarts[i] .. gramStarts[i + 1])
+    private final int[] gramTitles;
+    private final FacetIndex rowsByTitle; //also orders the titles
+    private final String[] reversed;
+    private final int[] byReversed; //title ids ordered by reversed title
+
+    private TitleIndex(String[] titles, boolean ignoreCase, long[] grams, int[] gramStarts, int[] gramTitles,
+                       FacetIndex rowsByTitle, String[] reversed, int[] byReversed) {
+        this.titles = titles;
+        this.ignoreCase = ignoreCase;
+        this.grams = grams;
+        this.gramStarts = gramStarts;
+        this.gramTitles = gramTitles;
+        this.rowsByTitle = rowsByTitle;
+        this.reversed = reversed;
+        this.byReversed = byReversed;
+    }
+
+    /**
+     * @param dictionary the distinct titles, indexed by title id
+     * @param titleIds the title id of every row
+     */
+    public static TitleIndex build(String[] dictionary, int[] titleIds, boolean ignoreCase) {
+        String[] titles = new String[dictionary.length];
+        for (int id = 0; id < titles.length; id++) {
+            titles[id] = ignoreCase && dictionary[id] != null ? dictionary[id].toLowerCase(Locale.ROOT) : dictionary[id];
+        }
+
+        // distinct trigrams per title, then one posting list per trigram in title id order
+        long[][] titleGrams = new long[titles.length][];
+        Map<Long, Integer> counts = new HashMap<>();
+        for (int id = 0; id < titles.length; id++) {
+            titleGrams[id] = gramsOf(titles[id]);
+            for (long gram : titleGrams[id]) {
+                counts.merge(gram, 1, Integer::sum);
+            }
+        }
+        long[] grams = counts.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        int[] gramStarts = new int[grams.length + 1];
+        for (int i = 0; i < grams.length; i++) {
+            gramStarts[i + 1] = gramStarts[i] + counts.get(grams[i]);
+        }
+        int[] next = Arrays.copyOf(gramStarts, grams.length);
+        int[] gramTitles = new int[gramStarts[grams.length]];
+        for (int id = 0; id < titles.length; id++) {
+            for (long gram : titleGrams[id]) {
+                gramTitles[next[Arrays.binarySearch(grams, gram)]++] = id;
+            }
+        }
+
+        String[] reversed = new String[titles.length];
+        for (int id = 0; id < titles.length; id++) {
+            reversed[id] = titles[id] == null ? null : new StringBuilder(titles[id]).reverse().toString();
+        }
+        int[] byReversed = IntStream.range(0, titles.length)
+                .filter(id -> reversed[id] != null)
+                .boxed()
+                .sorted(Comparator.comparing(id -> reversed[id]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        return new TitleIndex(titles, ignoreCase, grams, gramStarts, gramTitles, FacetIndex.build(titles, titleIds),
+                reversed, byReversed);
+    }
+
+    private static long[] gramsOf(String s) {
+        if (s == null || s.length() < 3) {
+            return new long[0];
+        }
+        long[] result = new long[s.length() - 2];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = gram(s, i);
+        }
+        Arrays.sort(result);
+        int distinct = 0;
+        for (int i = 0; i < result.length; i++) {
+            if (distinct == 0 || result[distinct - 1] != result[i]) {
+                result[distinct++] = result[i];
+            }
+        }
+        return Arrays.copyOf(result, distinct);
+    }
+
+    private static long gram(String s, int at) {
+        return ((long) s.charAt(at) << 32) | ((long) s.charAt(at + 1) << 16) | s.charAt(at + 2);
+    }
+
+    /**
+     * @param where "start", "end" or "any", anything else matches nothing
+     * @return the ids of the titles that match, ascending
+     */
+    public int[] titlesMatching(String where, String phrase) {
+        String key = ignoreCase ? phrase.toLowerCase(Locale.ROOT) : phrase;
+        return switch (where) {
+            case "start" -> slice(titles, rowsByTitle.sortedIds(), key);
+            case "end" -> slice(reversed, byReversed, new StringBuilder(key).reverse().toString());
+            case "any" -> containing(key);
+            default -> NONE;
+        };
+    }
+
+    /**
+     * The strings that start with the prefix are one run in sorted order, from the first one that is not smaller.
+     */
+    private static int[] slice(String[] strings, int[] order, String prefix) {
+        int lo = 0;
+        int hi = order.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (strings[order[mid]].compareTo(prefix) < 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        int from = lo;
+        hi = order.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (strings[order[mid]].startsWith(prefix)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        int[] ids = Arrays.copyOfRange(order, from, lo);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private int[] containing(String phrase) {
+        if (phrase.length() < 3) {
+            return IntStream.range(0, titles.length).filter(id -> titles[id] != null && titles[id].contains(phrase)).toArray();
+        }
+        long[] phraseGrams = gramsOf(phrase);
+        int[][] postings = new int[phraseGrams.length][];
+        for (int i = 0; i < phraseGrams.length; i++) {
+            int at = Arrays.binarySearch(grams, phraseGrams[i]);
+            if (at < 0) {
+                return NONE; //no title has this trigram
+            }
+            postings[i] = Arrays.copyOfRange(gramTitles, gramStarts[at], gramStarts[at + 1]);
+        }
+        Arrays.sort(postings, Comparator.comparingInt(list -> list.length)); //shortest first keeps every step small
+        int[] candidates = postings[0];
+        for (int i = 1; i < postings.length && candidates.length > 0; i++) {
+            candidates = RowSets.intersect(candidates, postings[i]);
+        }
+        // sharing every trigram does not put them in the right order, check the titles that are left
+        return Arrays.stream(candidates).filter(id -> titles[id].contains(phrase)).toArray();
+    }
+
+    /**
+     * @return the rows that carry any of the titles, ascending
+     */
+    public int[] rows(int[] titleIds) {
+        return rowsByTitle.rows(titleIds);
+    }
+
+    /**
+     * @return the rows that carry any of the titles, as a bitmap over every row
+     */
+    public BitSet rowBits(int[] titleIds) {
+        return rowsByTitle.rowBits(titleIds);
+    }
+}
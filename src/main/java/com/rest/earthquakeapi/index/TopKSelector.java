@@ -0,0 +1,25 @@
+package com.rest.earthquakeapi.index;
+
+/**
+ * Picks the rows with the largest values without sorting or copying the data.
+ * One pass over the values feeds a bounded heap of size k: O(n log k) time and O(k) extra memory.
+ */
+public final class TopKSelector {
+
+    private TopKSelector() {
+    }
+
+    /**
+     * @param values one value per row
+     * @param k      how many rows to return, more than values.length returns every row
+     * @return the rows with the k largest values, largest first, equal values in ascending row order
+     */
+    public static int[] largest(double[] values, int k) {
+        BoundedRowHeap heap = new BoundedRowHeap(Math.min(k, values.length));
+        for (int row = 0; row < values.length; row++) {
+            // the heap keeps the smallest keys, so feed it the negated values
+            heap.offer(-values[row], row);
+        }
+        return heap.drainAscending();
+    }
+}
@@ -0,0 +1,92 @@
+package com.rest.earthquakeapi.metrics;
+
+import com.rest.earthquakeapi.filter.QueryPlan;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The meters of the ingest, filter, sort and serialization stages, all named {@code earthquake.*}.
+ * Request latency per endpoint is the {@code http.server.requests} timer Spring Boot records for every mapping.
+ * Everything is exposed at {@code /actuator/prometheus}.
+ */
+@Component
+public class QuakeMetrics {
+
+    private final MeterRegistry registry;
+    private final Counter ingestedEntries;
+    private final Timer snapshotBuild;
+
+    public QuakeMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.ingestedEntries = Counter.builder("earthquake.ingest.entries")
+                .description("Entries parsed from the feed, its rate is entries per second")
+                .register(registry);
+        this.snapshotBuild = Timer.builder("earthquake.ingest.build")
+                .description("Building the columns and indexes of a new snapshot")
+                .register(registry);
+    }
+
+    public MeterRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * @param parser the class of the parser, see {@code earthquake.parser}
+     * @param nanos  reading and parsing the feed, including the download of an http feed
+     * @param entries how many entries were parsed
+     */
+    public void recordParse(Class<?> parser, long nanos, int entries) {
+        Timer.builder("earthquake.ingest.parse")
+                .description("Reading and parsing the feed")
+                .tag("parser", parser.getSimpleName())
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        ingestedEntries.increment(entries);
+    }
+
+    public void recordSnapshotBuild(long nanos) {
+        snapshotBuild.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts the candidate rows an executed filter plan scanned and the rows that passed every filter.
+     */
+    public void recordPlan(QueryPlan plan) {
+        String strategy = plan.getStrategy().name().toLowerCase(Locale.ROOT);
+        Counter.builder("earthquake.filter.rows.scanned")
+                .description("Candidate rows the filter plans ran over")
+                .tag("strategy", strategy)
+                .register(registry)
+                .increment(plan.getCandidates());
+        Counter.builder("earthquake.filter.rows.matched")
+                .description("Rows that passed every filter of a plan")
+                .tag("strategy", strategy)
+                .register(registry)
+                .increment(plan.getMatched());
+    }
+
+    /**
+     * @param key the sort parameter of the request
+     */
+    public Timer sortTimer(String key) {
+        return Timer.builder("earthquake.sort")
+                .description("Sorting a listing")
+                .tag("key", key)
+                .register(registry);
+    }
+
+    /**
+     * @param type the class of the response body
+     */
+    public Timer serializationTimer(Class<?> type) {
+        return Timer.builder("earthquake.serialization")
+                .description("Writing a response body as JSON")
+                .tag("type", type.getSimpleName())
+                .register(registry);
+    }
+}
@@ -21,6 +21,8 @@ public class QuakeEntry implements Comparable<QuakeEntry>{
 
     private String dateTime; //date of when earthquake occurred
 
+    private long time; //when the earthquake occurred in epoch millis, 0 if the feed did not say
+
     private String link; //specifies links related to the feed
 
 
@@ -46,6 +48,11 @@ public class QuakeEntry implements Comparable<QuakeEntry>{
         dateTime = date;
         this.link = link;
     }
+    public QuakeEntry(String id2, double lat, double lon, double mag,
+                      String t, double d, String date, long time, String link) {
+        this(id2, lat, lon, mag, t, d, date, link);
+        this.time = time;
+    }
     public Location getLocation(){
         return myLocation;
     }
@@ -118,6 +125,17 @@ public class QuakeEntry implements Comparable<QuakeEntry>{
         this.dateTime = dateTime;
     }
 
+    /**
+     * @return the time of the earthquake in milliseconds since the epoch (UTC), 0 if unknown
+     */
+    public long getTime() {
+        return time;
+    }
+
+    public void setTime(long time) {
+        this.time = time;
+    }
+
     public String getLink() {
         return link;
     }
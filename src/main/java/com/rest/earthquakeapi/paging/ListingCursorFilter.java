@@ -0,0 +1,104 @@
+package com.rest.earthquakeapi.paging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Leaves the {@link ListingQuery} of every request under {@link ListingQuery#ATTRIBUTE}, with the snapshot stamp
+ * read before the listing is computed.
+ * A request with a {@code cursor} gets the parameters of the listing the cursor continues, so
+ * {@code ?cursor=...} alone continues the same query and any other parameter sent along is ignored.
+ * A malformed cursor, or one handed out by another endpoint, is answered with 400 here.
+ */
+@Component
+public class ListingCursorFilter extends OncePerRequestFilter {
+
+    private final ResultPager resultPager;
+
+    public ListingCursorFilter(ResultPager resultPager) {
+        this.resultPager = resultPager;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long stamp = resultPager.snapshotStamp();
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String cursor = request.getParameter("cursor");
+        if (cursor == null) {
+            request.setAttribute(ListingQuery.ATTRIBUTE, ListingQuery.of(path, request.getParameterMap(), stamp));
+            chain.doFilter(request, response);
+            return;
+        }
+        ListingQuery continued;
+        try {
+            continued = resultPager.queryOf(cursor);
+        } catch (IllegalArgumentException e) {
+            badRequest(response, e.getMessage());
+            return;
+        }
+        if (!continued.getPath().equals(path)) {
+            badRequest(response, "Cursor belongs to another listing");
+            return;
+        }
+        Map<String, String[]> parameters = new LinkedHashMap<>(continued.getParameters());
+        parameters.put("cursor", new String[]{cursor});
+        HttpServletRequest withListing = new ParameterRequest(request, Collections.unmodifiableMap(parameters));
+        withListing.setAttribute(ListingQuery.ATTRIBUTE, ListingQuery.of(path, parameters, stamp));
+        chain.doFilter(withListing, response);
+    }
+
+    private static void badRequest(HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpStatus.BAD_REQUEST.value());
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write(message);
+    }
+
+    /**
+     * A request whose parameters are replaced, the query string is left as it was sent.
+     */
+    private static final class ParameterRequest extends HttpServletRequestWrapper {
+        private final Map<String, String[]> parameters;
+
+        private ParameterRequest(HttpServletRequest request, Map<String, String[]> parameters) {
+            super(request);
+            this.parameters = parameters;
+        }
+
+        @Override
+        public String getParameter(String name) {
+            String[] values = parameters.get(name);
+            return values == null || values.length == 0 ? null : values[0];
+        }
+
+        @Override
+        public Map<String, String[]> getParameterMap() {
+            return parameters;
+        }
+
+        @Override
+        public Enumeration<String> getParameterNames() {
+            return Collections.enumeration(parameters.keySet());
+        }
+
+        @Override
+        public String[] getParameterValues(String name) {
+            String[] values = parameters.get(name);
+            return values == null ? null : values.clone();
+        }
+    }
+}
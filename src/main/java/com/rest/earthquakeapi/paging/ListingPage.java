@@ -0,0 +1,55 @@
+package com.rest.earthquakeapi.paging;
+
+import java.util.List;
+
+/**
+ * One page of a listing, returned instead of the plain list when a page, size or cursor was asked for.
+ */
+public class ListingPage<T> {
+    private final List<T> items;
+    private final int page;
+    private final int size;
+    private final int totalCount;
+    private final String nextCursor;
+
+    public ListingPage(List<T> items, int page, int size, int totalCount, String nextCursor) {
+        this.items = items;
+        this.page = page;
+        this.size = size;
+        this.totalCount = totalCount;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return the number of this page, starting at 1
+     */
+    public int getPage() {
+        return page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return the number of items of the whole listing
+     */
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    public int getTotalPages() {
+        return (totalCount + size - 1) / size;
+    }
+
+    /**
+     * @return the cursor of the next page, null on the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,120 @@
+package com.rest.earthquakeapi.paging;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The request a listing was computed for: its path, its parameters without the paging ones, and the snapshot it
+ * was read from. A cursor carries the query it continues, so the next page can always be computed again from the
+ * same parameters, also once the {@link ResultPager} no longer keeps the listing.
+ */
+public final class ListingQuery {
+
+    /** request attribute under which {@link ListingCursorFilter} leaves the query of the current request */
+    public static final String ATTRIBUTE = ListingQuery.class.getName();
+
+    private static final Set<String> PAGING_PARAMETERS = Set.of("page", "size", "cursor");
+
+    private final String path;
+    private final Map<String, String[]> parameters; //sorted by name, without the paging parameters
+    private final long snapshotStamp;
+    private final String key;
+
+    private ListingQuery(String path, Map<String, String[]> parameters, long snapshotStamp) {
+        this.path = path;
+        this.parameters = parameters;
+        this.snapshotStamp = snapshotStamp;
+        StringBuilder key = new StringBuilder(path).append('?');
+        parameters.forEach((name, values) -> {
+            for (String value : values) {
+                if (key.charAt(key.length() - 1) != '?') {
+                    key.append('&');
+                }
+                key.append(encode(name)).append('=').append(encode(value));
+            }
+        });
+        this.key = key.toString();
+    }
+
+    /**
+     * @param parameters the parameters of the request, the paging ones are left out
+     * @param snapshotStamp {@link com.rest.earthquakeapi.snapshot.QuakeSnapshot#getLoadedAt()} of the snapshot
+     *                      that was current before the listing was computed
+     */
+    public static ListingQuery of(String path, Map<String, String[]> parameters, long snapshotStamp) {
+        Map<String, String[]> sorted = new TreeMap<>();
+        parameters.forEach((name, values) -> {
+            if (!PAGING_PARAMETERS.contains(name)) {
+                sorted.put(name, values.clone());
+            }
+        });
+        return new ListingQuery(path, Collections.unmodifiableMap(sorted), snapshotStamp);
+    }
+
+    /**
+     * Reads back {@link #key()}.
+     * @throws IllegalArgumentException when the key is not one
+     */
+    static ListingQuery parse(String key, long snapshotStamp) {
+        int question = key.indexOf('?');
+        if (question < 1) {
+            throw new IllegalArgumentException("no path in " + key);
+        }
+        Map<String, String[]> parameters = new LinkedHashMap<>();
+        String query = key.substring(question + 1);
+        if (!query.isEmpty()) {
+            for (String pair : query.split("&")) {
+                int equals = pair.indexOf('=');
+                if (equals < 0) {
+                    throw new IllegalArgumentException("no value in " + pair);
+                }
+                String name = URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8);
+                String value = URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8);
+                parameters.merge(name, new String[]{value}, (a, b) -> {
+                    String[] both = Arrays.copyOf(a, a.length + 1);
+                    both[a.length] = b[0];
+                    return both;
+                });
+            }
+        }
+        return of(key.substring(0, question), parameters, snapshotStamp);
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return the parameters sorted by name, without page, size and cursor
+     */
+    public Map<String, String[]> getParameters() {
+        return parameters;
+    }
+
+    public long getSnapshotStamp() {
+        return snapshotStamp;
+    }
+
+    /**
+     * @return the path and the sorted, url-encoded parameters, equal for two requests of the same listing
+     */
+    public String key() {
+        return key;
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
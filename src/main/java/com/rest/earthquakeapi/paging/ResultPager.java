@@ -0,0 +1,201 @@
+package com.rest.earthquakeapi.paging;
+
+import com.rest.earthquakeapi.model.QuakeEntry;
+import com.rest.earthquakeapi.service.EarthquakeDataService;
+import com.rest.earthquakeapi.snapshot.QuakeSnapshot;
+import com.rest.earthquakeapi.snapshot.SnapshotRows;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cuts listings into pages and continues them with cursors.
+ * A cursor holds the snapshot the listing was read from, the listing's {@link ListingQuery}, the next offset and the
+ * page size, so it can always be followed by running the query again.
+ * A listing of quakes that was paged is also kept as its rows, an int per quake, under its query. Following a cursor
+ * of a kept listing, see {@link #resume}, copies the rows of the page and materialises only those, so a deep page
+ * costs as much as the first. Only the listings of the current snapshot are kept, the least recently used ones are
+ * dropped beyond {@link #KEPT_ROWS} rows, and a cursor whose listing was dropped computes it again once.
+ * Every page of one listing comes from the same snapshot: once the feed was refreshed, the offsets of the old
+ * listing no longer apply and its cursors are rejected as expired.
+ */
+@Service
+public class ResultPager {
+
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 1000;
+    static final int KEPT_ROWS = 1_000_000; //rows kept over all listings, 4 MB
+
+    private final EarthquakeDataService dataService;
+    private final Map<String, int[]> kept = new LinkedHashMap<>(16, 0.75f, true); //rows by query key, least recently used first
+    private long keptStamp; //snapshot the kept rows belong to
+    private int keptRows;
+
+    public ResultPager(EarthquakeDataService dataService) {
+        this.dataService = dataService;
+    }
+
+    /**
+     * @return the stamp of the current snapshot, read before a listing is computed
+     */
+    public long snapshotStamp() {
+        return dataService.getSnapshot().getLoadedAt();
+    }
+
+    /**
+     * @param page  number of the page, starting at 1, null for the first
+     * @param size  items per page, null for {@link #DEFAULT_SIZE}
+     * @param query the request the items were computed for
+     * @throws IllegalArgumentException for a page or size below 1, or a size above {@link #MAX_SIZE}
+     */
+    public <T> ListingPage<T> page(List<T> items, Integer page, Integer size, ListingQuery query) {
+        int pageNumber = page == null ? 1 : page;
+        int pageSize = size == null ? DEFAULT_SIZE : size;
+        if (pageNumber < 1) {
+            throw new IllegalArgumentException("page must be 1 or more");
+        }
+        if (pageSize < 1 || pageSize > MAX_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_SIZE);
+        }
+        long offset = (long) (pageNumber - 1) * pageSize;
+        if (offset >= items.size()) {
+            return new ListingPage<>(List.of(), pageNumber, pageSize, items.size(), null);
+        }
+        if (offset + pageSize < items.size()) {
+            keep(items, query); //a cursor is handed out
+        }
+        return slice(items, query, (int) offset, pageSize);
+    }
+
+    /**
+     * Follows a cursor without the listing, from the rows kept when an earlier page of it was cut.
+     * @param query the request the cursor was sent with
+     * @return the page the cursor points to, or null when the listing is not kept and has to be computed again for
+     * {@link #next}
+     * @throws IllegalArgumentException when the cursor is malformed, belongs to another listing, or the snapshot
+     *                                  changed since it was handed out
+     */
+    public ListingPage<QuakeEntry> resume(String cursor, ListingQuery query) {
+        Cursor position = decode(cursor, query);
+        QuakeSnapshot snapshot = dataService.getSnapshot();
+        int[] rows;
+        synchronized (kept) {
+            rows = keptStamp == snapshot.getLoadedAt() && keptStamp == query.getSnapshotStamp() ? kept.get(query.key()) : null;
+        }
+        if (rows == null) {
+            return null;
+        }
+        return slice(snapshot.entriesAt(rows), query, position.offset, position.size);
+    }
+
+    /**
+     * @param items the listing computed again for the query of the cursor, see {@link #queryOf}
+     * @param query the request the items were computed for
+     * @return the page the cursor points to
+     * @throws IllegalArgumentException when the cursor is malformed, belongs to another listing, or the snapshot
+     *                                  changed since it was handed out
+     */
+    public <T> ListingPage<T> next(List<T> items, String cursor, ListingQuery query) {
+        Cursor position = decode(cursor, query);
+        keep(items, query);
+        return slice(items, query, position.offset, position.size);
+    }
+
+    /**
+     * @return the listing the cursor continues, with the snapshot it was read from
+     * @throws IllegalArgumentException when the cursor is malformed
+     */
+    public ListingQuery queryOf(String cursor) {
+        return decode(cursor).query;
+    }
+
+    /**
+     * @return the position of a cursor sent with the query
+     */
+    private Cursor decode(String cursor, ListingQuery query) {
+        Cursor position = decode(cursor);
+        if (!position.query.key().equals(query.key())) {
+            throw new IllegalArgumentException("Cursor belongs to another listing");
+        }
+        // the stamp is read before and after the listing was computed, equal stamps mean it came from that snapshot
+        if (position.query.getSnapshotStamp() != query.getSnapshotStamp() || query.getSnapshotStamp() != snapshotStamp()) {
+            throw new IllegalArgumentException("Cursor has expired, the quakes were refreshed; please request the first page again");
+        }
+        return position;
+    }
+
+    private static Cursor decode(String cursor) {
+        Cursor position;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 4);
+            long stamp = Long.parseLong(parts[0]);
+            position = new Cursor(ListingQuery.parse(parts[3], stamp), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (position.offset < 0 || position.size < 1 || position.size > MAX_SIZE) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return position;
+    }
+
+    /**
+     * Keeps the rows of a listing of quakes read from the query's snapshot, listings of an earlier snapshot are
+     * dropped.
+     */
+    private void keep(List<?> items, ListingQuery query) {
+        if (!(items instanceof SnapshotRows) || ((SnapshotRows) items).getSnapshot().getLoadedAt() != query.getSnapshotStamp()
+                || items.size() > KEPT_ROWS) {
+            return;
+        }
+        int[] rows = ((SnapshotRows) items).getRows();
+        synchronized (kept) {
+            if (query.getSnapshotStamp() < keptStamp) {
+                return;
+            }
+            if (query.getSnapshotStamp() > keptStamp) {
+                kept.clear();
+                keptRows = 0;
+                keptStamp = query.getSnapshotStamp();
+            }
+            int[] previous = kept.put(query.key(), rows);
+            keptRows += rows.length - (previous == null ? 0 : previous.length);
+            Iterator<int[]> eldest = kept.values().iterator();
+            while (keptRows > KEPT_ROWS) {
+                keptRows -= eldest.next().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    private static <T> ListingPage<T> slice(List<T> items, ListingQuery query, int offset, int size) {
+        if (offset >= items.size()) {
+            return new ListingPage<>(List.of(), offset / size + 1, size, items.size(), null);
+        }
+        int end = (int) Math.min((long) offset + size, items.size());
+        String nextCursor = end < items.size() ? encode(query, end, size) : null;
+        return new ListingPage<>(List.copyOf(items.subList(offset, end)), offset / size + 1, size, items.size(), nextCursor);
+    }
+
+    private static String encode(ListingQuery query, int offset, int size) {
+        String cursor = query.getSnapshotStamp() + ":" + offset + ":" + size + ":" + query.key();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class Cursor {
+        private final ListingQuery query;
+        private final int offset;
+        private final int size;
+
+        private Cursor(ListingQuery query, int offset, int size) {
+            this.query = query;
+            this.offset = offset;
+            this.size = size;
+        }
+    }
+}
@@ -2,24 +2,41 @@ package com.rest.earthquakeapi.restcontroller;
 import com.rest.earthquakeapi.apache.Location;
 import com.rest.earthquakeapi.exception.QuakeDataErrorResponse;
 import com.rest.earthquakeapi.exception.QuakeDataNotFoundException;
+import com.rest.earthquakeapi.index.DistancePrecision;
 import com.rest.earthquakeapi.model.QuakeEntry;
+import com.rest.earthquakeapi.paging.ListingCursorFilter;
+import com.rest.earthquakeapi.paging.ListingPage;
+import com.rest.earthquakeapi.paging.ListingQuery;
+import com.rest.earthquakeapi.paging.ResultPager;
 import com.rest.earthquakeapi.service.EarthquakeDataProcessor;
 import com.rest.earthquakeapi.sorting.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
-import java.util.Collections;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 @RestController
 @RequestMapping("/earthquakes")
 public class EarthquakeDisplayController {
+    private static final Logger logger = LoggerFactory.getLogger(EarthquakeDisplayController.class);
+    private static final int MAX_CLOSEST = 10_000; //largest howMany of /closest-quakes
     private EarthquakeDataProcessor earthquakeDataProcessor;
-    private DifferentSorters differentSorters = new DifferentSorters();
+    private DifferentSorters differentSorters;
+    private ResultPager resultPager;
     @Autowired
-    public EarthquakeDisplayController(EarthquakeDataProcessor earthquakeDataProcessor){
+    public EarthquakeDisplayController(EarthquakeDataProcessor earthquakeDataProcessor, DifferentSorters differentSorters,
+                                       ResultPager resultPager){
         this.earthquakeDataProcessor = earthquakeDataProcessor;
+        this.differentSorters = differentSorters;
+        this.resultPager = resultPager;
     }
     /**
      * Retrieves the list of locations where earthquakes occurred.
@@ -27,38 +44,115 @@ public class EarthquakeDisplayController {
      * @return ResponseEntity containing the list of locations as JSON.
      */
     @GetMapping("/earthquake-location")
-    public ResponseEntity<?> getEarthquakeLocations(){
+    public ResponseEntity<?> getEarthquakeLocations(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor){
         try {
+            // already sorted by the region index
             List<String> bigQuakesData = earthquakeDataProcessor.getCountryNameFromEarthquakeData();
-            Collections.sort(bigQuakesData);
             // if list is empty inform the user that no earthquake data is found
             if (bigQuakesData.isEmpty()) {
                 String errorMessage = "No country names found in earthquake data.";
                 throw new QuakeDataNotFoundException(errorMessage);
             }
-            return ResponseEntity.ok(bigQuakesData);
+            return listing(bigQuakesData, page, size, cursor);
         }
         catch (Exception e) {
             // handling invalid non-double values
             return ResponseEntity.badRequest().build();
         }
     }
+    /**
+     * Retrieves the regions where earthquakes occurred, optionally with the number of earthquakes in each.
+     * @param withCounts Optional, true to return an object of region to number of earthquakes instead of a list.
+     *                   The list can be paged like the other listings, the counts are returned whole.
+     * @GetRequest URL: {{url}}/earthquakes/regions?withCounts={withCounts}
+     * @Testing Url: {{url}}/earthquakes/regions?withCounts=true
+     */
+    @GetMapping("/regions")
+    public ResponseEntity<?> getRegions(@RequestParam(defaultValue = "false") boolean withCounts,
+                                        @RequestParam(required = false) Integer page,
+                                        @RequestParam(required = false) Integer size,
+                                        @RequestParam(required = false) String cursor) {
+        if (withCounts) {
+            Map<String, Integer> regionCounts = earthquakeDataProcessor.getRegionCounts();
+            if (regionCounts.isEmpty()) {
+                throw new QuakeDataNotFoundException("No regions found in earthquake data.");
+            }
+            return ResponseEntity.ok(regionCounts);
+        }
+        try {
+            List<String> regions = earthquakeDataProcessor.getCountryNameFromEarthquakeData();
+            if (regions.isEmpty()) {
+                throw new QuakeDataNotFoundException("No regions found in earthquake data.");
+            }
+            return listing(regions, page, size, cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves the earthquakes of one region, the part of the title after the comma.
+     * @param region The region, as listed by /earthquakes/regions, for example Alaska.
+     * @param sort Optional order of the listing: magnitude, title, depth or title-depth, see {@link SortKey}.
+     * @GetRequest URL: {{url}}/earthquakes/by-region?region={region}&sort={sort}
+     * @Testing Url: {{url}}/earthquakes/by-region?region=Alaska
+     */
+    @GetMapping("/by-region")
+    public ResponseEntity<?> getQuakesInRegion(@RequestParam("region") String region,
+                                               @RequestParam(required = false) String sort,
+                                               @RequestParam(required = false) Integer page,
+                                               @RequestParam(required = false) Integer size,
+                                               @RequestParam(required = false) String cursor) {
+        try {
+            ListingPage<QuakeEntry> kept = keptPage(cursor);
+            if (kept != null) {
+                return ResponseEntity.ok(kept);
+            }
+            SortKey sortKey = SortKey.parse(sort);
+            List<QuakeEntry> regionQuakes = differentSorters.sort(earthquakeDataProcessor.findEarthQuakesInRegion(region), sortKey);
+            if (regionQuakes.isEmpty()) {
+                throw new QuakeDataNotFoundException("No earthquake data found for region " + region);
+            }
+            return listing(regionQuakes, page, size, cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Retrieves the earthquakes with a magnitude above 5.0.
+     * @param sort Optional order of the listing: magnitude, title, depth or title-depth, see {@link SortKey}.
+     * @GetRequest URL: {{url}}/earthquakes/bigQuakes?sort={sort}
+     */
     @GetMapping("/bigQuakes")
-    public ResponseEntity<?> getBigQuakes() {
+    public ResponseEntity<?> getBigQuakes(@RequestParam(required = false) String sort,
+                                          @RequestParam(required = false) Integer page,
+                                          @RequestParam(required = false) Integer size,
+                                          @RequestParam(required = false) String cursor) {
         try {
-            List<QuakeEntry> bigQuakesData = earthquakeDataProcessor.bigQuakes();
-            differentSorters.sortAll();
+            ListingPage<QuakeEntry> kept = keptPage(cursor);
+            if (kept != null) {
+                return ResponseEntity.ok(kept);
+            }
+            SortKey sortKey = SortKey.parse(sort);
+            List<QuakeEntry> bigQuakesData = differentSorters.sort(earthquakeDataProcessor.bigQuakes(), sortKey);
             // if list is empty inform the user that no earthquake data is found
             if (bigQuakesData.isEmpty()) {
                 String errorMessage = "No Earthquake data found.";
                 throw new QuakeDataNotFoundException(errorMessage);
             }
-            return ResponseEntity.ok(bigQuakesData);
+            return listing(bigQuakesData, page, size, cursor);
          }
             catch (NumberFormatException e) {
                 // handling invalid non-double values
                 return ResponseEntity.badRequest().body("Invalid parameter value. Please provide numeric values.");
             }
+            catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(e.getMessage());
+            }
     }
     /**
      * Filters earthquake data based on specified magnitude and depth ranges.
@@ -66,6 +160,8 @@ public class EarthquakeDisplayController {
      * @param maxMagnitude The maximum magnitude of earthquakes to include.
      * @param minDepth     The minimum depth of earthquakes to include.
      * @param maxDepth     The maximum depth of earthquakes to include.
+     * @param sort         Optional order of the listing: magnitude, title, depth or title-depth, see {@link SortKey}.
+     *                     By default the listing is sorted by depth, then magnitude.
      * @return A list of QuakeEntry objects representing earthquakes that match the specified criteria.
      * @GetRequest URL: {{url}}/filtered-quakes?minMagnitude={minMag}&maxMagnitude={maxMag}&minDepth={minDepth}&maxDepth={maxDepth}
      * @Testing Url: {{url}}/filtered-quakes?minMagnitude=4.0&maxMagnitude=5.0&minDepth=-35000.0&maxDepth=-12000.0
@@ -75,8 +171,17 @@ public class EarthquakeDisplayController {
             @RequestParam String minMagnitude,
             @RequestParam String maxMagnitude,
             @RequestParam String minDepth,
-            @RequestParam String maxDepth) {
+            @RequestParam String maxDepth,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
         try {
+            ListingPage<QuakeEntry> kept = keptPage(cursor);
+            if (kept != null) {
+                return ResponseEntity.ok(kept);
+            }
+            SortKey sortKey = SortKey.parse(sort);
             // validating input parameters
             double minMagnitudeValue = Double.parseDouble(minMagnitude);
             double maxMagnitudeValue = Double.parseDouble(maxMagnitude);
@@ -96,18 +201,21 @@ public class EarthquakeDisplayController {
                 throw new QuakeDataNotFoundException(errorMessage);
             }
             List<QuakeEntry> filteredQuakesData = earthquakeDataProcessor.getFilteredQuakes(minMagnitudeValue, maxMagnitudeValue, minDepthValue, maxDepthValue);
-            //sort the Magnitude and Depth
-            Collections.sort(filteredQuakesData, new MagnitudeComparator());
-            Collections.sort(filteredQuakesData, new DepthComparator());
+            //already sorted by depth, then magnitude, unless another order was asked for
+            if (sortKey != null) {
+                filteredQuakesData = differentSorters.sort(filteredQuakesData, sortKey);
+            }
             // if list is empty inform the user that no earthquake data is found
             if(filteredQuakesData.isEmpty()){
                 String errorMessage = "No Earthquake data found. Please consider putting valid value";
                 throw new QuakeDataNotFoundException(errorMessage);
             }
-            return ResponseEntity.ok(filteredQuakesData);
+            return listing(filteredQuakesData, page, size, cursor);
         } catch (NumberFormatException e) {
             // handling invalid non-double values
             return ResponseEntity.badRequest().body("Invalid parameter value. Please provide numeric values.");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
@@ -117,8 +225,15 @@ public class EarthquakeDisplayController {
      * @param maxMagnitude The maximum magnitude of earthquakes to include.
      * @param minDepth     The minimum depth of earthquakes to include.
      * @param maxDepth     The maximum depth of earthquakes to include.
+     * @param from         Optional start of the time window, epoch millis or an ISO-8601 instant such as 2015-11-20T00:00:00Z.
+     * @param to           Optional end of the time window (inclusive), same format as from.
+     * @param region       Optional region to keep, as listed by /earthquakes/regions.
+     * @param precision    Optional distance precision, "exact" (default) or "fast", see {@link DistancePrecision}.
+     * @param sort         Optional order of the listing: magnitude, title, depth or title-depth, see {@link SortKey}.
+     * @param explain      When true, returns the query plan that was run (filter order, estimates and row counts)
+     *                     instead of the quakes.
      * @return A list of QuakeEntry objects representing earthquakes that match the specified criteria.
-     * @GetRequest URL: {{url}}/earthquakes/filtered-quakes2?minMagnitude={minMag}&maxMagnitude={maxMag}&latitude={latitude}&longitude={longitude}&maxDistance={maxDistance}&phrase={phrase}&where={where}
+     * @GetRequest URL: {{url}}/earthquakes/filtered-quakes2?minMagnitude={minMag}&maxMagnitude={maxMag}&latitude={latitude}&longitude={longitude}&maxDistance={maxDistance}&phrase={phrase}&where={where}&from={from}&to={to}
      * @Testing Url:{{url}}/earthquakes/filtered-quakes2?minMagnitude=0.0&maxMagnitude=2.0&latitude=36.1314&longitude=-95.9372&maxDistance=10000000&phrase=Alaska&where=any
      *
      */
@@ -132,8 +247,21 @@ public class EarthquakeDisplayController {
             @RequestParam(required = false) String longitude,
             @RequestParam(required = false) String maxDistance,
             @RequestParam(required = false) String phrase,
-            @RequestParam(required = false) String where) {
+            @RequestParam(required = false) String where,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String region,
+            @RequestParam(required = false) String precision,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "false") boolean explain,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
         try {
+            ListingPage<QuakeEntry> kept = keptPage(cursor);
+            if (kept != null) {
+                return ResponseEntity.ok(kept);
+            }
             // validating input parameters
             double minMagnitudeValue = Double.parseDouble(minMagnitude);
             double maxMagnitudeValue = Double.parseDouble(maxMagnitude);
@@ -142,6 +270,10 @@ public class EarthquakeDisplayController {
             double latitudeValue = Double.parseDouble(latitude);
             double longitudeValue = Double.parseDouble(longitude);
             double maxDistanceValue = Double.parseDouble(maxDistance);
+            Long fromValue = parseTime(from);
+            Long toValue = parseTime(to);
+            DistancePrecision precisionValue = DistancePrecision.parse(precision);
+            SortKey sortKey = SortKey.parse(sort);
 
             // Create Location object if latitude and longitude are provided by user
             Location location = new Location(latitudeValue, longitudeValue);
@@ -167,38 +299,108 @@ public class EarthquakeDisplayController {
                 String message = "Invalid longitude value. Longitude value must be between -180 and and 180 degrees.";
                 throw new QuakeDataNotFoundException(message);
             }
-            List<QuakeEntry> filteredQuakesData = earthquakeDataProcessor.filterPossibleAllEarthquakeData(minMagnitudeValue, maxMagnitudeValue, minDepthValue, maxDepthValue,
-                    location, maxDistanceValue, phrase, where);
-            differentSorters.sortAll();
+            if (explain) {
+                return ResponseEntity.ok(earthquakeDataProcessor.explainPossibleAllEarthquakeData(minMagnitudeValue, maxMagnitudeValue,
+                        minDepthValue, maxDepthValue, location, maxDistanceValue, phrase, where, region, fromValue, toValue, precisionValue));
+            }
+            List<QuakeEntry> filteredQuakesData = differentSorters.sort(earthquakeDataProcessor.filterPossibleAllEarthquakeData(minMagnitudeValue, maxMagnitudeValue, minDepthValue, maxDepthValue,
+                    location, maxDistanceValue, phrase, where, region, fromValue, toValue, precisionValue), sortKey);
             // if list is empty inform the user that no earthquake data is found
             if(filteredQuakesData.isEmpty()){
                 String errorMessage = "No Earthquake data found. Please consider putting valid value";
                 throw new QuakeDataNotFoundException(errorMessage);
             }
-            return ResponseEntity.ok(filteredQuakesData);
+            return listing(filteredQuakesData, page, size, cursor);
         }
         catch (NumberFormatException e) {
             // handling invalid non-double values
             return ResponseEntity.badRequest().body("Invalid parameter value. Please provide numeric values.");
         }
+        catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid from/to value. Please provide epoch millis or an ISO-8601 instant such as 2015-11-20T00:00:00Z.");
+        }
+        catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
 
     }
 
+    /**
+     * Every listing can be paged: {@code page} (from 1) and {@code size} return one page with the total count and a
+     * cursor, and {@code cursor} alone returns the page after the one that handed it out. The cursor carries the
+     * parameters of its listing, see {@link ListingCursorFilter}, so a listing the pager no longer keeps is computed
+     * again and only the page is sent. Once the quakes were refreshed the cursor is rejected.
+     * @return the whole listing, or one page of it when a page, size or cursor was asked for
+     */
+    private ResponseEntity<?> listing(List<?> items, Integer page, Integer size, String cursor) {
+        if (cursor != null) {
+            return ResponseEntity.ok(resultPager.next(items, cursor, currentQuery()));
+        }
+        if (page == null && size == null) {
+            return ResponseEntity.ok(items);
+        }
+        return ResponseEntity.ok(resultPager.page(items, page, size, currentQuery()));
+    }
+
+    /**
+     * Follows a cursor of a listing of quakes from the rows the pager kept of it, before the listing is computed.
+     * @return the page, or null when there is no cursor or its listing has to be computed again
+     */
+    private ListingPage<QuakeEntry> keptPage(String cursor) {
+        return cursor == null ? null : resultPager.resume(cursor, currentQuery());
+    }
+
+    private static ListingQuery currentQuery() {
+        return (ListingQuery) RequestContextHolder.currentRequestAttributes()
+                .getAttribute(ListingQuery.ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    /**
+     * Reads a time parameter given either as epoch millis or as an ISO-8601 instant.
+     * @return the time in epoch millis, or null if the parameter was not given
+     */
+    private static Long parseTime(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String trimmed = value.trim();
+        try {
+            return Long.parseLong(trimmed);
+        } catch (NumberFormatException e) {
+            return Instant.parse(trimmed).toEpochMilli();
+        }
+    }
+
     /**
      Retrieves a list of earthquake entries near a specified location within a maximum distance.
      @param distMax The maximum distance within which earthquakes are searched. -->distMax = 1000000
      @param latitude The latitude of the location.
      @param longitude The longitude of the location.
+     @param precision Optional distance precision, "exact" (default) or "fast". Fast returns the same quakes
+                      but orders them by spherical distance.
+     @param sort Optional order of the listing: magnitude, title, depth or title-depth, see {@link SortKey}.
+                 By default the listing is sorted by distance.
      @return ResponseEntity containing a list of nearby earthquake entries.
-     @GetRequest URL: {{url}}/earthquakes/nearby?distMax={distMax}&latitude={latitude}&longitude={longitude}
+     @GetRequest URL: {{url}}/earthquakes/nearby?distMax={distMax}&latitude={latitude}&longitude={longitude}&precision={precision}
      @Testing URL: http://localhost:8080/earthquakes/nearby?distMax=1000000&latitude=38.17&longitude=-118.82
      */
     @GetMapping("/nearby")
     public ResponseEntity<?> getNearByEarthQuakes(
                         @RequestParam String distMax,
                         @RequestParam String latitude,
-                        @RequestParam String longitude){
+                        @RequestParam String longitude,
+                        @RequestParam(required = false) String precision,
+                        @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor){
         try {
+            ListingPage<QuakeEntry> kept = keptPage(cursor);
+            if (kept != null) {
+                return ResponseEntity.ok(kept);
+            }
+            DistancePrecision precisionValue = DistancePrecision.parse(precision);
+            SortKey sortKey = SortKey.parse(sort);
             double distMaxValue = Double.parseDouble(distMax);
             double latitudeValue = Double.parseDouble(latitude);
             double longitudeValue = Double.parseDouble(longitude);
@@ -218,36 +420,51 @@ public class EarthquakeDisplayController {
                 throw new QuakeDataNotFoundException(errorMessage);
             }
             Location location = new Location(latitudeValue, longitudeValue);
-            System.out.println("location is: " + location);
+            logger.debug("location is: {}", location);
             // validating magnitude values
             if (distMaxValue < 0) {
                 throw new QuakeDataNotFoundException("Earthquake data within the specified magnitude range (" + distMax + " - "  + ") was not found. Please put value that is greater than 0");
             }
-            List<QuakeEntry> nearEarthQuakesData = earthquakeDataProcessor.earthQuakesNearMe(distMaxValue, location);
-            Collections.sort(nearEarthQuakesData, new DistanceComparator(location));
+            List<QuakeEntry> nearEarthQuakesData = earthquakeDataProcessor.earthQuakesNearMe(distMaxValue, location, precisionValue);
+            if (sortKey == null) {
+                nearEarthQuakesData = differentSorters.sortByDistance(nearEarthQuakesData, location, precisionValue);
+            } else {
+                nearEarthQuakesData = differentSorters.sort(nearEarthQuakesData, sortKey);
+            }
             // if list is empty inform the user that no earthquake data is found
             if (nearEarthQuakesData.isEmpty()) {
                 String errorMessage = "No earthquake data found. Hint: Please consider providing valid values.";
                 throw new QuakeDataNotFoundException(errorMessage);
             }
-            return ResponseEntity.ok(nearEarthQuakesData);
+            return listing(nearEarthQuakesData, page, size, cursor);
         } catch (NumberFormatException e) {
             // handling invalid non-double values
             return ResponseEntity.badRequest().body("Invalid parameter value. Please provide numeric values.");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
     /**
      * Retrieves earthquake entries within a specified depth range.
+     * @param sort Optional order of the listing: magnitude, title, depth (default) or title-depth, see {@link SortKey}.
      * @GetRequest URL: {{url}}/earthquakes/by-depth?minDepth={minDepth}&maxDepth={yourMaxDepthValue)
      * @Testing Url: {{url}}/earthquakes/by-depth?minDepth=-10000&maxDepth=-5000
      */
     @GetMapping("/by-depth")
     public ResponseEntity<?> getEarthQuakesByDepth(
             @RequestParam String minDepth,
-            @RequestParam String maxDepth) {
-        System.out.println("min depth is : " + minDepth);
-        System.out.println("maxDepth is : " + maxDepth);
+            @RequestParam String maxDepth,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor) {
+        logger.debug("min depth is: {}, max depth is: {}", minDepth, maxDepth);
         try {
+            ListingPage<QuakeEntry> kept = keptPage(cursor);
+            if (kept != null) {
+                return ResponseEntity.ok(kept);
+            }
+            SortKey sortKey = SortKey.parse(sort);
             double minDepthValue = Double.parseDouble(minDepth);
             double maxDepthValue = Double.parseDouble(maxDepth);
 
@@ -258,24 +475,29 @@ public class EarthquakeDisplayController {
             }
             List<QuakeEntry> earthQuakesDepthData = earthquakeDataProcessor.quakesOfDepth(minDepthValue, maxDepthValue);
 
-            //sorting the quake data by depth
-            Collections.sort(earthQuakesDepthData, new DepthComparator());
+            //already sorted by depth, unless another order was asked for
+            earthQuakesDepthData = differentSorters.sort(earthQuakesDepthData, sortKey);
             // if list is empty inform the user that no earthquake data is found
             if (earthQuakesDepthData.isEmpty()) {
                 String errorMessage = "No earthquake data found for depth range: " + minDepth + "," + maxDepth + " Please consider providing valid values.";
                 throw new QuakeDataNotFoundException(errorMessage);
             }
-            return ResponseEntity.ok(earthQuakesDepthData);
+            return listing(earthQuakesDepthData, page, size, cursor);
         } catch (NumberFormatException e) {
             // handling invalid non-double values
             return ResponseEntity.badRequest().body("Invalid parameter value. Please provide numeric values.");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
     /**
      * Retrieves a list of earthquake entries closest to the specified location based on latitude and longitude. You can specify the number of earthquake entries to retrieve using the 'howMany' parameter.
      * @param latitude The latitude of the location.
      * @param longitude The longitude of the location.
-     * @param howMany The number of closest earthquakes to retrieve.
+     * @param howMany The number of closest earthquakes to retrieve, from 1 to 10000.
+     * @param precision Optional distance precision, "exact" (default) or "fast". Fast ranks by spherical distance.
+     * @param sort Optional order of the listing: magnitude, title, depth or title-depth, see {@link SortKey}.
+     *             By default the listing is sorted by distance.
      * @return ResponseEntity containing a list of closest earthquake entries.
      * @GetRequest Url: localhost:{{url}}/earthquakes/closest-quakes?latitude={latitude}&longitude={longitude}&howMany={howMany}
      * @Testing Url: {url}}/earthquakes/closest-quakes?latitude=-6.211&longitude=106.845&howMany=3
@@ -284,20 +506,34 @@ public class EarthquakeDisplayController {
     public ResponseEntity<?> getClosestQuakes(
             @RequestParam String latitude,
             @RequestParam String longitude,
-            @RequestParam int howMany){
+            @RequestParam int howMany,
+            @RequestParam(required = false) String precision,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor){
         try {
+            ListingPage<QuakeEntry> kept = keptPage(cursor);
+            if (kept != null) {
+                return ResponseEntity.ok(kept);
+            }
+            DistancePrecision precisionValue = DistancePrecision.parse(precision);
+            SortKey sortKey = SortKey.parse(sort);
             double latitudeValue = Double.parseDouble(latitude);
             double longitudeValue = Double.parseDouble(longitude);
 
+            if (howMany < 1 || howMany > MAX_CLOSEST) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(new QuakeDataErrorResponse("Parameter 'howMany' must be between 1 and " + MAX_CLOSEST + "."));
+            }
             // checking if any of the required parameters are missing
-            if (latitudeValue == 0.0 || longitudeValue == 0.0 || howMany == 0) {
+            if (latitudeValue == 0.0 || longitudeValue == 0.0) {
                 String errorMessage = "All parameter values are required. Please provide values for latitude, longitude, and howMany.";
                 throw new QuakeDataNotFoundException(errorMessage);
             }
 
-            System.out.println("howMany is: " + howMany);
-            Location location = new Location(latitudeValue, latitudeValue);
-            System.out.println("location is: " + location);
+            Location location = new Location(latitudeValue, longitudeValue);
+            logger.debug("howMany is: {}, location is: {}", howMany, location);
 
             if(latitudeValue < -90 || latitudeValue > 90){
                 String errorMessage = "Invalid latitude value. Latitude value must be between -90 and and 90 degrees.";
@@ -307,54 +543,63 @@ public class EarthquakeDisplayController {
                 String errorMessage = "Invalid longitude value. Longitude value must be between -180 and and 180 degrees.";
                 throw new QuakeDataNotFoundException(errorMessage);
             }
-            List<QuakeEntry> nearEarthQuakesData = earthquakeDataProcessor.findClosestEarthQuakes(location, howMany);
-            // Sort by distance
-            Location where = new Location(latitudeValue, latitudeValue);
-            Collections.sort(nearEarthQuakesData, new DistanceComparator(where));
-            differentSorters.sortAll();
-            System.out.println("Sorted by distance:");
-            for (QuakeEntry qe : nearEarthQuakesData) {
-                System.out.println(qe);
-            }
+            // already sorted by distance, closest first
+            List<QuakeEntry> nearEarthQuakesData = differentSorters.sort(
+                    earthquakeDataProcessor.findClosestEarthQuakes(location, howMany, precisionValue), sortKey);
+            logger.debug("{} closest quakes sorted by {}", nearEarthQuakesData.size(), sortKey == null ? "distance" : sortKey.getParameter());
             // if list is empty inform the user that no earthquake data is found
             if(nearEarthQuakesData.isEmpty()){
                 String errorMessage = "No earthquake data found. Hint: Please consider providing valid values.";
                 throw new QuakeDataNotFoundException(errorMessage);
             }
-            return ResponseEntity.ok(nearEarthQuakesData);
+            return listing(nearEarthQuakesData, page, size, cursor);
         } catch (NumberFormatException e) {
             // handling invalid non-double values
             return ResponseEntity.badRequest().body("Invalid parameter value. Please provide numeric values.");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
     /**
      * Displays earthquake with the highest magnitude in earthquakes
      * @param howMany specifies howMany largest-quakes it should return
+     * @param sort Optional order of the listing: magnitude, title, depth or title-depth, see {@link SortKey}.
+     *             By default the listing is sorted by magnitude, largest first.
      * @return A list of largest quakes
      * @GetRequest URL: localhost:{{url}}/earthquakes/largest-quakes?howMany={howMany}
      * @Testing Url: {{url}}/earthquakes/largest-quakes?howMany=5
      */
     @GetMapping("/largest-quakes")
     public ResponseEntity<?> getLargestQuakes(
-            @RequestParam int howMany){
-        System.out.println("how many is: " + howMany);
+            @RequestParam int howMany,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor){
+        logger.debug("how many is: {}", howMany);
         try {
+            ListingPage<QuakeEntry> kept = keptPage(cursor);
+            if (kept != null) {
+                return ResponseEntity.ok(kept);
+            }
+            SortKey sortKey = SortKey.parse(sort);
             if(howMany <= 0){
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body(new QuakeDataErrorResponse("Parameter 'howMany' must be a positive integer."));
             }
-            List<QuakeEntry> largestEarthQuakesData = earthquakeDataProcessor.findLargestEarthQuakes(howMany);
-            differentSorters.sortAll();
+            List<QuakeEntry> largestEarthQuakesData = differentSorters.sort(earthquakeDataProcessor.findLargestEarthQuakes(howMany), sortKey);
             // if list is empty inform the user that no earthquake data is found
             if (largestEarthQuakesData.isEmpty()) {
                 String errorMessage = "No earthquake data found";
                 throw new QuakeDataNotFoundException(errorMessage);
             }
-            return ResponseEntity.ok(largestEarthQuakesData);
+            return listing(largestEarthQuakesData, page, size, cursor);
 
         }catch (NumberFormatException e) {
             // handling invalid non-double values
             return ResponseEntity.badRequest().body("Parameter 'howMany' must be a valid integer.");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
     /**
@@ -365,29 +610,42 @@ public class EarthquakeDisplayController {
      *              "start" - The phrase must start the title.
      *              "end" - The phrase must end the title.
      *              "any" - The phrase can be anywhere in the title.
+     * @param ignoreCase Optional, true to match the phrase regardless of case. Defaults to false.
+     * @param sort Optional order of the listing: magnitude, title (default), depth or title-depth, see {@link SortKey}.
      * @return A list of earthquakes that match the search criteria.
-     * @GetUrlRequest: {{url}}/earthquakes/by-phrase?phrase={}&where={}
+     * @GetUrlRequest: {{url}}/earthquakes/by-phrase?phrase={}&where={}&ignoreCase={}
      * @Testing Url: {{url}}/earthquakes/by-phrase?phrase=California&where=end
      */
     @GetMapping("/by-phrase")
     public ResponseEntity<?> findEarthquakesByPhrase(
             @RequestParam("phrase") String phrase,
-            @RequestParam("where")String where){
-        System.out.println("phrase is: " + phrase);
-        System.out.println("where is: " + where);
+            @RequestParam("where")String where,
+            @RequestParam(defaultValue = "false") boolean ignoreCase,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String cursor){
+        logger.debug("phrase is: {}, where is: {}", phrase, where);
         try {
-            List<QuakeEntry> earthQuakesByPhraseData = earthquakeDataProcessor.findEarthQuakesByPhrase(phrase, where);
-            Collections.sort(earthQuakesByPhraseData, new TitleComparator());
+            ListingPage<QuakeEntry> kept = keptPage(cursor);
+            if (kept != null) {
+                return ResponseEntity.ok(kept);
+            }
+            SortKey sortKey = SortKey.parse(sort);
+            List<QuakeEntry> earthQuakesByPhraseData = differentSorters.sort(
+                    earthquakeDataProcessor.findEarthQuakesByPhrase(phrase, where, ignoreCase), sortKey == null ? SortKey.TITLE : sortKey);
 
             // if list is empty inform the user that no earthquake data is found
             if (earthQuakesByPhraseData.isEmpty()) {
                 String errorMessage = "No earthquake data found";
                 throw new QuakeDataNotFoundException(errorMessage);
             }
-            return ResponseEntity.ok(earthQuakesByPhraseData);
+            return listing(earthQuakesByPhraseData, page, size, cursor);
         }catch (NumberFormatException e) {
             // handling invalid non-double values
             return ResponseEntity.badRequest().body("Invalid parameter value. Please provide numeric values.");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 }
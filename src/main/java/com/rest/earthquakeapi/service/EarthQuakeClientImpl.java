@@ -1,46 +1,49 @@
 package com.rest.earthquakeapi.service;
-import com.rest.earthquakeapi.ParserManager.EarthQuakeParser;
 import com.rest.earthquakeapi.apache.Location;
 import com.rest.earthquakeapi.filter.*;
+import com.rest.earthquakeapi.index.DistancePrecision;
+import com.rest.earthquakeapi.index.RowSets;
+import com.rest.earthquakeapi.index.TitleIndex;
+import com.rest.earthquakeapi.index.TopKSelector;
+import com.rest.earthquakeapi.metrics.QuakeMetrics;
 import com.rest.earthquakeapi.model.QuakeEntry;
+import com.rest.earthquakeapi.snapshot.QuakeColumns;
+import com.rest.earthquakeapi.snapshot.QuakeSnapshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import java.util.*;
 import java.util.stream.Collectors;
 /**
- * The {@code EarthQuakeClientImpl} class provides methods to parse and process earthquake data.
- * It currently utilizes the {@code EarthQuakeParser} class to read earthquake data from a specified source,
- * such as URL, and stores the data as a list of {@code QuakeEntry} objects. Each {@code QuakeEntry}
+ * The {@code EarthQuakeClientImpl} class provides methods to query and process earthquake data.
+ * The feed itself is parsed by {@link EarthquakeDataService}, every method here works on the current
+ * {@code QuakeSnapshot} it holds, which is a list of {@code QuakeEntry} objects. Each {@code QuakeEntry}
  * represents an individual earthquake event with details like location, magnitude, depth, and additional information.
  */
 @Service
 public class EarthQuakeClientImpl implements EarthquakeDataProcessor {
     private static final Logger logger = LoggerFactory.getLogger(EarthQuakeClientImpl.class);
-    private final EarthQuakeParser parser;
+    private final EarthquakeDataService dataService;
+    private final QuakeMetrics metrics;
 
-    @Value("${earthquake.source}")
-    private String source;
-    public EarthQuakeClientImpl(EarthQuakeParser parser){
-        this.parser = parser;
+    public EarthQuakeClientImpl(EarthquakeDataService dataService, QuakeMetrics metrics){
+        this.dataService = dataService;
+        this.metrics = metrics;
     }
 
+    /**
+     * @return the quakes with a magnitude greater than 5.0, in feed order
+     */
     @Override
     public List<QuakeEntry> bigQuakes() {
         try {
-            ArrayList<QuakeEntry> list = parser.read(source);
-            ArrayList<QuakeEntry> largeQuakes = filterByMagnitude(list, 5.0);
-            // Logging earthquakes
-            for (QuakeEntry qe : largeQuakes) {
-                logger.info("Magnitude: {}, Location: {}, Info: {}",
-                        qe.getMagnitude(),
-                        qe.getLocation(),
-                        qe.getInfo());
-            }
-            long count = largeQuakes.stream().count();
-            logger.info("Number of earthquakes with magnitude greater than 5.0: {}", count);
-            logger.info("Read data for {} quakes", list.size());
+            QuakeSnapshot snapshot = dataService.getSnapshot();
+            // the magnitudes above 5.0 are the tail of the magnitude index, put back in feed order
+            int[] rows = snapshot.getMagnitudeIndex().rowsAbove(5.0);
+            Arrays.sort(rows);
+            List<QuakeEntry> largeQuakes = snapshot.entriesAt(rows);
+            logger.debug("{} of {} quakes have a magnitude greater than 5.0", largeQuakes.size(), snapshot.size());
+            logRows(largeQuakes);
             return largeQuakes;
         } catch (Exception e) {
             logger.error("An error occurred while processing earthquake data.", e);
@@ -48,7 +51,7 @@ public class EarthQuakeClientImpl implements EarthquakeDataProcessor {
         }
     }
     @Override
-    public ArrayList<QuakeEntry> filterByMagnitude(ArrayList<QuakeEntry> quakeData,
+    public ArrayList<QuakeEntry> filterByMagnitude(List<QuakeEntry> quakeData,
                                                    double magMin){
         if(quakeData == null){
             logger.error("Quake data is null.");
@@ -76,39 +79,27 @@ public class EarthQuakeClientImpl implements EarthquakeDataProcessor {
      *    the specified maximum distance from the 'from' location.
      */
     @Override
-    public List<QuakeEntry> earthQuakesNearMe(double distMax, Location from) {
-//        String source = "https://earthquake.usgs.gov/earthquakes/feed/v1.0/summary/all_week.atom";
-        String source = "data/nov20quakedatasmall.atom";
-        ArrayList<QuakeEntry> list = parser.read(source);
-        System.out.println("read data for " + list.size() + " quakes");
-
-        // This location is Durham, NC
-//        Location city = new Location(35.988, -78.907);
-
-        // This location is Bridgeport, CA
-        Location city = new Location((Double) from.getLatitude(), from.getLongitude());
-
-        System.out.println("the city longitude is: " + city.getLongitude()); //-->gives correct longitude based on user input
-
-
-        List<QuakeEntry>closeEarthQuakes = filterByDistanceFrom(list, distMax, from);
-        closeEarthQuakes.forEach(quakeEntry ->
-                System.out.println((quakeEntry.getLocation().distanceTo(city) / 1000) + " " + quakeEntry.getInfo()));
-
-        System.out.println("Found " + closeEarthQuakes.size() + " that match that criteria");
-
+    public List<QuakeEntry> earthQuakesNearMe(double distMax, Location from, DistancePrecision precision) {
+        QuakeSnapshot snapshot = dataService.getSnapshot();
+
+        // the grid index only measures the quakes in cells near 'from'
+        int[] rows = snapshot.getGeoIndex().within((Double) from.getLatitude(), from.getLongitude(), distMax, precision);
+        List<QuakeEntry> closeEarthQuakes = snapshot.entriesAt(rows);
+        logger.debug("Found {} of {} quakes within {} of {}", closeEarthQuakes.size(), snapshot.size(), distMax, from);
+        logRows(closeEarthQuakes);
         return closeEarthQuakes;
     }
 
-    private ArrayList<QuakeEntry> filter(ArrayList<QuakeEntry> quakeData, Filter f) {
-        ArrayList<QuakeEntry> answer = new ArrayList<>();
-        for (QuakeEntry qe : quakeData) {
-            if (f.satisfies(qe)) {
-                answer.add(qe);
-            }
+    /**
+     * Runs the filters one after the other over the columns, each only on the rows the previous ones kept.
+     * @return the rows that pass every filter, ascending
+     */
+    private int[] select(QuakeSnapshot snapshot, int[] rows, ColumnFilter... filters) {
+        int count = rows.length;
+        for (ColumnFilter f : filters) {
+            count = f.select(snapshot, rows, count);
         }
-
-        return answer;
+        return Arrays.copyOf(rows, count);
     }
     @Override
     public List<QuakeEntry> getFilteredQuakes(double minMagnitude,
@@ -121,50 +112,77 @@ public class EarthQuakeClientImpl implements EarthquakeDataProcessor {
     @Override
     public List<QuakeEntry> filterPossibleAllEarthquakeData(Double minMagnitude, Double maxMagnitude,
                                                             Double minDepth, Double maxDepth, Location location, Double maxDistance,
-                                                            String phrase, String where) {
-        ArrayList<QuakeEntry> list  = parser.read(source);
+                                                            String phrase, String where, String region, Long from, Long to,
+                                                            DistancePrecision precision) {
+        QuakeSnapshot snapshot = dataService.getSnapshot();
+        QueryPlan plan = planPossibleAll(snapshot, minMagnitude, maxMagnitude, minDepth, maxDepth, location, maxDistance,
+                phrase, where, region, from, to, precision);
+        // only the rows that passed every filter are turned into entries
+        List<QuakeEntry> result = snapshot.entriesAt(plan.rows());
+        logRows(result);
+        return result;
+    }
+
+    @Override
+    public QueryPlan explainPossibleAllEarthquakeData(Double minMagnitude, Double maxMagnitude,
+                                                      Double minDepth, Double maxDepth, Location location, Double maxDistance,
+                                                      String phrase, String where, String region, Long from, Long to,
+                                                      DistancePrecision precision) {
+        return planPossibleAll(dataService.getSnapshot(), minMagnitude, maxMagnitude, minDepth, maxDepth, location, maxDistance,
+                phrase, where, region, from, to, precision);
+    }
+
+    /**
+     * Finds the candidates of filter-all through the indexes, then lets the MatchAllFilter plan and run the filters on them.
+     * @return the executed plan, its rows are the matching quakes
+     */
+    private QueryPlan planPossibleAll(QuakeSnapshot snapshot, Double minMagnitude, Double maxMagnitude,
+                                      Double minDepth, Double maxDepth, Location location, Double maxDistance,
+                                      String phrase, String where, String region, Long from, Long to, DistancePrecision precision) {
+        // narrow to the cells around the location, the filters below then only run on those candidates
+        int[] rows = snapshot.getGeoIndex().candidates((Double) location.getLatitude(), location.getLongitude(), maxDistance);
+        String accessPath = "grid cells around (" + location.getLatitude() + ", " + location.getLongitude() + ")";
 
         MatchAllFilter maf = new MatchAllFilter();
         maf.addFilter(new MagnitudeFilter(minMagnitude, maxMagnitude));
-        maf.addFilter(new DistanceFilter(new Location((Double) location.getLatitude(), location.getLongitude()), maxDistance));
+        maf.addFilter(new DistanceFilter(new Location((Double) location.getLatitude(), location.getLongitude()), maxDistance, precision));
         maf.addFilter(new DepthFilter(minDepth,maxDepth));
         maf.addFilter(new PhraseFilter(where, phrase));
-
-        ArrayList<QuakeEntry> result = filter(list, maf);
-
-        System.out.println("Match all filter 2 result:");
-
-        for (QuakeEntry qe : result) {
-            System.out.println(qe);
-        }
-
-        return result;
+        maf.addFilter(new RegionFilter(region));
+        // the time window is a filter too, so the plan can answer it from the time index as a bitmap
+        maf.addFilter(new TimeFilter(from == null ? Long.MIN_VALUE : from, to == null ? Long.MAX_VALUE : to));
+
+        QueryPlan plan = maf.plan(snapshot);
+        plan.execute(accessPath, rows);
+        metrics.recordPlan(plan);
+        logger.debug("filter-all plan: {}", plan);
+        return plan;
     }
 
     @Override
     public List<QuakeEntry> findLargestEarthQuakes(int howMany) {
-        ArrayList<QuakeEntry> list = parser.read(source);
-
-        ArrayList<QuakeEntry> largestEarthQuake = getLargest(list, howMany);
-        // Printing the total number of earthquakes
-        System.out.println("Number of earthquakes read: " + list.size());
+        QuakeSnapshot snapshot = dataService.getSnapshot();
 
+        // one pass with a bounded heap over the magnitudes, largest first
+        List<QuakeEntry> largestEarthQuake = snapshot.entriesAt(TopKSelector.largest(snapshot.getColumns().getMagnitudes(), howMany));
+        logger.debug("Largest {} of {} quakes", largestEarthQuake.size(), snapshot.size());
         return largestEarthQuake;
     }
     /**
      * Finds and returns a list of the top 'howMany' largest magnitude earthquakes from the given list of quakes.
      * The returned earthquakes are sorted by magnitude, with the largest earthquake at the first position.
      * If the input list contains fewer earthquakes than 'howMany', the method returns all available earthquakes.
+     * This is O(n * howMany), requests go through {@link TopKSelector} instead.
      *
      * @param quakeData An ArrayList of QuakeEntry representing earthquake data.
      * @param howMany   The number of top magnitude earthquakes to return.
      * @return An ArrayList of QuakeEntry containing the largest earthquakes, up to 'howMany', sorted by magnitude.
      */
-    private ArrayList<QuakeEntry> getLargest(ArrayList<QuakeEntry> quakeData, int howMany) {
+    public ArrayList<QuakeEntry> getLargest(List<QuakeEntry> quakeData, int howMany) {
         ArrayList<QuakeEntry> ret = new ArrayList<QuakeEntry>();
         ArrayList<QuakeEntry> copy = new ArrayList<QuakeEntry>(quakeData);
 
-        for (int i = 0; i < howMany; i++) {
+        for (int i = 0; i < Math.min(howMany, quakeData.size()); i++) {
             int maxIndex = indexOfLargest(copy);
             ret.add(copy.get(maxIndex));
             copy.remove(maxIndex);
@@ -199,25 +217,19 @@ public class EarthQuakeClientImpl implements EarthquakeDataProcessor {
      */
     @Override
     public List<String> getCountryNameFromEarthquakeData() {
-        List<String> countryList = new ArrayList<>();
-        ArrayList<String> countries = parser.readTitles(source);
-        for (String title : countries) {
-            String countryName = extractCountryName(title);
-            countryList.add(countryName);
-        }
-        //Removes duplicates country name
-        Set<String> set = new HashSet<>(countryList);
-        ArrayList<String> countriesNameWithoutDuplicates = new ArrayList<>(set);
-        Collections.sort(countriesNameWithoutDuplicates);
-        return countriesNameWithoutDuplicates;
+        //the region index already holds every country name once, sorted
+        return Arrays.asList(dataService.getSnapshot().getRegionIndex().values());
     }
-    private String extractCountryName(String title){
-        int commaIndex = title.indexOf(",");
-        if(commaIndex != -1){ //checking if the title contains the ","
-            return title.substring(commaIndex+2).trim(); //trim any leading or trailing spaces
-        }else{
-            return title;
-        }
+
+    @Override
+    public Map<String, Integer> getRegionCounts() {
+        return dataService.getSnapshot().getRegionIndex().counts();
+    }
+
+    @Override
+    public List<QuakeEntry> findEarthQuakesInRegion(String region) {
+        QuakeSnapshot snapshot = dataService.getSnapshot();
+        return snapshot.entriesAt(snapshot.getRegionIndex().rows(region));
     }
     /**
      * method for filtering the magnitude and depth
@@ -226,27 +238,47 @@ public class EarthQuakeClientImpl implements EarthquakeDataProcessor {
                                              double maxMagnitude,
                                              double minDepth,
                                              double maxDepth){
-//         String source = "https://earthquake.usgs.gov/earthquakes/feed/v1.0/summary/all_week.atom";
-        String source = "data/nov20quakedatasmall.atom";
-        ArrayList<QuakeEntry> list = parser.read(source);
-        System.out.println("read data for " + list.size() + " quakes");
-
-        //Filtering magnitude data's
-        Filter magnitudefilter = new MagnitudeFilter(minMagnitude, maxMagnitude);
-        ArrayList<QuakeEntry> filterByMagnitudeData = filter(list,magnitudefilter);
-
-        // Applying DepthFilter on the result of MagnitudeFilter
-        Filter depthFilter = new DepthFilter(minDepth, maxDepth);
-        ArrayList<QuakeEntry> result = filter(filterByMagnitudeData, depthFilter);
-
-        for (QuakeEntry qe : result) {
-            System.out.println(qe);
-        }
-        System.out.println("Result of Magnitude Filter and Depth Filter:");
-
-        System.out.println("Found " + result.size() + " quakes that match the criteria");
+        QuakeSnapshot snapshot = dataService.getSnapshot();
+
+        //the depth range is a slice of the depth index, already ordered by depth, then MagnitudeFilter keeps its rows in that order
+        DepthFilter depthFilter = new DepthFilter(minDepth, maxDepth);
+        int[] byDepth = depthFilter.matchesAll() ? snapshot.getDepthIndex().rowsInValueOrder()
+                : snapshot.getDepthIndex().rowsBetween(minDepth, maxDepth);
+        int[] rows = select(snapshot, byDepth, new MagnitudeFilter(minMagnitude, maxMagnitude));
+        orderEqualDepthsByMagnitude(snapshot.getColumns(), rows);
+        List<QuakeEntry> result = snapshot.entriesAt(rows);
+        logger.debug("Found {} of {} quakes with magnitude and depth in range", result.size(), snapshot.size());
+        logRows(result);
         return result;
     }
+    /**
+     * Sorts each run of rows with the same depth by magnitude, then by row. Together with the depth order this is the
+     * order of sorting by magnitude and then, stably, by depth.
+     */
+    private static void orderEqualDepthsByMagnitude(QuakeColumns columns, int[] rows) {
+        double[] depths = columns.getDepths();
+        double[] magnitudes = columns.getMagnitudes();
+        Comparator<Integer> byMagnitude = Comparator.<Integer>comparingDouble(row -> magnitudes[row])
+                .thenComparingInt(row -> row);
+        int start = 0;
+        while (start < rows.length) {
+            int end = start + 1;
+            while (end < rows.length && depths[rows[end]] == depths[rows[start]]) { //-0.0 == 0.0, as in the depth index
+                end++;
+            }
+            if (end - start > 1) {
+                Integer[] run = new Integer[end - start];
+                for (int i = 0; i < run.length; i++) {
+                    run[i] = rows[start + i];
+                }
+                Arrays.sort(run, byMagnitude);
+                for (int i = 0; i < run.length; i++) {
+                    rows[start + i] = run[i];
+                }
+            }
+            start = end;
+        }
+    }
     /**
      * Filters and returns a list of earthquake entries (QuakeEntry) that are within a specified maximum distance
      * from a given location.
@@ -257,35 +289,40 @@ public class EarthQuakeClientImpl implements EarthquakeDataProcessor {
      within this many kilometers from my specified location."
       * @param from      The reference Location object from which the distance to each earthquake is calculated.
      */
-    public List<QuakeEntry> filterByDistanceFrom(ArrayList<QuakeEntry> quakeData,
+    public List<QuakeEntry> filterByDistanceFrom(List<QuakeEntry> quakeData,
                                                  double distMax, Location from) {
+        double fromLatitude = (Double) from.getLatitude();
+        double fromLongitude = from.getLongitude();
         return quakeData.stream()
                 // Calculate the distance from 'from' to 'quakeEntry.getLocation()'
-                .filter(quakeEntry -> from.distanceTo(quakeEntry.getLocation()) < distMax)
+                .filter(quakeEntry -> distance(fromLatitude, fromLongitude, quakeEntry.getLocation()) < distMax)
                 .collect(Collectors.toCollection(ArrayList::new));
     }
 
+    /**
+     * Distance in meters from a point to a location, through the stateless {@link Location#distance}.
+     */
+    private static double distance(double latitude, double longitude, Location to) {
+        return Location.distance(latitude, longitude, (Double) to.getLatitude(), to.getLongitude());
+    }
+
     /**
      * Prints details of all earthquakes from a data source whose depth is within a given range.
      * The method reads earthquake data, filters it based on the depth criteria, and prints each earthquake that meets the criteria.
      * It also prints the total number of earthquakes found that match the depth criteria.
      */
     public List<QuakeEntry> quakesOfDepth(double minDepth, double maxDepth) {
-        //String source = "http://earthquake.usgs.gov/earthquakes/feed/v1.0/summary/all_week.atom";
-        String source = "data/nov20quakedatasmall.atom";
-        ArrayList<QuakeEntry> list = parser.read(source);
+        QuakeSnapshot snapshot = dataService.getSnapshot();
 
-        List<QuakeEntry> filtersDepth = filterByDepth(list, minDepth, maxDepth);
+        // a slice of the depth index, already ordered by depth
+        List<QuakeEntry> filtersDepth = snapshot.entriesAt(snapshot.getDepthIndex().rowsInside(minDepth, maxDepth));
 
-        System.out.println("Find quakes with depth between " + minDepth + " and" + maxDepth);
-        for (QuakeEntry quakeEntry : filtersDepth) {
-            System.out.println(quakeEntry);
-        }
-        System.out.println("Found " + filtersDepth.size() + " quakes that match that criteria\n");
+        logger.debug("Found {} quakes with depth between {} and {}", filtersDepth.size(), minDepth, maxDepth);
+        logRows(filtersDepth);
 
         return filtersDepth;
     }
-    public List<QuakeEntry> filterByDepth(ArrayList<QuakeEntry> quakeData,
+    public List<QuakeEntry> filterByDepth(List<QuakeEntry> quakeData,
                                           double minDepth, double maxDepth) {
         return quakeData.stream()
                 .filter(quakeEntry -> quakeEntry.getDepth() > minDepth && quakeEntry.getDepth() < maxDepth)
@@ -293,15 +330,16 @@ public class EarthQuakeClientImpl implements EarthquakeDataProcessor {
     }
 
     @Override
-    public List<QuakeEntry> findClosestEarthQuakes(Location current, int howMany) {
-        ArrayList<QuakeEntry> list  = parser.read(source);
-        System.out.println("read data for "+list.size());
-
-        ArrayList<QuakeEntry> closeQuakes = getClosest(list,current,howMany);
-        for(int k=0; k < closeQuakes.size(); k++){
-            QuakeEntry entry = closeQuakes.get(k);
-            double distanceInMeters = current.distanceTo(entry.getLocation());
-            System.out.printf("%4.2f\t %s\n", distanceInMeters/1000,entry);
+    public List<QuakeEntry> findClosestEarthQuakes(Location current, int howMany, DistancePrecision precision) {
+        QuakeSnapshot snapshot = dataService.getSnapshot();
+
+        // best-first search of the k-d tree, already ordered by distance
+        int[] rows = snapshot.getNearestIndex().nearest((Double) current.getLatitude(), current.getLongitude(), howMany, precision);
+        List<QuakeEntry> closeQuakes = snapshot.entriesAt(rows);
+        if (logger.isTraceEnabled()) {
+            for (QuakeEntry entry : closeQuakes) {
+                logger.trace("{} km {}", String.format("%4.2f", current.distanceTo(entry.getLocation()) / 1000), entry);
+            }
         }
         return closeQuakes;
     }
@@ -320,12 +358,14 @@ public class EarthQuakeClientImpl implements EarthquakeDataProcessor {
      *         sorted by ascending distance. The size of the returned list is the smaller of howMany or the size
      *         of quakeData.
      */
-    public ArrayList<QuakeEntry> getClosest(ArrayList<QuakeEntry> quakeData, Location current, int howMany) {
+    public ArrayList<QuakeEntry> getClosest(List<QuakeEntry> quakeData, Location current, int howMany) {
         ArrayList<QuakeEntry> copy = new ArrayList<>(quakeData);
         ArrayList<QuakeEntry> ret = new ArrayList<QuakeEntry>();
+        double currentLatitude = (Double) current.getLatitude();
+        double currentLongitude = current.getLongitude();
 
         // Find the closest earthquakes up to 'howMany' times
-        for(int i = 0; i<howMany; i++) {
+        for(int i = 0; i < Math.min(howMany, quakeData.size()); i++) {
 
             // Initialize minIndex to store the index of the closest earthquake in the copy ArrayList
             int minIndex = 0;
@@ -333,8 +373,10 @@ public class EarthQuakeClientImpl implements EarthquakeDataProcessor {
                 QuakeEntry quake = copy.get(j);
                 Location loc = quake.getLocation();
 
-                if (loc.distanceTo(current) < copy.get(minIndex)
-                        .getLocation().distanceTo(current)) {
+                Location minLoc = copy.get(minIndex).getLocation();
+
+                if (Location.distance((Double) loc.getLatitude(), loc.getLongitude(), currentLatitude, currentLongitude)
+                        < Location.distance((Double) minLoc.getLatitude(), minLoc.getLongitude(), currentLatitude, currentLongitude)) {
                     minIndex = j;
                 }
             }
@@ -354,8 +396,9 @@ public class EarthQuakeClientImpl implements EarthquakeDataProcessor {
      * @param phrase    The phrase to search for in the title of each earthquake.
      * @return An ArrayList of QuakeEntry objects whose titles contain the specified phrase
      * in the specified location. The returned list is empty if no earthquakes are found.
+     * Requests go through the snapshot's {@link com.rest.earthquakeapi.index.TitleIndex} instead.
      */
-    public static ArrayList<QuakeEntry> filterByPhrase(ArrayList<QuakeEntry> quakeData,
+    public static ArrayList<QuakeEntry> filterByPhrase(List<QuakeEntry> quakeData,
                                                        String where, String phrase) {
         ArrayList<QuakeEntry> answer = new ArrayList<>();
 
@@ -383,21 +426,26 @@ public class EarthQuakeClientImpl implements EarthquakeDataProcessor {
         return answer;
     }
     @Override
-    public List<QuakeEntry> findEarthQuakesByPhrase(String phrase, String where) {
-        //String source = "http://earthquake.usgs.gov/earthquakes/feed/v1.0/summary/all_week.atom";
-        String source = "data/nov20quakedatasmall.atom";
-        ArrayList<QuakeEntry> list = parser.read(source);
-        // Use filterByPhrase to filter the earthquakes
-        ArrayList<QuakeEntry> filteredList = filterByPhrase(list, where, phrase);
-
-        // Iterate over the filtered list and print each quake
-        for (QuakeEntry quakeEntry : filteredList) {
-            System.out.println(quakeEntry);
-        }
-        // Print the number of earthquakes found
-        System.out.println("Found " + filteredList.size() + " quakes that match the criteria");
+    public List<QuakeEntry> findEarthQuakesByPhrase(String phrase, String where, boolean ignoreCase) {
+        QuakeSnapshot snapshot = dataService.getSnapshot();
+        // look the phrase up in the title index, only the matching rows become entries
+        TitleIndex titleIndex = snapshot.getTitleIndex(ignoreCase);
+        List<QuakeEntry> filteredList = snapshot.entriesAt(titleIndex.rows(titleIndex.titlesMatching(where, phrase)));
+        logger.debug("Found {} quakes with {} phrase \"{}\"", filteredList.size(), where, phrase);
+        logRows(filteredList);
         return filteredList;
     }
 
+    /**
+     * Logs every quake of a result at TRACE. The check comes first, so a result is not walked when TRACE is off.
+     */
+    private static void logRows(List<QuakeEntry> result) {
+        if (logger.isTraceEnabled()) {
+            for (QuakeEntry qe : result) {
+                logger.trace("{}", qe);
+            }
+        }
+    }
+
 
 }
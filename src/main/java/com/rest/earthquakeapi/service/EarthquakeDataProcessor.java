@@ -1,8 +1,11 @@
 package com.rest.earthquakeapi.service;
 import com.rest.earthquakeapi.apache.Location;
+import com.rest.earthquakeapi.filter.QueryPlan;
+import com.rest.earthquakeapi.index.DistancePrecision;
 import com.rest.earthquakeapi.model.QuakeEntry;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * EarthquakeDataProcessor interface defines methods
@@ -10,29 +13,44 @@ import java.util.List;
  */
 public interface EarthquakeDataProcessor {
 
-    ArrayList<QuakeEntry> filterByMagnitude(ArrayList<QuakeEntry> quakeData, double minMag);
+    ArrayList<QuakeEntry> filterByMagnitude(List<QuakeEntry> quakeData, double minMag);
 
     List<QuakeEntry> bigQuakes();
 
 
     //gets all the earthquake that are less than @disMax from Location @from
-    List<QuakeEntry> earthQuakesNearMe(double distMax, Location from);
+    List<QuakeEntry> earthQuakesNearMe(double distMax, Location from, DistancePrecision precision);
 
+    //ordered by depth
     List<QuakeEntry> quakesOfDepth(double minDepth, double maxDepth);
 
-    List<QuakeEntry> findClosestEarthQuakes(Location current, int howMany);
+    List<QuakeEntry> findClosestEarthQuakes(Location current, int howMany, DistancePrecision precision);
 
-    List<QuakeEntry> findEarthQuakesByPhrase(String phrase, String where);
+    List<QuakeEntry> findEarthQuakesByPhrase(String phrase, String where, boolean ignoreCase);
 
+    //ordered by depth, then magnitude
     List<QuakeEntry> getFilteredQuakes(double minMagnitude, double maxMagnitude, double minDepth, double maxDepth);
 
+    //from and to are epoch millis (inclusive) and may be null for an open-ended time window, region may be null for every region
     List<QuakeEntry> filterPossibleAllEarthquakeData(Double minMagnitude, Double maxMagnitude,
                                                      Double minDepth, Double maxDepth,
-                                                     Location location, Double maxDistance, String phrase, String where);
+                                                     Location location, Double maxDistance, String phrase, String where, String region,
+                                                     Long from, Long to, DistancePrecision precision);
+
+    //same query as filterPossibleAllEarthquakeData, returns how it was run instead of the quakes
+    QueryPlan explainPossibleAllEarthquakeData(Double minMagnitude, Double maxMagnitude,
+                                               Double minDepth, Double maxDepth,
+                                               Location location, Double maxDistance, String phrase, String where, String region,
+                                               Long from, Long to, DistancePrecision precision);
 
     List<QuakeEntry> findLargestEarthQuakes(int howMany);
 
     List<String> getCountryNameFromEarthquakeData();
 
+    //number of quakes per region, sorted by region
+    Map<String, Integer> getRegionCounts();
+
+    List<QuakeEntry> findEarthQuakesInRegion(String region);
+
 
 }
@@ -1,18 +1,126 @@
 package com.rest.earthquakeapi.service;
 
+import com.rest.earthquakeapi.ParserManager.QuakeFeedParser;
+import com.rest.earthquakeapi.metrics.QuakeMetrics;
+import com.rest.earthquakeapi.model.QuakeEntry;
+import com.rest.earthquakeapi.snapshot.QuakeDelta;
+import com.rest.earthquakeapi.snapshot.QuakeSnapshot;
+import com.rest.earthquakeapi.snapshot.SnapshotFile;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Owns the in-memory earthquake dataset. The feed configured by {@code earthquake.source} is parsed once at
+ * startup and then checked again on every refresh. A refresh only downloads and parses a feed that changed, see
+ * {@link FeedFetcher}, and only swaps in a new {@link QuakeSnapshot} when the quakes themselves changed, see
+ * {@link QuakeDelta}. Request handling only ever reads the current snapshot.
+ * Every loaded snapshot is also written to {@code earthquake.snapshot-file}. When that file holds a snapshot of the
+ * same feed at startup it is served right away, and the feed is read in the background.
+ */
 @Service
 public class EarthquakeDataService {
+    private static final Logger logger = LoggerFactory.getLogger(EarthquakeDataService.class);
+    private final String source;
+    private final Class<?> parserType;
+    private final FeedFetcher fetcher;
+    private final QuakeMetrics metrics;
+    private final Path snapshotFile; //null when snapshots are not kept
+    private final AtomicReference<QuakeSnapshot> snapshot = new AtomicReference<>(QuakeSnapshot.EMPTY);
 
-    @Scheduled(fixedRate = 100000) //runs every 100 seconds
-    public void fetchEarthQuakeData(){
-
-
+    /**
+     * @param snapshotFile where the last loaded snapshot is kept between restarts, empty to not keep it
+     */
+    public EarthquakeDataService(QuakeFeedParser parser, @Value("${earthquake.source}") String source,
+                                 @Value("${earthquake.snapshot-file:}") String snapshotFile, QuakeMetrics metrics) {
+        this.source = source;
+        this.parserType = parser.getClass();
+        this.fetcher = new FeedFetcher(source, parser);
+        this.snapshotFile = snapshotFile.isBlank() ? null : Path.of(snapshotFile);
+        this.metrics = metrics;
+        metrics.getRegistry().gauge("earthquake.snapshot.quakes", snapshot, current -> current.get().size());
+    }
 
+    @PostConstruct
+    public void init() {
+        if (loadSnapshotFile()) {
+            CompletableFuture.runAsync(() -> { //catch up with the feed without holding up startup
+                snapshot.get().getTitleIndex(false);
+                fetchEarthQuakeData();
+            });
+        } else {
+            fetchEarthQuakeData();
+        }
+    }
 
+    private boolean loadSnapshotFile() {
+        if (snapshotFile == null) {
+            return false;
+        }
+        long start = System.nanoTime();
+        try {
+            QuakeSnapshot stored = SnapshotFile.read(snapshotFile, source);
+            if (stored == null) {
+                logger.info("No usable snapshot of {} in {}", source, snapshotFile);
+                return false;
+            }
+            snapshot.set(stored);
+            logger.info("Loaded {} quakes from {} in {} ms", stored.size(), snapshotFile, (System.nanoTime() - start) / 1_000_000);
+            return true;
+        } catch (IOException e) {
+            logger.warn("Could not read {}: {}", snapshotFile, e.toString());
+            return false;
+        }
     }
 
+    @Scheduled(fixedRateString = "${earthquake.refresh-interval:100000}",
+            initialDelayString = "${earthquake.refresh-interval:100000}") //runs every 100 seconds by default
+    public synchronized void fetchEarthQuakeData(){
+        long start = System.nanoTime();
+        ArrayList<QuakeEntry> list = fetcher.fetchIfChanged();
+        if (list == null) {
+            return; //not modified since the last read, or not reachable
+        }
+        metrics.recordParse(parserType, System.nanoTime() - start, list.size());
+        QuakeSnapshot current = snapshot.get();
+        // the parser swallows read errors and hands back an empty list, keep serving the last good data instead
+        if (list.isEmpty() && !current.isEmpty()) {
+            logger.warn("Refresh of {} returned no quakes, keeping the previous snapshot", source);
+            return;
+        }
+        QuakeDelta delta = QuakeDelta.between(current, list);
+        if (delta.isEmpty() && !current.isEmpty()) {
+            logger.info("Refresh of {} changed no quakes, keeping the previous snapshot", source);
+            return;
+        }
+        long buildStart = System.nanoTime();
+        QuakeSnapshot loaded = new QuakeSnapshot(source, list, System.currentTimeMillis());
+        loaded.getTitleIndex(false); //phrase searches should not pay for the index
+        metrics.recordSnapshotBuild(System.nanoTime() - buildStart);
+        snapshot.set(loaded);
+        logger.info("Loaded {} quakes from {} in {} ms: {}", list.size(), source, (System.nanoTime() - start) / 1_000_000, delta);
+        if (snapshotFile != null) {
+            try {
+                SnapshotFile.write(loaded, snapshotFile);
+            } catch (IOException e) {
+                logger.warn("Could not write {}: {}", snapshotFile, e.toString());
+            }
+        }
+    }
 
+    /**
+     * @return the most recently loaded snapshot, never null
+     */
+    public QuakeSnapshot getSnapshot() {
+        return snapshot.get();
+    }
 }
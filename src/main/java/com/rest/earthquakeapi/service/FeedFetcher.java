@@ -0,0 +1,113 @@
+package com.rest.earthquakeapi.service;
+
+import com.rest.earthquakeapi.ParserManager.QuakeFeedParser;
+import com.rest.earthquakeapi.model.QuakeEntry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+
+/**
+ * Reads the feed only when it changed since the last read.
+ * An http(s) feed is fetched with a conditional GET: the {@code ETag} and {@code Last-Modified} of the last
+ * response are sent back as {@code If-None-Match} and {@code If-Modified-Since}, and a {@code 304} means nothing
+ * is parsed. A file feed is parsed again only when its modification time moved.
+ * The validators are only remembered after the feed was parsed to its end, so a body that broke off is fetched
+ * again in full on the next poll instead of being answered with a {@code 304}.
+ */
+class FeedFetcher {
+    private static final Logger logger = LoggerFactory.getLogger(FeedFetcher.class);
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final String source;
+    private final QuakeFeedParser parser;
+    private HttpClient client; //created on the first http fetch
+    private String etag;
+    private String lastModified;
+    private FileTime fileModified;
+
+    FeedFetcher(String source, QuakeFeedParser parser) {
+        this.source = source;
+        this.parser = parser;
+    }
+
+    /**
+     * @return the parsed feed, or null when it has not changed or could not be read to its end
+     */
+    synchronized ArrayList<QuakeEntry> fetchIfChanged() {
+        try {
+            return source.startsWith("http") ? fetchUrl() : fetchFile();
+        } catch (IOException e) {
+            logger.warn("Could not read {}: {}", source, e.toString());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private ArrayList<QuakeEntry> fetchUrl() throws IOException, InterruptedException {
+        if (client == null) {
+            client = HttpClient.newBuilder()
+                    .connectTimeout(TIMEOUT)
+                    .followRedirects(HttpClient.Redirect.NORMAL)
+                    .build();
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(source)).timeout(TIMEOUT).GET();
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        if (lastModified != null) {
+            request.header("If-Modified-Since", lastModified);
+        }
+        HttpResponse<InputStream> response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() == 304) {
+                logger.debug("{} not modified", source);
+                return null;
+            }
+            if (response.statusCode() != 200) {
+                logger.warn("Fetching {} returned status {}", source, response.statusCode());
+                return null;
+            }
+            ArrayList<QuakeEntry> list = new ArrayList<>();
+            if (!parser.read(body, list::add)) {
+                logger.warn("{} could not be read to its end, keeping the validators of the last complete read", source);
+                return null; //part of a feed is not a feed
+            }
+            // an empty feed is kept out of the snapshot, so it is not marked as read either
+            if (!list.isEmpty()) {
+                etag = response.headers().firstValue("ETag").orElse(null);
+                lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+            }
+            return list;
+        }
+    }
+
+    private ArrayList<QuakeEntry> fetchFile() throws IOException {
+        FileTime modified = Files.getLastModifiedTime(Path.of(source));
+        if (modified.equals(fileModified)) {
+            logger.debug("{} not modified", source);
+            return null;
+        }
+        ArrayList<QuakeEntry> list = new ArrayList<>();
+        if (!parser.read(source, list::add)) {
+            logger.warn("{} could not be read to its end", source);
+            return null;
+        }
+        if (!list.isEmpty()) {
+            fileModified = modified;
+        }
+        return list;
+    }
+}
@@ -0,0 +1,194 @@
+package com.rest.earthquakeapi.snapshot;
+
+import com.rest.earthquakeapi.apache.Location;
+import com.rest.earthquakeapi.model.QuakeEntry;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Struct-of-arrays store of the quakes: one primitive array per numeric field and dictionary-encoded
+ * titles and regions, so a million quakes cost a few tens of MB instead of a million {@link QuakeEntry}
+ * objects with their {@link Location}s. Row {@code i} of every column belongs to the same quake.
+ * {@link QuakeEntry} objects are only created by {@link #materialise} for rows that are returned.
+ */
+public final class QuakeColumns {
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] magnitudes;
+    private final double[] depths;
+    private final long[] times;
+    private final int[] titleIds;
+    private final int[] regionIds;
+    private final String[] titles;  //dictionary, indexed by titleIds
+    private final String[] regions; //dictionary, indexed by regionIds
+    private final String[] ids;
+    private final String[] dateTimes;
+    private final String[] links;
+
+    public QuakeColumns(double[] latitudes, double[] longitudes, double[] magnitudes, double[] depths, long[] times,
+                        int[] titleIds, int[] regionIds, String[] titles, String[] regions,
+                        String[] ids, String[] dateTimes, String[] links) {
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.magnitudes = magnitudes;
+        this.depths = depths;
+        this.times = times;
+        this.titleIds = titleIds;
+        this.regionIds = regionIds;
+        this.titles = titles;
+        this.regions = regions;
+        this.ids = ids;
+        this.dateTimes = dateTimes;
+        this.links = links;
+    }
+
+    public static QuakeColumns from(List<QuakeEntry> entries) {
+        int n = entries.size();
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        double[] magnitudes = new double[n];
+        double[] depths = new double[n];
+        long[] times = new long[n];
+        int[] titleIds = new int[n];
+        int[] regionIds = new int[n];
+        String[] ids = new String[n];
+        String[] dateTimes = new String[n];
+        String[] links = new String[n];
+        Dictionary titles = new Dictionary();
+        Dictionary regions = new Dictionary();
+        for (int row = 0; row < n; row++) {
+            QuakeEntry qe = entries.get(row);
+            Location location = qe.getLocation();
+            latitudes[row] = (Double) location.getLatitude();
+            longitudes[row] = location.getLongitude();
+            magnitudes[row] = qe.getMagnitude();
+            depths[row] = qe.getDepth();
+            times[row] = qe.getTime();
+            titleIds[row] = titles.idOf(qe.getTitle());
+            regionIds[row] = regions.idOf(regionOf(qe.getTitle()));
+            ids[row] = qe.getId();
+            dateTimes[row] = qe.getDateTime();
+            links[row] = qe.getLink();
+        }
+        return new QuakeColumns(latitudes, longitudes, magnitudes, depths, times, titleIds, regionIds,
+                titles.values(), regions.values(), ids, dateTimes, links);
+    }
+
+    /**
+     * The region (country or state) of a title, the part after the comma:
+     * "72km SW of Delta Junction, Alaska" is in "Alaska". Titles without a comma, or with nothing after it, are
+     * their own region.
+     */
+    public static String regionOf(String title) {
+        if (title == null) {
+            return null;
+        }
+        int commaIndex = title.indexOf(",");
+        if (commaIndex != -1 && commaIndex + 2 <= title.length()) { //checking if the title contains the ", "
+            String region = title.substring(commaIndex + 2).trim(); //trim any leading or trailing spaces
+            if (!region.isEmpty()) {
+                return region;
+            }
+        }
+        return title;
+    }
+
+    /**
+     * @return a new QuakeEntry holding the values of the row
+     */
+    public QuakeEntry materialise(int row) {
+        return new QuakeEntry(ids[row], latitudes[row], longitudes[row], magnitudes[row], titles[titleIds[row]],
+                depths[row], dateTimes[row], times[row], links[row]);
+    }
+
+    public int size() {
+        return magnitudes.length;
+    }
+
+    // The arrays below are shared, not copied. Callers must treat them as read-only.
+
+    public double[] getLatitudes() {
+        return latitudes;
+    }
+
+    public double[] getLongitudes() {
+        return longitudes;
+    }
+
+    public double[] getMagnitudes() {
+        return magnitudes;
+    }
+
+    public double[] getDepths() {
+        return depths;
+    }
+
+    public long[] getTimes() {
+        return times;
+    }
+
+    public int[] getTitleIds() {
+        return titleIds;
+    }
+
+    public int[] getRegionIds() {
+        return regionIds;
+    }
+
+    public String[] getTitles() {
+        return titles;
+    }
+
+    public String[] getRegions() {
+        return regions;
+    }
+
+    public String[] getIds() {
+        return ids;
+    }
+
+    public String[] getDateTimes() {
+        return dateTimes;
+    }
+
+    public String[] getLinks() {
+        return links;
+    }
+
+    public String titleOf(int row) {
+        return titles[titleIds[row]];
+    }
+
+    public String regionOf(int row) {
+        return regions[regionIds[row]];
+    }
+
+    /**
+     * Hands out one id per distinct string, in order of first appearance.
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private String[] values = new String[16];
+
+        int idOf(String value) {
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = ids.size();
+                ids.put(value, id);
+                if (id == values.length) {
+                    values = Arrays.copyOf(values, id * 2);
+                }
+                values[id] = value;
+            }
+            return id;
+        }
+
+        String[] values() {
+            return Arrays.copyOf(values, ids.size());
+        }
+    }
+}
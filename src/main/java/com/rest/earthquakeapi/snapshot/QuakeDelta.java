@@ -0,0 +1,93 @@
+package com.rest.earthquakeapi.snapshot;
+
+import com.rest.earthquakeapi.apache.Location;
+import com.rest.earthquakeapi.model.QuakeEntry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * What changed between a loaded snapshot and a freshly parsed feed, matched by {@link QuakeEntry#getId()}:
+ * the ids that are new, the ids whose values changed and the ids that are no longer in the feed.
+ */
+public final class QuakeDelta {
+
+    private final List<String> inserted;
+    private final List<String> updated;
+    private final List<String> deleted;
+
+    private QuakeDelta(List<String> inserted, List<String> updated, List<String> deleted) {
+        this.inserted = inserted;
+        this.updated = updated;
+        this.deleted = deleted;
+    }
+
+    /**
+     * Looks every fresh entry up by id in the current snapshot and compares it with the columns of its row,
+     * no entry of the snapshot is materialised.
+     */
+    public static QuakeDelta between(QuakeSnapshot current, List<QuakeEntry> fresh) {
+        QuakeColumns columns = current.getColumns();
+        boolean[] seen = new boolean[current.size()];
+        List<String> inserted = new ArrayList<>();
+        List<String> updated = new ArrayList<>();
+        for (QuakeEntry qe : fresh) {
+            int row = current.rowOf(qe.getId());
+            if (row < 0 || seen[row]) {
+                inserted.add(qe.getId());
+                continue;
+            }
+            seen[row] = true;
+            if (!sameValues(columns, row, qe)) {
+                updated.add(qe.getId());
+            }
+        }
+        List<String> deleted = new ArrayList<>();
+        String[] ids = columns.getIds();
+        for (int row = 0; row < seen.length; row++) {
+            if (!seen[row]) {
+                deleted.add(ids[row]);
+            }
+        }
+        return new QuakeDelta(Collections.unmodifiableList(inserted), Collections.unmodifiableList(updated),
+                Collections.unmodifiableList(deleted));
+    }
+
+    private static boolean sameValues(QuakeColumns columns, int row, QuakeEntry qe) {
+        Location location = qe.getLocation();
+        return Double.compare(columns.getLatitudes()[row], (Double) location.getLatitude()) == 0
+                && Double.compare(columns.getLongitudes()[row], location.getLongitude()) == 0
+                && Double.compare(columns.getMagnitudes()[row], qe.getMagnitude()) == 0
+                && Double.compare(columns.getDepths()[row], qe.getDepth()) == 0
+                && columns.getTimes()[row] == qe.getTime()
+                && Objects.equals(columns.titleOf(row), qe.getTitle())
+                && Objects.equals(columns.getDateTimes()[row], qe.getDateTime())
+                && Objects.equals(columns.getLinks()[row], qe.getLink());
+    }
+
+    public List<String> getInserted() {
+        return inserted;
+    }
+
+    public List<String> getUpdated() {
+        return updated;
+    }
+
+    public List<String> getDeleted() {
+        return deleted;
+    }
+
+    /**
+     * @return true when the feed holds exactly the quakes of the snapshot
+     */
+    public boolean isEmpty() {
+        return inserted.isEmpty() && updated.isEmpty() && deleted.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return inserted.size() + " inserted, " + updated.size() + " updated, " + deleted.size() + " deleted";
+    }
+}
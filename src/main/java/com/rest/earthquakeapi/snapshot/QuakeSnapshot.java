@@ -0,0 +1,208 @@
+package com.rest.earthquakeapi.snapshot;
+
+import com.rest.earthquakeapi.index.FacetIndex;
+import com.rest.earthquakeapi.index.GeoGridIndex;
+import com.rest.earthquakeapi.index.KdTree;
+import com.rest.earthquakeapi.index.SortedIndex;
+import com.rest.earthquakeapi.index.TimeIndex;
+import com.rest.earthquakeapi.index.TitleIndex;
+import com.rest.earthquakeapi.model.QuakeEntry;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+/**
+ * An immutable, point-in-time view of the parsed earthquake feed.
+ * A new snapshot is built every time the feed is (re)loaded and swapped in as a whole,
+ * so a request always reads one consistent dataset and never re-parses the feed itself.
+ * The data is held in a {@link QuakeColumns} store. The indexes are built together with the snapshot and share
+ * its row numbering: row {@code i} is {@code getEntries().get(i)}.
+ */
+public final class QuakeSnapshot {
+
+    public static final QuakeSnapshot EMPTY = new QuakeSnapshot("", Collections.emptyList(), 0L);
+
+    private final String source;
+    private final QuakeColumns columns;
+    private final List<QuakeEntry> entries;
+    private final long loadedAt; //epoch millis of when the feed was parsed
+    private final TimeIndex timeIndex;
+    private final GeoGridIndex geoIndex;
+    private final KdTree nearestIndex;
+    private final SortedIndex magnitudeIndex;
+    private final SortedIndex depthIndex;
+    private final FacetIndex regionIndex;
+    private volatile int[] rowsById; //rows ordered by id, built on the first lookup by id
+    private volatile QuakeStats stats; //built on first use
+    private volatile TitleIndex titleIndex; //built on first use
+    private volatile TitleIndex titleIndexIgnoringCase; //built on first use
+
+    public QuakeSnapshot(String source, List<QuakeEntry> entries, long loadedAt) {
+        this(source, QuakeColumns.from(entries), loadedAt);
+    }
+
+    public QuakeSnapshot(String source, QuakeColumns columns, long loadedAt) {
+        this.source = source;
+        this.columns = columns;
+        this.entries = new EntryView(columns);
+        this.loadedAt = loadedAt;
+        this.timeIndex = TimeIndex.build(columns.getTimes());
+        this.geoIndex = GeoGridIndex.build(columns.getLatitudes(), columns.getLongitudes());
+        this.nearestIndex = KdTree.build(columns.getLatitudes(), columns.getLongitudes());
+        this.magnitudeIndex = SortedIndex.build(columns.getMagnitudes());
+        this.depthIndex = SortedIndex.build(columns.getDepths());
+        this.regionIndex = FacetIndex.build(columns.getRegions(), columns.getRegionIds());
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public QuakeColumns getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return statistics over the columns, for estimating filter selectivity. Built the first time it is asked for.
+     */
+    public QuakeStats getStats() {
+        QuakeStats current = stats;
+        if (current == null) {
+            current = new QuakeStats(columns, regionIndex);
+            stats = current;
+        }
+        return current;
+    }
+
+    /**
+     * @return the parsed entries in feed order. The list is read-only, callers copy before sorting.
+     * A new entry is created each time a row is read, the snapshot keeps none of them.
+     */
+    public List<QuakeEntry> getEntries() {
+        return entries;
+    }
+
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+
+    public TimeIndex getTimeIndex() {
+        return timeIndex;
+    }
+
+    public GeoGridIndex getGeoIndex() {
+        return geoIndex;
+    }
+
+    public KdTree getNearestIndex() {
+        return nearestIndex;
+    }
+
+    public SortedIndex getMagnitudeIndex() {
+        return magnitudeIndex;
+    }
+
+    public SortedIndex getDepthIndex() {
+        return depthIndex;
+    }
+
+    /**
+     * @return the rows of every region, see {@link QuakeColumns#regionOf(String)}
+     */
+    public FacetIndex getRegionIndex() {
+        return regionIndex;
+    }
+
+    /**
+     * @param ignoreCase whether the index matches phrases regardless of case
+     * @return the phrase index over the titles. Built the first time it is asked for, the data service asks for the
+     * case-sensitive one right after loading.
+     */
+    public TitleIndex getTitleIndex(boolean ignoreCase) {
+        TitleIndex current = ignoreCase ? titleIndexIgnoringCase : titleIndex;
+        if (current == null) {
+            current = TitleIndex.build(columns.getTitles(), columns.getTitleIds(), ignoreCase);
+            if (ignoreCase) {
+                titleIndexIgnoringCase = current;
+            } else {
+                titleIndex = current;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @param rows kept by the listing, callers must not modify the array afterwards
+     * @return the entries at the given rows, in the order of the rows, materialised as they are read
+     */
+    public SnapshotRows entriesAt(int[] rows) {
+        return new SnapshotRows(this, rows);
+    }
+
+    /**
+     * @return the row of the quake with this id, or -1 if this snapshot does not hold it
+     */
+    public int rowOf(String id) {
+        if (id == null) {
+            return -1;
+        }
+        int[] byId = rowsById;
+        if (byId == null) {
+            String[] ids = columns.getIds();
+            byId = IntStream.range(0, ids.length).boxed()
+                    .sorted(Comparator.comparing(row -> ids[row], Comparator.nullsFirst(Comparator.naturalOrder())))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            rowsById = byId; //a racing request may build it too, both arrays are the same
+        }
+        String[] ids = columns.getIds();
+        int lo = 0;
+        int hi = byId.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            String midId = ids[byId[mid]];
+            int cmp = midId == null ? -1 : midId.compareTo(id);
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                return byId[mid];
+            }
+        }
+        return -1;
+    }
+
+    public int size() {
+        return columns.size();
+    }
+
+    public boolean isEmpty() {
+        return columns.size() == 0;
+    }
+
+    /**
+     * Read-only list over the columns that materialises an entry each time a row is read.
+     */
+    private static final class EntryView extends AbstractList<QuakeEntry> implements RandomAccess {
+        private final QuakeColumns columns;
+
+        EntryView(QuakeColumns columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        public QuakeEntry get(int row) {
+            return columns.materialise(row);
+        }
+
+        @Override
+        public int size() {
+            return columns.size();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.rest.earthquakeapi.snapshot;
+
+import com.rest.earthquakeapi.index.FacetIndex;
+
+import java.util.Arrays;
+
+/**
+ * Statistics over the columns of a snapshot, used to estimate how many quakes a filter lets through.
+ * Magnitude, depth and time are summarised by equi-depth histograms, titles by how many rows carry each title.
+ * Regions are counted by the snapshot's region index.
+ */
+public final class QuakeStats {
+
+    private static final int BUCKETS = 64;
+
+    private final QuakeColumns columns;
+    private final Histogram magnitudes;
+    private final Histogram depths;
+    private final Histogram times;
+    private final int[] titleCounts; //rows per title id
+    private final FacetIndex regionIndex;
+
+    QuakeStats(QuakeColumns columns, FacetIndex regionIndex) {
+        this.columns = columns;
+        this.regionIndex = regionIndex;
+        this.magnitudes = new Histogram(columns.getMagnitudes());
+        this.depths = new Histogram(columns.getDepths());
+        long[] eventTimes = columns.getTimes();
+        double[] timeValues = new double[eventTimes.length];
+        for (int row = 0; row < eventTimes.length; row++) {
+            timeValues[row] = eventTimes[row];
+        }
+        this.times = new Histogram(timeValues);
+        this.titleCounts = new int[columns.getTitles().length];
+        for (int titleId : columns.getTitleIds()) {
+            titleCounts[titleId]++;
+        }
+    }
+
+    public int getRowCount() {
+        return columns.size();
+    }
+
+    public QuakeColumns getColumns() {
+        return columns;
+    }
+
+    public Histogram getMagnitudes() {
+        return magnitudes;
+    }
+
+    public Histogram getDepths() {
+        return depths;
+    }
+
+    /**
+     * @return the histogram of event times in epoch millis
+     */
+    public Histogram getTimes() {
+        return times;
+    }
+
+    /**
+     * @return how many rows have the title with this dictionary id
+     */
+    public int titleCount(int titleId) {
+        return titleCounts[titleId];
+    }
+
+    /**
+     * @return the snapshot's region index, which also counts the rows of every region
+     */
+    public FacetIndex getRegionIndex() {
+        return regionIndex;
+    }
+
+    /**
+     * Equi-depth histogram: every bucket holds the same number of values, so it stays accurate
+     * where the values are dense. Values inside a bucket are assumed evenly spread.
+     */
+    public static final class Histogram {
+        private final double[] bounds; //BUCKETS + 1 boundaries, ascending, empty for no values
+
+        Histogram(double[] values) {
+            double[] sorted = values.clone();
+            Arrays.sort(sorted);
+            int n = sorted.length;
+            bounds = n == 0 ? new double[0] : new double[BUCKETS + 1];
+            for (int i = 0; i < bounds.length; i++) {
+                bounds[i] = sorted[(int) ((long) i * (n - 1) / BUCKETS)];
+            }
+        }
+
+        /**
+         * @return the estimated fraction of values inside [lo, hi]
+         */
+        public double fractionBetween(double lo, double hi) {
+            if (bounds.length == 0 || lo > hi) {
+                return 0.0;
+            }
+            return Math.max(0.0, Math.min(1.0, fractionBelow(hi, true) - fractionBelow(lo, false)));
+        }
+
+        /**
+         * @param inclusive whether values equal to {@code x} count as below it
+         */
+        private double fractionBelow(double x, boolean inclusive) {
+            int k = 0; //number of boundaries below x
+            while (k < bounds.length && (bounds[k] < x || (inclusive && bounds[k] == x))) {
+                k++;
+            }
+            if (k == 0) {
+                return 0.0;
+            }
+            if (k == bounds.length) {
+                return 1.0;
+            }
+            int bucket = k - 1;
+            double width = bounds[k] - bounds[bucket];
+            double within = width > 0 ? (x - bounds[bucket]) / width : 0.0;
+            return (bucket + within) / BUCKETS;
+        }
+    }
+}
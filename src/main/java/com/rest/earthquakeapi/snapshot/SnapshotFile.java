@@ -0,0 +1,185 @@
+package com.rest.earthquakeapi.snapshot;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary copy of a snapshot's {@link QuakeColumns}, so a restart can serve the last loaded quakes without parsing
+ * the feed first. The file holds, in this order:
+ * <pre>
+ * int    MAGIC, int VERSION
+ * string source, long loadedAt
+ * int    rows
+ * double latitudes[rows], longitudes[rows], magnitudes[rows], depths[rows]
+ * long   times[rows]
+ * int    titleIds[rows], regionIds[rows]
+ * string titles[], regions[]               each as an int count and the strings
+ * string ids[rows], dateTimes[rows], links[rows]
+ * </pre>
+ * A string is its UTF-8 length (-1 for null) and bytes. The file is memory-mapped and the arrays are copied out in
+ * bulk. A file of another version, of another source, or that is cut short is not read, the feed is parsed instead.
+ */
+public final class SnapshotFile {
+
+    private static final int MAGIC = 0x51534E50; //"QSNP"
+    private static final int VERSION = 1;
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * Writes the snapshot next to the file first and then moves it into place, so a reader never sees half a file.
+     */
+    public static void write(QuakeSnapshot snapshot, Path file) throws IOException {
+        QuakeColumns columns = snapshot.getColumns();
+        int rows = columns.size();
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path partial = Files.createTempFile(parent, file.getFileName().toString(), ".partial");
+        try {
+            try (OutputStream out = Files.newOutputStream(partial)) {
+                ByteBuffer header = ByteBuffer.allocate(8);
+                header.putInt(MAGIC).putInt(VERSION);
+                out.write(header.array());
+                writeStrings(out, new String[]{snapshot.getSource()});
+                ByteBuffer numbers = ByteBuffer.allocate(12 + rows * (4 * Double.BYTES + Long.BYTES + 2 * Integer.BYTES));
+                numbers.putLong(snapshot.getLoadedAt()).putInt(rows);
+                numbers.asDoubleBuffer().put(columns.getLatitudes());
+                numbers.position(numbers.position() + rows * Double.BYTES);
+                numbers.asDoubleBuffer().put(columns.getLongitudes());
+                numbers.position(numbers.position() + rows * Double.BYTES);
+                numbers.asDoubleBuffer().put(columns.getMagnitudes());
+                numbers.position(numbers.position() + rows * Double.BYTES);
+                numbers.asDoubleBuffer().put(columns.getDepths());
+                numbers.position(numbers.position() + rows * Double.BYTES);
+                numbers.asLongBuffer().put(columns.getTimes());
+                numbers.position(numbers.position() + rows * Long.BYTES);
+                numbers.asIntBuffer().put(columns.getTitleIds());
+                numbers.position(numbers.position() + rows * Integer.BYTES);
+                numbers.asIntBuffer().put(columns.getRegionIds());
+                out.write(numbers.array());
+                writeStrings(out, columns.getTitles());
+                writeStrings(out, columns.getRegions());
+                writeStrings(out, columns.getIds());
+                writeStrings(out, columns.getDateTimes());
+                writeStrings(out, columns.getLinks());
+            }
+            Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+    }
+
+    /**
+     * @param source the feed the snapshot has to be of
+     * @return the snapshot in the file, or null when there is no file or it cannot be used for {@code source}
+     * @throws IOException when the file exists but cannot be read
+     */
+    public static QuakeSnapshot read(Path file, String source) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.remaining() < 8 || in.getInt() != MAGIC || in.getInt() != VERSION) {
+                return null;
+            }
+            if (!source.equals(readStrings(in)[0])) {
+                return null;
+            }
+            long loadedAt = in.getLong();
+            int rows = count(in);
+            double[] latitudes = readDoubles(in, rows);
+            double[] longitudes = readDoubles(in, rows);
+            double[] magnitudes = readDoubles(in, rows);
+            double[] depths = readDoubles(in, rows);
+            long[] times = new long[rows];
+            in.asLongBuffer().get(times);
+            in.position(in.position() + rows * Long.BYTES);
+            int[] titleIds = readInts(in, rows);
+            int[] regionIds = readInts(in, rows);
+            String[] titles = readStrings(in);
+            String[] regions = readStrings(in);
+            String[] ids = readStrings(in);
+            String[] dateTimes = readStrings(in);
+            String[] links = readStrings(in);
+            if (ids.length != rows || dateTimes.length != rows || links.length != rows) {
+                return null;
+            }
+            return new QuakeSnapshot(source, new QuakeColumns(latitudes, longitudes, magnitudes, depths, times,
+                    titleIds, regionIds, titles, regions, ids, dateTimes, links), loadedAt);
+        } catch (BufferUnderflowException | IllegalArgumentException | IndexOutOfBoundsException e) {
+            return null; //cut short or not a snapshot file
+        }
+    }
+
+    private static int count(ByteBuffer in) {
+        int count = in.getInt();
+        if (count < 0 || count > in.remaining() / Integer.BYTES) {
+            throw new IllegalArgumentException("Bad count " + count);
+        }
+        return count;
+    }
+
+    private static double[] readDoubles(ByteBuffer in, int rows) {
+        double[] values = new double[rows];
+        in.asDoubleBuffer().get(values);
+        in.position(in.position() + rows * Double.BYTES);
+        return values;
+    }
+
+    private static int[] readInts(ByteBuffer in, int rows) {
+        int[] values = new int[rows];
+        in.asIntBuffer().get(values);
+        in.position(in.position() + rows * Integer.BYTES);
+        return values;
+    }
+
+    private static void writeStrings(OutputStream out, String[] values) throws IOException {
+        byte[][] encoded = new byte[values.length][];
+        int size = Integer.BYTES;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                encoded[i] = values[i].getBytes(StandardCharsets.UTF_8);
+                size += encoded[i].length;
+            }
+            size += Integer.BYTES;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(values.length);
+        for (byte[] bytes : encoded) {
+            if (bytes == null) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(bytes.length).put(bytes);
+            }
+        }
+        out.write(buffer.array());
+    }
+
+    private static String[] readStrings(ByteBuffer in) {
+        String[] values = new String[count(in)];
+        byte[] bytes = new byte[256];
+        for (int i = 0; i < values.length; i++) {
+            int length = in.getInt();
+            if (length < 0) {
+                continue; //null
+            }
+            if (length > bytes.length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            }
+            in.get(bytes, 0, length);
+            values[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,46 @@
+package com.rest.earthquakeapi.snapshot;
+
+import com.rest.earthquakeapi.model.QuakeEntry;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * A read-only listing of quakes, held as rows of the snapshot it was read from.
+ * The entry of a row is materialised each time it is read and is not kept, so a listing costs one int per quake
+ * and only the quakes that are sent become objects. Sorting and paging work on the rows, see {@link #getRows()}.
+ */
+public final class SnapshotRows extends AbstractList<QuakeEntry> implements RandomAccess {
+
+    private final QuakeSnapshot snapshot;
+    private final int[] rows;
+
+    SnapshotRows(QuakeSnapshot snapshot, int[] rows) {
+        this.snapshot = snapshot;
+        this.rows = rows;
+    }
+
+    /**
+     * @return the snapshot the rows belong to
+     */
+    public QuakeSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return the rows of the listing, in its order, callers must not modify the array
+     */
+    public int[] getRows() {
+        return rows;
+    }
+
+    @Override
+    public QuakeEntry get(int index) {
+        return snapshot.getColumns().materialise(rows[index]);
+    }
+
+    @Override
+    public int size() {
+        return rows.length;
+    }
+}
@@ -1,45 +1,190 @@
 package com.rest.earthquakeapi.sorting;
 
-import com.rest.earthquakeapi.ParserManager.EarthQuakeParser;
 import com.rest.earthquakeapi.apache.Location;
+import com.rest.earthquakeapi.index.DistancePrecision;
+import com.rest.earthquakeapi.index.RowOrder;
+import com.rest.earthquakeapi.metrics.QuakeMetrics;
 import com.rest.earthquakeapi.model.QuakeEntry;
-import org.springframework.beans.factory.annotation.Value;
+import com.rest.earthquakeapi.service.EarthquakeDataService;
+import com.rest.earthquakeapi.snapshot.QuakeColumns;
+import com.rest.earthquakeapi.snapshot.QuakeSnapshot;
+import com.rest.earthquakeapi.snapshot.SnapshotRows;
+import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Sorts listings by the orders of {@link SortKey}.
+ * Every order is computed once per loaded snapshot, on first use, as a permutation of its rows.
+ * Sorting a listing of rows then only looks up the precomputed rank of each row, nothing is re-parsed
+ * and no entries are compared.
+ */
+@Service
 public class DifferentSorters {
-    private final EarthQuakeParser parser;
-    @Value("${earthquake.source}")
-    private String source;
-    public DifferentSorters() {
-        this.parser = new EarthQuakeParser();
+    private final EarthquakeDataService dataService;
+    private final QuakeMetrics metrics;
+    private volatile Orders orders = new Orders(QuakeSnapshot.EMPTY);
+
+    public DifferentSorters(EarthquakeDataService dataService, QuakeMetrics metrics) {
+        this.dataService = dataService;
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return every quake of the current snapshot in the order of the key
+     */
+    public List<QuakeEntry> sortAll(SortKey key) {
+        return metrics.sortTimer(key.getParameter()).record(() -> {
+            QuakeSnapshot snapshot = dataService.getSnapshot();
+            return snapshot.entriesAt(ordersOf(snapshot).get(key).rows());
+        });
     }
 
-    public void sortByMagnitude() {
-        ArrayList<QuakeEntry> list = parser.read(source);
-        Collections.sort(list, new MagnitudeComparator());
-        for (QuakeEntry qe : list) {
-            System.out.println(qe);
+    /**
+     * Sorts a listing by the key, stably, like {@code Collections.sort} with {@link SortKey#getComparator()} would.
+     * A listing of rows of the current snapshot, as the data processor returns them, is put in the precomputed
+     * order of its rows. Any other listing, such as one made from an earlier snapshot when the feed was refreshed
+     * in between, is sorted with the comparator: the precomputed orders rank the values of the current snapshot,
+     * which may not be the values the listing holds.
+     * @param key null leaves the listing as it is
+     * @return a new list, the given one is not modified
+     */
+    public List<QuakeEntry> sort(List<QuakeEntry> quakes, SortKey key) {
+        if (key == null) {
+            return quakes;
         }
+        return metrics.sortTimer(key.getParameter()).record(() -> sortBy(quakes, key));
     }
-    public void sortByTitle() {
-        ArrayList<QuakeEntry> list = parser.read(source);
-        Collections.sort(list, new TitleComparator());
-        for (QuakeEntry qe : list) {
-            System.out.println(qe);
+
+    private List<QuakeEntry> sortBy(List<QuakeEntry> quakes, SortKey key) {
+        QuakeSnapshot snapshot = dataService.getSnapshot();
+        if (quakes instanceof SnapshotRows && ((SnapshotRows) quakes).getSnapshot() == snapshot) {
+            int[] rows = ((SnapshotRows) quakes).getRows();
+            int[] positions = ordersOf(snapshot).get(key).sortPositions(rows);
+            int[] sorted = new int[positions.length];
+            for (int i = 0; i < positions.length; i++) {
+                sorted[i] = rows[positions[i]];
+            }
+            return snapshot.entriesAt(sorted);
         }
+        ArrayList<QuakeEntry> copy = new ArrayList<>(quakes);
+        copy.sort(key.getComparator());
+        return copy;
     }
-    public void sortByDepth() {
-        ArrayList<QuakeEntry> list = parser.read(source);
-        Collections.sort(list, new DepthComparator());
-        for (QuakeEntry qe : list) {
-            System.out.println(qe);
+
+    /**
+     * Sorts a listing by distance from a location, closest first, stably, like {@code Collections.sort} with
+     * {@link DistanceComparator} would. The distances of a listing of rows are measured on the columns, any other
+     * listing is sorted with the comparator.
+     * @return a new list, the given one is not modified
+     */
+    public List<QuakeEntry> sortByDistance(List<QuakeEntry> quakes, Location from, DistancePrecision precision) {
+        if (!(quakes instanceof SnapshotRows)) {
+            ArrayList<QuakeEntry> copy = new ArrayList<>(quakes);
+            copy.sort(new DistanceComparator(from, precision));
+            return copy;
         }
+        SnapshotRows listing = (SnapshotRows) quakes;
+        int[] rows = listing.getRows();
+        double[] latitudes = listing.getSnapshot().getColumns().getLatitudes();
+        double[] longitudes = listing.getSnapshot().getColumns().getLongitudes();
+        double latitude = (Double) from.getLatitude();
+        double longitude = from.getLongitude();
+        double[] distances = new double[rows.length];
+        Integer[] positions = new Integer[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            distances[i] = precision.distance(latitudes[rows[i]], longitudes[rows[i]], latitude, longitude);
+            positions[i] = i;
+        }
+        Arrays.sort(positions, Comparator.comparingDouble(i -> distances[i])); //stable, equal distances keep their order
+        int[] sorted = new int[rows.length];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = rows[positions[i]];
+        }
+        return listing.getSnapshot().entriesAt(sorted);
     }
-    public void sortAll() {
-        sortByMagnitude();
-        sortByTitle();
-        sortByDepth();
+
+    private Orders ordersOf(QuakeSnapshot snapshot) {
+        Orders current = orders;
+        if (current.snapshot != snapshot) {
+            current = new Orders(snapshot);
+            orders = current;
+        }
+        return current;
     }
 
-}
\ No newline at end of file
+    /**
+     * The orders of one snapshot, each built the first time it is asked for.
+     */
+    private static final class Orders {
+        private final QuakeSnapshot snapshot;
+        private final AtomicReferenceArray<RowOrder> byKey = new AtomicReferenceArray<>(SortKey.values().length);
+
+        Orders(QuakeSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        RowOrder get(SortKey key) {
+            RowOrder order = byKey.get(key.ordinal());
+            if (order == null) {
+                order = build(snapshot.getColumns(), key);
+                byKey.compareAndSet(key.ordinal(), null, order);
+            }
+            return order;
+        }
+
+        private static RowOrder build(QuakeColumns columns, SortKey key) {
+            switch (key) {
+                case MAGNITUDE:
+                    return RowOrder.byKey(doubleKeys(columns.getMagnitudes(), false));
+                case TITLE:
+                    return RowOrder.byKey(titleKeys(columns));
+                case DEPTH:
+                    return RowOrder.byKey(doubleKeys(columns.getDepths(), true));
+                case TITLE_DEPTH:
+                    return RowOrder.byKeys(titleKeys(columns), doubleKeys(columns.getDepths(), true));
+                default:
+                    throw new IllegalArgumentException("Unknown sort key " + key);
+            }
+        }
+
+        /**
+         * @param zeroesEqual whether -0.0 and 0.0 sort as equal, as in the depth comparators,
+         *                    instead of -0.0 first as in {@link Double#compare}
+         */
+        private static long[] doubleKeys(double[] values, boolean zeroesEqual) {
+            long[] keys = new long[values.length];
+            for (int row = 0; row < values.length; row++) {
+                keys[row] = RowOrder.key(zeroesEqual ? values[row] + 0.0 : values[row]); //-0.0 + 0.0 is 0.0
+            }
+            return keys;
+        }
+
+        /**
+         * Sorts the title dictionary once, every row's key is then the position of its title.
+         * A null title, from an entry without a {@code <title>}, sorts first.
+         */
+        private static long[] titleKeys(QuakeColumns columns) {
+            String[] titles = columns.getTitles();
+            Integer[] byTitle = new Integer[titles.length];
+            for (int i = 0; i < byTitle.length; i++) {
+                byTitle[i] = i;
+            }
+            Arrays.sort(byTitle, Comparator.comparing(id -> titles[id], Comparator.nullsFirst(Comparator.naturalOrder())));
+            long[] titleRank = new long[titles.length];
+            for (int i = 0; i < byTitle.length; i++) {
+                titleRank[byTitle[i]] = i;
+            }
+            int[] titleIds = columns.getTitleIds();
+            long[] keys = new long[titleIds.length];
+            for (int row = 0; row < keys.length; row++) {
+                keys[row] = titleRank[titleIds[row]];
+            }
+            return keys;
+        }
+    }
+}
@@ -1,16 +1,26 @@
 package com.rest.earthquakeapi.sorting;
 import com.rest.earthquakeapi.apache.Location;
+import com.rest.earthquakeapi.index.DistancePrecision;
 import com.rest.earthquakeapi.model.QuakeEntry;
 import java.util.*;
 public class DistanceComparator implements Comparator<QuakeEntry> {
-    Location fromWhere;
+    private final double latitude;
+    private final double longitude;
+    private final DistancePrecision precision;
     public DistanceComparator(Location where) {
-        fromWhere = where;
+        this(where, DistancePrecision.EXACT);
+    }
+    public DistanceComparator(Location where, DistancePrecision precision) {
+        latitude = (Double) where.getLatitude();
+        longitude = where.getLongitude();
+        this.precision = precision;
     }
     public int compare(QuakeEntry q1, QuakeEntry q2) {
-        double dist1 = q1.getLocation().distanceTo(fromWhere);
-        double dist2 = q2. getLocation().distanceTo(fromWhere);
+        double dist1 = distanceTo(q1.getLocation());
+        double dist2 = distanceTo(q2.getLocation());
         return Double.compare(dist1, dist2);
     }
+    private double distanceTo(Location quake) {
+        return precision.distance((Double) quake.getLatitude(), quake.getLongitude(), latitude, longitude);
+    }
 }
-
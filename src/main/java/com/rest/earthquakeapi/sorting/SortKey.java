@@ -0,0 +1,53 @@
+package com.rest.earthquakeapi.sorting;
+
+import com.rest.earthquakeapi.model.QuakeEntry;
+
+import java.util.Comparator;
+import java.util.Locale;
+
+/**
+ * The orders a listing can be sorted in with the {@code sort=} request parameter, all ascending.
+ */
+public enum SortKey {
+    MAGNITUDE("magnitude", new MagnitudeComparator()),
+    TITLE("title", new TitleComparator()),
+    DEPTH("depth", new DepthComparator()),
+    TITLE_DEPTH("title-depth", new TitleAndDepthComparator());
+
+    private final String parameter;
+    private final Comparator<QuakeEntry> comparator;
+
+    SortKey(String parameter, Comparator<QuakeEntry> comparator) {
+        this.parameter = parameter;
+        this.comparator = comparator;
+    }
+
+    public String getParameter() {
+        return parameter;
+    }
+
+    /**
+     * @return the comparator giving the same order as the precomputed one
+     */
+    public Comparator<QuakeEntry> getComparator() {
+        return comparator;
+    }
+
+    /**
+     * @param value one of magnitude, title, depth or title-depth in any case, null or blank for no sorting
+     * @return the key, or null when no sorting was asked for
+     * @throws IllegalArgumentException for any other value
+     */
+    public static SortKey parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        String wanted = value.trim().toLowerCase(Locale.ROOT);
+        for (SortKey key : values()) {
+            if (key.parameter.equals(wanted)) {
+                return key;
+            }
+        }
+        throw new IllegalArgumentException("Unknown sort '" + value + "', expected magnitude, title, depth or title-depth");
+    }
+}
@@ -5,12 +5,16 @@ import com.rest.earthquakeapi.model.QuakeEntry;
 import java.util.*;
 
 public class TitleAndDepthComparator implements Comparator<QuakeEntry> {
+    // an entry without a <title> sorts first, like the precomputed title order
+    private static final Comparator<String> TITLES = Comparator.nullsFirst(Comparator.naturalOrder());
+
     public int compare(QuakeEntry q1, QuakeEntry q2) {
-        if (q1.getInfo().compareTo(q2.getInfo()) < 0) {
+        int byTitle = TITLES.compare(q1.getInfo(), q2.getInfo());
+        if (byTitle < 0) {
             return -1;
-        } else if (q1.getInfo().compareTo(q2.getInfo()) > 0) {
+        } else if (byTitle > 0) {
             return 1;
-        } else if (q1.getInfo().compareTo(q2.getInfo()) == 0) {
+        } else {
             if (q1.getDepth() < q2.getDepth()) {
                 return -1;
             } else if (q1.getDepth() > q2.getDepth()) {
@@ -2,7 +2,10 @@ package com.rest.earthquakeapi.sorting;
 import com.rest.earthquakeapi.model.QuakeEntry;
 import java.util.Comparator;
 public class TitleComparator implements Comparator<QuakeEntry> {
+    // an entry without a <title> sorts first, like the precomputed title order
+    private static final Comparator<String> TITLES = Comparator.nullsFirst(Comparator.naturalOrder());
+
     public int compare(QuakeEntry q1, QuakeEntry q2) {
-        return q1.getTitle().compareTo(q2.getTitle());
+        return TITLES.compare(q1.getTitle(), q2.getTitle());
     }
 }
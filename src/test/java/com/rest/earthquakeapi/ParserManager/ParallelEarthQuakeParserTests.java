@@ -0,0 +1,60 @@
+package com.rest.earthquakeapi.ParserManager;
+
+import com.rest.earthquakeapi.model.QuakeEntry;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelEarthQuakeParserTests {
+
+	@ParameterizedTest
+	@ValueSource(strings = {"data/nov20quakedata.atom", "data/nov20quakedatasmall.atom", "data/earthquakeDataSampleSix2.atom"})
+	void readsTheSameEntriesInTheSameOrderAsTheStaxParser(String source) {
+		List<QuakeEntry> expected = new StaxEarthQuakeParser().read(source);
+		// small chunks, so even the smallest feed is cut into several
+		List<QuakeEntry> actual = new ParallelEarthQuakeParser(3, 1024).read(source);
+
+		assertFalse(expected.isEmpty());
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			QuakeEntry e = expected.get(i);
+			QuakeEntry a = actual.get(i);
+			assertEquals(e.getId(), a.getId());
+			assertEquals(e.getTitle(), a.getTitle());
+			assertEquals(e.getMagnitude(), a.getMagnitude());
+			assertEquals(e.getDepth(), a.getDepth());
+			assertEquals(e.getDateTime(), a.getDateTime());
+			assertEquals(e.getTime(), a.getTime());
+			assertEquals(e.getLink(), a.getLink());
+			assertEquals(e.getLocation().getLatitude(), a.getLocation().getLatitude());
+			assertEquals(e.getLocation().getLongitude(), a.getLocation().getLongitude());
+		}
+	}
+
+	/**
+	 * @param cutAfter where the feed breaks off: in an entry of a later chunk, or right after an entry so that every
+	 *                 chunk on its own is well formed and only the missing {@code </feed>} gives it away
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = {"<georss:point>", "</entry>"})
+	void rejectsTheWholeFeedWhenItIsCutShort(String cutAfter, @TempDir Path dir) throws IOException {
+		String feed = Files.readString(Path.of("data/nov20quakedatasmall.atom"));
+		String cut = feed.substring(0, feed.lastIndexOf(cutAfter) + cutAfter.length());
+		Path file = Files.writeString(dir.resolve("cut.atom"), cut, StandardCharsets.UTF_8);
+
+		List<QuakeEntry> handedOver = new ArrayList<>();
+		assertFalse(new ParallelEarthQuakeParser(3, 1024).read(file.toString(), handedOver::add));
+		assertTrue(handedOver.isEmpty());
+	}
+}
@@ -0,0 +1,61 @@
+package com.rest.earthquakeapi.ParserManager;
+
+import com.rest.earthquakeapi.model.QuakeEntry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StaxEarthQuakeParserTests {
+
+	@ParameterizedTest
+	@ValueSource(strings = {"data/nov20quakedata.atom", "data/nov20quakedatasmall.atom", "data/earthquakeDataSampleSix2.atom"})
+	void readsTheSameEntriesAsTheDomParser(String source) {
+		List<QuakeEntry> expected = new EarthQuakeParser().read(source);
+		List<QuakeEntry> actual = new StaxEarthQuakeParser().read(source);
+
+		assertFalse(expected.isEmpty());
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			QuakeEntry e = expected.get(i);
+			QuakeEntry a = actual.get(i);
+			assertEquals(e.getId(), a.getId());
+			assertEquals(e.getTitle(), a.getTitle());
+			assertEquals(e.getMagnitude(), a.getMagnitude());
+			assertEquals(e.getDepth(), a.getDepth());
+			assertEquals(e.getDateTime(), a.getDateTime());
+			assertEquals(e.getTime(), a.getTime());
+			assertEquals(e.getLink(), a.getLink());
+			assertEquals(e.getLocation().getLatitude(), a.getLocation().getLatitude());
+			assertEquals(e.getLocation().getLongitude(), a.getLocation().getLongitude());
+		}
+	}
+
+	@Test
+	void readsNothingFromAFeedThatIsCutShort(@TempDir Path dir) throws IOException {
+		// a download that broke off after 300 KB, in the middle of an entry
+		byte[] cut = Arrays.copyOf(Files.readAllBytes(Path.of("data/nov20quakedata.atom")), 300 * 1024);
+		Path file = Files.write(dir.resolve("cut.atom"), cut);
+
+		assertTrue(new StaxEarthQuakeParser().read(file.toString()).isEmpty());
+		assertTrue(new EarthQuakeParser().read(file.toString()).isEmpty());
+
+		List<QuakeEntry> streamed = new ArrayList<>();
+		assertFalse(new StaxEarthQuakeParser().read(new ByteArrayInputStream(cut), streamed::add));
+		assertFalse(streamed.isEmpty()); //the entries before the break were handed over, the caller drops them
+		assertTrue(new StaxEarthQuakeParser().read("data/nov20quakedatasmall.atom", entry -> {
+		}));
+	}
+}
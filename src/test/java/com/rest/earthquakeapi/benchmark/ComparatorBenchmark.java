@@ -0,0 +1,46 @@
+package com.rest.earthquakeapi.benchmark;
+
+import com.rest.earthquakeapi.apache.Location;
+import com.rest.earthquakeapi.model.QuakeEntry;
+import com.rest.earthquakeapi.sorting.DistanceComparator;
+import com.rest.earthquakeapi.sorting.SortKey;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorting a copy of n quakes with each comparator of the sorting package.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ComparatorBenchmark {
+
+    @Param({"100000"})
+    public int n;
+
+    @Param({"magnitude", "title", "depth", "title-depth", "distance"})
+    public String sort;
+
+    private List<QuakeEntry> quakes;
+    private Comparator<QuakeEntry> comparator;
+
+    @Setup
+    public void setUp() {
+        quakes = SyntheticQuakes.generate(n, 42);
+        comparator = sort.equals("distance") ? new DistanceComparator(new Location(38.0, -122.0))
+                : SortKey.parse(sort).getComparator();
+    }
+
+    @Benchmark
+    public List<QuakeEntry> sortCopy() {
+        ArrayList<QuakeEntry> copy = new ArrayList<>(quakes);
+        copy.sort(comparator);
+        return copy;
+    }
+}
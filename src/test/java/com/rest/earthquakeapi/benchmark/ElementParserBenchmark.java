@@ -0,0 +1,64 @@
+package com.rest.earthquakeapi.benchmark;
+
+import com.rest.earthquakeapi.XMLParsing.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Each {@link ElementParser} over every entry of the parsed week feed document, and the {@link EntryExtractor}
+ * that reads all fields at once.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ElementParserBenchmark {
+
+    @Param({"id", "title", "magnitude", "depth", "link", "point", "summary", "dateTime", "entry"})
+    public String field;
+
+    private List<Element> entries;
+    private ElementParser<?> elementParser;
+
+    @Setup
+    public void loadDocument() throws Exception {
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new File("data/nov20quakedata.atom"));
+        entries = new ArrayList<>();
+        NodeList children = document.getDocumentElement().getChildNodes();
+        for (int k = 0; k < children.getLength(); k++) {
+            if ("entry".equals(children.item(k).getNodeName())) {
+                entries.add((Element) children.item(k));
+            }
+        }
+        elementParser = switch (field) {
+            case "id" -> new IdParser();
+            case "title" -> new TitleParser();
+            case "magnitude" -> new MagnitudeParser();
+            case "depth" -> new DepthParser();
+            case "link" -> new LinkParser();
+            case "point" -> new LongitudeLatitudeParser();
+            case "summary" -> new SummaryParser();
+            case "dateTime" -> new DateTimeParser();
+            case "entry" -> new EntryExtractor();
+            default -> throw new IllegalArgumentException("Unknown field " + field);
+        };
+    }
+
+    @Benchmark
+    public void parseElement(Blackhole bh) {
+        for (Element entry : entries) {
+            bh.consume(elementParser.parseElement(entry));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.rest.earthquakeapi.benchmark;
+
+import com.rest.earthquakeapi.XMLParsing.EntryExtractor;
+import com.rest.earthquakeapi.XMLParsing.IdParser;
+import com.rest.earthquakeapi.XMLParsing.MagnitudeParser;
+import com.rest.earthquakeapi.XMLParsing.QuakeSummary;
+import com.rest.earthquakeapi.XMLParsing.SummaryExtractor;
+import com.rest.earthquakeapi.XMLParsing.TitleParser;
+import com.rest.earthquakeapi.model.QuakeEntry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading every entry of the parsed week feed document: one subtree search per field, the way the DOM parser used to
+ * run its {@code ElementParser}s, against the single pass of the {@link EntryExtractor}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class EntryExtractorBenchmark {
+
+    private List<Element> entries;
+    private final EntryExtractor extractor = new EntryExtractor();
+
+    @Setup
+    public void loadDocument() throws Exception {
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new File("data/nov20quakedata.atom"));
+        entries = new ArrayList<>();
+        NodeList children = document.getDocumentElement().getChildNodes();
+        for (int k = 0; k < children.getLength(); k++) {
+            if ("entry".equals(children.item(k).getNodeName())) {
+                entries.add((Element) children.item(k));
+            }
+        }
+    }
+
+    @Benchmark
+    public void searchPerField(Blackhole bh) {
+        for (Element entry : entries) {
+            bh.consume(searchPerField(entry));
+        }
+    }
+
+    @Benchmark
+    public void singlePass(Blackhole bh) {
+        for (Element entry : entries) {
+            bh.consume(extractor.parseElement(entry));
+        }
+    }
+
+    /**
+     * What the DOM parser did per entry before, minus the printing of the field parsers.
+     */
+    private static QuakeEntry searchPerField(Element elem) {
+        double lat = 0.0, lon = 0.0;
+        NodeList point = elem.getElementsByTagName("georss:point");
+        if (point.getLength() > 0) {
+            String[] args = point.item(0).getChildNodes().item(0).getNodeValue().split(" ");
+            lat = Double.parseDouble(args[0]);
+            lon = Double.parseDouble(args[1]);
+        }
+        NodeList summaryList = elem.getElementsByTagName("summary");
+        QuakeSummary summary = summaryList.getLength() > 0 ? SummaryExtractor.extract(summaryList.item(0).getTextContent()) : null;
+        NodeList elev = elem.getElementsByTagName("georss:elev");
+        double depth = elev.getLength() > 0 ? Double.parseDouble(elev.item(0).getChildNodes().item(0).getNodeValue()) : 0.0;
+        NodeList idList = elem.getElementsByTagName("id");
+        String id = idList.getLength() > 0 ? IdParser.idFrom(idList.item(0).getChildNodes().item(0).getNodeValue()) : null;
+        NodeList linkList = elem.getElementsByTagName("link");
+        String link = linkList.getLength() > 0 ? ((Element) linkList.item(0)).getAttribute("href") : "";
+        Node magTitle = elem.getElementsByTagName("title").item(0);
+        double mag = MagnitudeParser.magnitudeFrom(magTitle.getChildNodes().item(0).getNodeValue());
+        Node title = elem.getElementsByTagName("title").item(0);
+        String titleText = TitleParser.titleFrom(title.getChildNodes().item(0).getNodeValue());
+        return new QuakeEntry(id, lat, lon, mag, titleText, depth,
+                summary == null ? null : summary.getTimeText(), summary == null ? 0L : summary.getEpochMillis(), link);
+    }
+}
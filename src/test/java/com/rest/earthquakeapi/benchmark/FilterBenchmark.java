@@ -0,0 +1,72 @@
+package com.rest.earthquakeapi.benchmark;
+
+import com.rest.earthquakeapi.filter.DepthFilter;
+import com.rest.earthquakeapi.filter.MagnitudeFilter;
+import com.rest.earthquakeapi.filter.MatchAllFilter;
+import com.rest.earthquakeapi.filter.QueryPlan;
+import com.rest.earthquakeapi.filter.TimeFilter;
+import com.rest.earthquakeapi.index.RowSets;
+import com.rest.earthquakeapi.model.QuakeEntry;
+import com.rest.earthquakeapi.snapshot.QuakeSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A magnitude, depth and time window combination over the whole snapshot: the old filter(list, maf) loop over
+ * entries, the planned loop over the columns, and the AND of the index bitmaps.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FilterBenchmark {
+
+    private static final long DAY = 86_400_000L;
+
+    @Param({"1000000"})
+    public int n;
+
+    private List<QuakeEntry> quakes;
+    private QuakeSnapshot snapshot;
+    private MatchAllFilter maf;
+    private int[] allRows;
+
+    @Setup
+    public void setUp() {
+        ArrayList<QuakeEntry> generated = SyntheticQuakes.generate(n, 42);
+        snapshot = new QuakeSnapshot("synthetic", generated, 0L);
+        quakes = snapshot.getEntries();
+        quakes.forEach(qe -> { }); //materialise every entry once, as a list would hold them
+        long start = 1447459200000L;
+        maf = new MatchAllFilter();
+        maf.addFilter(new MagnitudeFilter(4.0, 6.0));
+        maf.addFilter(new DepthFilter(-300_000, -100_000));
+        maf.addFilter(new TimeFilter(start + 2 * DAY, start + 4 * DAY));
+        allRows = RowSets.all(n);
+    }
+
+    @Benchmark
+    public List<QuakeEntry> listLoop() {
+        ArrayList<QuakeEntry> answer = new ArrayList<>();
+        for (QuakeEntry qe : quakes) {
+            if (maf.satisfies(qe)) {
+                answer.add(qe);
+            }
+        }
+        return answer;
+    }
+
+    @Benchmark
+    public int[] columnLoop() {
+        return maf.plan(snapshot).execute("all rows", allRows, QueryPlan.Strategy.ROW_LOOP);
+    }
+
+    @Benchmark
+    public int[] bitmap() {
+        return maf.plan(snapshot).execute("all rows", allRows, QueryPlan.Strategy.BITMAP);
+    }
+}
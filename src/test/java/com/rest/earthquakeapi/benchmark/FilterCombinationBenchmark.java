@@ -0,0 +1,67 @@
+package com.rest.earthquakeapi.benchmark;
+
+import com.rest.earthquakeapi.apache.Location;
+import com.rest.earthquakeapi.filter.*;
+import com.rest.earthquakeapi.index.DistancePrecision;
+import com.rest.earthquakeapi.index.RowSets;
+import com.rest.earthquakeapi.snapshot.QuakeSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link MatchAllFilter} plans of several filter combinations over every row of the snapshot, each run with the
+ * strategy the plan picks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FilterCombinationBenchmark {
+
+    private static final long DAY = 86_400_000L;
+
+    @Param({"100000", "1000000"})
+    public int n;
+
+    @Param({"magnitude", "magnitude+depth", "magnitude+depth+time", "distance", "phrase+region", "all"})
+    public String filters;
+
+    private QuakeSnapshot snapshot;
+    private MatchAllFilter maf;
+    private int[] allRows;
+
+    @Setup
+    public void setUp() {
+        snapshot = new QuakeSnapshot("synthetic", SyntheticQuakes.generate(n, 42), 0L);
+        allRows = RowSets.all(n);
+        long start = 1447459200000L;
+        maf = new MatchAllFilter();
+        for (String filter : filters.split("\\+")) {
+            if (filter.equals("magnitude") || filter.equals("all")) {
+                maf.addFilter(new MagnitudeFilter(4.0, 6.0));
+            }
+            if (filter.equals("depth") || filter.equals("all")) {
+                maf.addFilter(new DepthFilter(-300_000, -100_000));
+            }
+            if (filter.equals("time") || filter.equals("all")) {
+                maf.addFilter(new TimeFilter(start + 2 * DAY, start + 4 * DAY));
+            }
+            if (filter.equals("distance") || filter.equals("all")) {
+                maf.addFilter(new DistanceFilter(new Location(38.0, -122.0), 2_000_000, DistancePrecision.FAST));
+            }
+            if (filter.equals("phrase") || filter.equals("all")) {
+                maf.addFilter(new PhraseFilter("any", "Junction"));
+            }
+            if (filter.equals("region") || filter.equals("all")) {
+                maf.addFilter(new RegionFilter("Alaska"));
+            }
+        }
+    }
+
+    @Benchmark
+    public int[] plannedFilter() {
+        return maf.plan(snapshot).execute("all rows", allRows);
+    }
+}
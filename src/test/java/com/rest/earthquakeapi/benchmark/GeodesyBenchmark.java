@@ -0,0 +1,69 @@
+package com.rest.earthquakeapi.benchmark;
+
+import com.rest.earthquakeapi.apache.Location;
+import com.rest.earthquakeapi.index.DistancePrecision;
+import com.rest.earthquakeapi.model.QuakeEntry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The distance from one point to each of n quakes: {@link Location#distanceTo} between Location objects, the
+ * Vincenty formula on the coordinates and the haversine formula of {@link DistancePrecision#FAST}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GeodesyBenchmark {
+
+    @Param({"10000"})
+    public int n;
+
+    private final Location from = new Location(38.0, -122.0);
+    private Location[] locations;
+    private double[] latitudes;
+    private double[] longitudes;
+
+    @Setup
+    public void setUp() {
+        ArrayList<QuakeEntry> quakes = SyntheticQuakes.generate(n, 42);
+        locations = new Location[n];
+        latitudes = new double[n];
+        longitudes = new double[n];
+        for (int i = 0; i < n; i++) {
+            locations[i] = quakes.get(i).getLocation();
+            latitudes[i] = (Double) locations[i].getLatitude();
+            longitudes[i] = locations[i].getLongitude();
+        }
+    }
+
+    @Benchmark
+    public double distanceTo() {
+        double sum = 0;
+        for (Location location : locations) {
+            sum += from.distanceTo(location);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double vincenty() {
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += DistancePrecision.EXACT.distance(38.0, -122.0, latitudes[i], longitudes[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double haversine() {
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += DistancePrecision.FAST.distance(38.0, -122.0, latitudes[i], longitudes[i]);
+        }
+        return sum;
+    }
+}
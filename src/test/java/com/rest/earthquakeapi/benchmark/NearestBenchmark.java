@@ -0,0 +1,59 @@
+package com.rest.earthquakeapi.benchmark;
+
+import com.rest.earthquakeapi.apache.Location;
+import com.rest.earthquakeapi.index.DistancePrecision;
+import com.rest.earthquakeapi.metrics.QuakeMetrics;
+import com.rest.earthquakeapi.model.QuakeEntry;
+import com.rest.earthquakeapi.service.EarthQuakeClientImpl;
+import com.rest.earthquakeapi.snapshot.QuakeSnapshot;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /closest-quakes: the repeated scan-and-remove of {@link EarthQuakeClientImpl#getClosest} against the k-d tree
+ * search. getClosest measures two Vincenty distances per quake and pass, at 1M quakes one call takes seconds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class NearestBenchmark {
+
+    @Param({"10000", "100000"})
+    public int n;
+
+    @Param({"10"})
+    public int k;
+
+    private final Location from = new Location(38.0, -122.0);
+    private ArrayList<QuakeEntry> quakes;
+    private QuakeSnapshot snapshot;
+    private EarthQuakeClientImpl client;
+
+    @Setup
+    public void setUp() {
+        quakes = SyntheticQuakes.generate(n, 42);
+        snapshot = new QuakeSnapshot("synthetic", quakes, 0L);
+        client = new EarthQuakeClientImpl(null, new QuakeMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public List<QuakeEntry> scanAndRemove() {
+        return client.getClosest(quakes, from, k);
+    }
+
+    @Benchmark
+    public int[] kdTreeExact() {
+        return snapshot.getNearestIndex().nearest(38.0, -122.0, k, DistancePrecision.EXACT);
+    }
+
+    @Benchmark
+    public int[] kdTreeFast() {
+        return snapshot.getNearestIndex().nearest(38.0, -122.0, k, DistancePrecision.FAST);
+    }
+}
@@ -0,0 +1,44 @@
+package com.rest.earthquakeapi.benchmark;
+
+import com.rest.earthquakeapi.ParserManager.EarthQuakeParser;
+import com.rest.earthquakeapi.ParserManager.ParallelEarthQuakeParser;
+import com.rest.earthquakeapi.ParserManager.QuakeFeedParser;
+import com.rest.earthquakeapi.ParserManager.StaxEarthQuakeParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading each file in data/ with each {@code earthquake.parser}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ParserBenchmark {
+
+    @Param({"data/earthquakeDataSampleSix2.atom", "data/nov20quakedatasmall.atom", "data/nov20quakedata.atom"})
+    public String source;
+
+    @Param({"dom", "stax", "parallel"})
+    public String parser;
+
+    private QuakeFeedParser feedParser;
+
+    @Setup
+    public void createParser() {
+        feedParser = switch (parser) {
+            case "dom" -> new EarthQuakeParser();
+            case "stax" -> new StaxEarthQuakeParser();
+            case "parallel" -> new ParallelEarthQuakeParser(Runtime.getRuntime().availableProcessors());
+            default -> throw new IllegalArgumentException("Unknown parser " + parser);
+        };
+    }
+
+    @Benchmark
+    public void read(Blackhole bh) {
+        feedParser.read(source, bh::consume);
+    }
+}
@@ -0,0 +1,70 @@
+package com.rest.earthquakeapi.benchmark;
+
+import com.rest.earthquakeapi.ParserManager.ParallelEarthQuakeParser;
+import com.rest.earthquakeapi.ParserManager.StaxEarthQuakeParser;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ingest throughput of a feed file: the streaming parser on one thread against the parallel parser on 1..8 threads.
+ * The {@code megabytes} counter is the rate the file is read at, in MB/s. The feed is a {@link SyntheticFeed} of
+ * {@code quakes} entries, 100000 are about 63 MB. The streaming run does not depend on {@code threads}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ParserThroughputBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"100000"})
+    public int quakes;
+
+    private Path feed;
+    private double feedMegabytes;
+    private ParallelEarthQuakeParser parallel;
+    private final StaxEarthQuakeParser stax = new StaxEarthQuakeParser();
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Read {
+        public double megabytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            megabytes = 0;
+        }
+    }
+
+    @Setup
+    public void writeFeed() throws IOException {
+        feed = SyntheticFeed.write(Files.createTempFile("quakes", ".atom"), quakes, 42);
+        feedMegabytes = Files.size(feed) / (1024.0 * 1024.0);
+        parallel = new ParallelEarthQuakeParser(threads);
+    }
+
+    @TearDown
+    public void deleteFeed() throws IOException {
+        Files.deleteIfExists(feed);
+    }
+
+    @Benchmark
+    public void streaming(Read read, Blackhole bh) {
+        stax.read(feed.toString(), bh::consume);
+        read.megabytes += feedMegabytes;
+    }
+
+    @Benchmark
+    public void parallel(Read read, Blackhole bh) {
+        parallel.read(feed.toString(), bh::consume);
+        read.megabytes += feedMegabytes;
+    }
+}
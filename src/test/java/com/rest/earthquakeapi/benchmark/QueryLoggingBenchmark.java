@@ -0,0 +1,77 @@
+package com.rest.earthquakeapi.benchmark;
+
+import com.rest.earthquakeapi.ParserManager.StaxEarthQuakeParser;
+import com.rest.earthquakeapi.metrics.QuakeMetrics;
+import com.rest.earthquakeapi.model.QuakeEntry;
+import com.rest.earthquakeapi.service.EarthQuakeClientImpl;
+import com.rest.earthquakeapi.service.EarthquakeDataService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load test of a phrase query from four request threads at once, on the week feed or on a {@link SyntheticFeed} of
+ * {@code feed} quakes: the query as it logs now, a debug summary that is off at the default level, against the query
+ * followed by printing every row and the count to a {@link PrintStream} the way the queries used to. The stream drops what it is given, so the difference is the
+ * formatting and the lock of the stream only, a real console or log file costs more on top.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+public class QueryLoggingBenchmark {
+
+    @Param({"Alaska", "California"})
+    public String phrase;
+
+    @Param({"week", "100000"})
+    public String feed;
+
+    private Path syntheticFeed;
+    private EarthQuakeClientImpl client;
+    private final PrintStream console = new PrintStream(OutputStream.nullOutputStream());
+
+    @Setup
+    public void loadFeed() throws IOException {
+        String source = "data/nov20quakedata.atom";
+        if (!feed.equals("week")) {
+            syntheticFeed = SyntheticFeed.write(Files.createTempFile("quakes", ".atom"), Integer.parseInt(feed), 42);
+            source = syntheticFeed.toString();
+        }
+        QuakeMetrics metrics = new QuakeMetrics(new SimpleMeterRegistry());
+        EarthquakeDataService dataService = new EarthquakeDataService(new StaxEarthQuakeParser(), source, "", metrics);
+        dataService.init();
+        client = new EarthQuakeClientImpl(dataService, metrics);
+    }
+
+    @TearDown
+    public void deleteFeed() throws IOException {
+        if (syntheticFeed != null) {
+            Files.deleteIfExists(syntheticFeed);
+        }
+    }
+
+    @Benchmark
+    public List<QuakeEntry> logging() {
+        return client.findEarthQuakesByPhrase(phrase, "any", false);
+    }
+
+    @Benchmark
+    public List<QuakeEntry> printingEveryRow() {
+        List<QuakeEntry> result = client.findEarthQuakesByPhrase(phrase, "any", false);
+        for (QuakeEntry quakeEntry : result) {
+            console.println(quakeEntry);
+        }
+        console.println("Found " + result.size() + " quakes that match the criteria");
+        return result;
+    }
+}
@@ -0,0 +1,88 @@
+package com.rest.earthquakeapi.benchmark;
+
+import com.rest.earthquakeapi.XMLParsing.SummaryExtractor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Document;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading the time out of every {@code <summary>} of the week feed: the per-entry nested DOM parse
+ * DateTimeParser used to do against the {@link SummaryExtractor} scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SummaryExtractorBenchmark {
+
+    private List<String> summaries;
+
+    @Setup
+    public void loadSummaries() throws Exception {
+        summaries = new ArrayList<>();
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        try (InputStream in = Files.newInputStream(Path.of("data/nov20quakedata.atom"))) {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && "summary".equals(reader.getLocalName())) {
+                    summaries.add(reader.getElementText());
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void nestedDomParse(Blackhole bh) throws Exception {
+        for (String summary : summaries) {
+            bh.consume(firstDdWithDom(summary));
+        }
+    }
+
+    @Benchmark
+    public void scanner(Blackhole bh) {
+        for (String summary : summaries) {
+            bh.consume(SummaryExtractor.extract(summary).getTime());
+        }
+    }
+
+    /**
+     * What DateTimeParser did before, minus the printing.
+     */
+    private static String firstDdWithDom(String summaryText) throws Exception {
+        summaryText = "<root>" + summaryText.replace("&deg;", "°") + "</root>";
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setFeature("http://apache.org/xml/features/nonvalidating/load-external-dtd", false);
+        DocumentBuilder db = dbf.newDocumentBuilder();
+        Document summaryDoc = db.parse(new InputSource(new StringReader(summaryText)));
+        NodeList dlList = summaryDoc.getElementsByTagName("dl");
+        if (dlList.getLength() == 0) {
+            return null;
+        }
+        NodeList childNodes = dlList.item(0).getChildNodes();
+        for (int i = 0; i < childNodes.getLength(); i++) {
+            Node child = childNodes.item(i);
+            if (child.getNodeType() == Node.ELEMENT_NODE && "dd".equals(child.getNodeName())) {
+                return child.getTextContent().trim();
+            }
+        }
+        return "";
+    }
+}
@@ -0,0 +1,266 @@
+package com.rest.earthquakeapi.benchmark;
+
+import com.rest.earthquakeapi.model.QuakeEntry;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Random;
+
+/**
+ * Seeded generator of USGS-like quakes, as {@link QuakeEntry}s or written as an Atom feed with the same elements as
+ * the files in data/ ({@code georss:point}, {@code georss:elev}, the {@code <summary>} CDATA with its {@code <dl>}).
+ * <ul>
+ * <li>Place: most quakes fall in one of a list of source zones (Alaska, California, Hawaii, Japan, Chile ...), spread
+ * normally around its center, the rest anywhere on the globe. After a quake of magnitude 5 or more, part of the
+ * following quakes are aftershocks close to it, for a time that grows with its magnitude.</li>
+ * <li>Magnitude: Gutenberg-Richter with b = 1, ten times fewer quakes per magnitude unit, above the magnitude of
+ * completeness of the zone's network: 0 for the regional networks, 2.5 and 4 for the global one.</li>
+ * <li>Depth: exponential with a mean of 8 km, and in subduction zones a share of intermediate and deep quakes
+ * between 70 and 650 km.</li>
+ * <li>Time: a Poisson process over the given number of days, the feed is written oldest first.</li>
+ * </ul>
+ * Run it to write a feed file, for example one million quakes over a week:
+ * <pre>
+ * java -cp target/classes:target/test-classes com.rest.earthquakeapi.benchmark.SyntheticFeed 1000000 42 target/synthetic.atom
+ * </pre>
+ */
+public final class SyntheticFeed {
+
+    static final long START = 1447459200000L; //2015-11-14T00:00:00Z, the start of the week in nov20quakedata.atom
+    private static final double B_VALUE = 1.0;
+    private static final double MAX_MAGNITUDE = 9.5;
+    private static final double BACKGROUND_WEIGHT = 1;
+    private static final double AFTERSHOCK_SHARE = 0.2;
+    private static final String[] DIRECTIONS = {"N", "NNE", "NE", "ENE", "E", "ESE", "SE", "SSE", "S", "SSW", "SW",
+            "WSW", "W", "WNW", "NW", "NNW"};
+    private static final String[] BACKGROUND = {"Mid-Atlantic Ridge", "Southwest Indian Ridge",
+            "Central East Pacific Rise", "South Sandwich Islands region", "Kermadec Islands region"};
+    private static final DateTimeFormatter UTC = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneOffset.UTC);
+    private static final DateTimeFormatter UPDATED = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").withZone(ZoneOffset.UTC);
+
+    /**
+     * A region quakes cluster in.
+     * @param spread       standard deviation of the distance from the center, in degrees
+     * @param weight       relative share of the quakes
+     * @param completeness smallest magnitude the network reports
+     * @param deepShare    share of intermediate and deep quakes
+     */
+    private record Zone(String region, String network, double latitude, double longitude, double spread, double weight,
+                        double completeness, double deepShare, String... places) {
+    }
+
+    private static final Zone[] ZONES = {
+            new Zone("Alaska", "ak", 61.5, -150.5, 3.0, 25, 0.0, 0.1, "Anchorage", "Delta Junction", "Cantwell", "Healy", "Willow", "Redoubt Volcano"),
+            new Zone("California", "nc", 38.8, -122.8, 0.8, 15, 0.0, 0, "The Geysers", "Cobb", "Petrolia", "Ferndale"),
+            new Zone("California", "ci", 34.0, -117.0, 1.0, 18, 0.0, 0, "Anza", "Ridgecrest", "Borrego Springs", "Coso Junction"),
+            new Zone("Nevada", "nn", 38.5, -118.5, 1.0, 5, 0.0, 0, "Hawthorne", "Mina"),
+            new Zone("Hawaii", "hv", 19.4, -155.3, 0.3, 6, 0.0, 0.02, "Volcano", "Pahala", "Naalehu"),
+            new Zone("Puerto Rico", "pr", 18.5, -67.5, 0.8, 4, 0.0, 0.05, "Maricao", "Vieques"),
+            new Zone("Oklahoma", "us", 36.3, -97.5, 0.7, 5, 2.5, 0, "Perry", "Medford", "Cherokee"),
+            new Zone("Japan", "us", 37.0, 142.0, 3.0, 1, 4.0, 0.15, "Iwaki", "Namie", "Miyako"),
+            new Zone("Indonesia", "us", -6.0, 128.0, 5.0, 1, 4.0, 0.25, "Tobelo", "Ambon", "Kupang"),
+            new Zone("Chile", "us", -25.0, -70.0, 6.0, 1, 4.0, 0.2, "Ovalle", "Illapel", "Calama"),
+            new Zone("Tonga", "us", -20.0, -177.0, 3.0, 0.5, 4.0, 0.5, "Neiafu", "Pangai"),
+            new Zone("Mexico", "us", 16.5, -97.0, 2.0, 0.5, 4.0, 0.1, "Pinotepa Nacional", "Salina Cruz"),
+    };
+
+    /**
+     * One generated quake, with the values as the feed writes them.
+     */
+    private record Quake(String network, long code, double magnitude, String place, double latitude, double longitude,
+                         double depthKm, long epochSecond) {
+    }
+
+    private final Random random;
+    private final double meanGapMillis;
+    private final double totalWeight;
+    private long time = START;
+    private long nextCode = 10_000_000L;
+    private Quake mainshock; //the last quake of magnitude 5 or more
+    private Zone mainshockZone;
+    private long mainshockUntil; //end of its aftershock sequence
+
+    /**
+     * @param quakes how many quakes will be drawn, they are spread over the days
+     * @param days   the length of the generated period
+     */
+    public SyntheticFeed(int quakes, int days, long seed) {
+        this.random = new Random(seed);
+        this.meanGapMillis = (double) days * 86_400_000L / Math.max(1, quakes);
+        double weight = BACKGROUND_WEIGHT;
+        for (Zone zone : ZONES) {
+            weight += zone.weight;
+        }
+        this.totalWeight = weight;
+    }
+
+    /**
+     * Writes a feed of {@code quakes} quakes over a week.
+     * @return the file
+     */
+    public static Path write(Path file, int quakes, long seed) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            new SyntheticFeed(quakes, 7, seed).write(out, quakes);
+        }
+        return file;
+    }
+
+    /**
+     * @return {@code quakes} entries as the parsers would read them from the written feed
+     */
+    public static QuakeEntry[] entries(int quakes, long seed) {
+        SyntheticFeed feed = new SyntheticFeed(quakes, 7, seed);
+        QuakeEntry[] entries = new QuakeEntry[quakes];
+        for (int i = 0; i < quakes; i++) {
+            entries[i] = toEntry(feed.next());
+        }
+        return entries;
+    }
+
+    public void write(Writer out, int quakes) throws IOException {
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                + "<feed xmlns=\"http://www.w3.org/2005/Atom\" xmlns:georss=\"http://www.georss.org/georss\">"
+                + "<title>Synthetic Earthquakes</title><updated>" + UPDATED.format(Instant.ofEpochMilli(START)) + "</updated>"
+                + "<author><name>SyntheticFeed</name></author><id>urn:synthetic-feed</id>\n");
+        StringBuilder entry = new StringBuilder(1024);
+        for (int i = 0; i < quakes; i++) {
+            entry.setLength(0);
+            appendEntry(entry, next());
+            out.append(entry);
+        }
+        out.write("</feed>\n");
+    }
+
+    private Quake next() {
+        time += (long) (-Math.log(1 - random.nextDouble()) * meanGapMillis);
+        Zone zone;
+        double latitude;
+        double longitude;
+        if (mainshock != null && time < mainshockUntil && random.nextDouble() < AFTERSHOCK_SHARE) {
+            zone = mainshockZone;
+            latitude = mainshock.latitude + random.nextGaussian() * 0.1;
+            longitude = mainshock.longitude + random.nextGaussian() * 0.1;
+        } else {
+            zone = pickZone();
+            if (zone == null) {
+                latitude = Math.toDegrees(Math.asin(2 * random.nextDouble() - 1)); //uniform over the sphere
+                longitude = random.nextDouble() * 360 - 180;
+            } else {
+                latitude = zone.latitude + random.nextGaussian() * zone.spread;
+                longitude = zone.longitude + random.nextGaussian() * zone.spread;
+            }
+        }
+        latitude = Math.max(-90, Math.min(90, latitude));
+        longitude = ((longitude + 540) % 360) - 180;
+        latitude = Math.round(latitude * 10_000) / 10_000.0; //the precision of georss:point
+        longitude = Math.round(longitude * 10_000) / 10_000.0;
+
+        double completeness = zone == null ? 4.0 : zone.completeness;
+        double magnitude = Math.min(MAX_MAGNITUDE, completeness - Math.log10(1 - random.nextDouble()) / B_VALUE);
+        magnitude = Math.round(magnitude * 10) / 10.0;
+
+        double deepShare = zone == null ? 0 : zone.deepShare;
+        double depthKm = random.nextDouble() < deepShare ? 70 + random.nextDouble() * 580
+                : Math.min(35, -Math.log(1 - random.nextDouble()) * 8);
+        depthKm = Math.round(depthKm * 100) / 100.0;
+
+        String place = zone == null ? BACKGROUND[random.nextInt(BACKGROUND.length)]
+                : (1 + random.nextInt(100)) + "km " + DIRECTIONS[random.nextInt(DIRECTIONS.length)] + " of "
+                + zone.places[random.nextInt(zone.places.length)] + ", " + zone.region;
+        Quake quake = new Quake(zone == null ? "us" : zone.network, nextCode++, magnitude, place, latitude, longitude,
+                depthKm, Math.floorDiv(time, 1000));
+        if (magnitude >= 5.0) {
+            mainshock = quake;
+            mainshockZone = zone;
+            mainshockUntil = time + (long) (86_400_000L * Math.pow(10, magnitude - 5.0)); //a day for M5, ten for M6
+        }
+        return quake;
+    }
+
+    /**
+     * @return a zone by weight, null for a quake outside every zone
+     */
+    private Zone pickZone() {
+        double pick = random.nextDouble() * totalWeight;
+        for (Zone zone : ZONES) {
+            pick -= zone.weight;
+            if (pick < 0) {
+                return zone;
+            }
+        }
+        return null;
+    }
+
+    private static QuakeEntry toEntry(Quake quake) {
+        return new QuakeEntry(Long.toString(quake.code), quake.latitude, quake.longitude, quake.magnitude, quake.place,
+                -Math.round(quake.depthKm * 1000), UTC.format(Instant.ofEpochSecond(quake.epochSecond)) + " UTC",
+                quake.epochSecond * 1000, eventPage(quake));
+    }
+
+    private static String eventPage(Quake quake) {
+        return "http://earthquake.usgs.gov/earthquakes/eventpage/" + quake.network + quake.code;
+    }
+
+    private static void appendEntry(StringBuilder sb, Quake q) {
+        Instant time = Instant.ofEpochSecond(q.epochSecond);
+        int offsetHours = (int) Math.round(q.longitude / 15); //the time zone of the epicenter, roughly
+        ZoneOffset offset = ZoneOffset.ofHours(offsetHours);
+        sb.append("<entry><id>urn:earthquake-usgs-gov:").append(q.network).append(':').append(q.code).append("</id>");
+        sb.append("<title>M ").append(q.magnitude).append(" - ").append(q.place).append("</title>");
+        sb.append("<updated>").append(UPDATED.format(time.plusSeconds(600))).append("</updated>");
+        sb.append("<link rel=\"alternate\" type=\"text/html\" href=\"").append(eventPage(q)).append("\"/>");
+        sb.append("<summary type=\"html\"><![CDATA[<dl><dt>Time</dt><dd>").append(UTC.format(time)).append(" UTC</dd>");
+        sb.append("<dd>").append(UTC.withZone(offset).format(time)).append(' ')
+                .append(offsetHours == 0 ? "+00:00" : offset.getId()).append(" at epicenter</dd>");
+        sb.append("<dt>Location</dt><dd>");
+        appendFixed(sb, Math.abs(q.latitude), 3).append("&deg;").append(q.latitude < 0 ? 'S' : 'N').append(' ');
+        appendFixed(sb, Math.abs(q.longitude), 3).append("&deg;").append(q.longitude < 0 ? 'W' : 'E').append("</dd>");
+        sb.append("<dt>Depth</dt><dd>");
+        appendFixed(sb, q.depthKm, 2).append(" km (");
+        appendFixed(sb, q.depthKm * 0.621371, 2).append(" mi)</dd></dl>]]></summary>");
+        sb.append("<georss:point>");
+        appendFixed(sb, q.latitude, 4).append(' ');
+        appendFixed(sb, q.longitude, 4).append("</georss:point>");
+        sb.append("<georss:elev>").append(Math.round(-q.depthKm * 1000)).append("</georss:elev>");
+        sb.append("<category label=\"Age\" term=\"Past Week\"/><category label=\"Magnitude\" term=\"Magnitude ")
+                .append((int) Math.floor(q.magnitude)).append("\"/></entry>\n");
+    }
+
+    /**
+     * Appends the value with a fixed number of decimals, without the cost of String.format.
+     */
+    private static StringBuilder appendFixed(StringBuilder sb, double value, int decimals) {
+        long scale = (long) Math.pow(10, decimals);
+        long scaled = Math.round(Math.abs(value) * scale);
+        if (value < 0 && scaled != 0) {
+            sb.append('-');
+        }
+        sb.append(scaled / scale).append('.');
+        String fraction = Long.toString(scaled % scale);
+        for (int i = fraction.length(); i < decimals; i++) {
+            sb.append('0');
+        }
+        return sb.append(fraction);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("usage: SyntheticFeed <quakes> <seed> <file> [days]");
+            System.exit(2);
+        }
+        int quakes = Integer.parseInt(args[0]);
+        long seed = Long.parseLong(args[1]);
+        Path file = Path.of(args[2]);
+        int days = args.length > 3 ? Integer.parseInt(args[3]) : 7;
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            new SyntheticFeed(quakes, days, seed).write(out, quakes);
+        }
+        System.out.println("Wrote " + quakes + " quakes to " + file + " (" + Files.size(file) / (1024 * 1024) + " MB)");
+    }
+}
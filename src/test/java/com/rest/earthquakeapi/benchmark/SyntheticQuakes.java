@@ -0,0 +1,22 @@
+package com.rest.earthquakeapi.benchmark;
+
+import com.rest.earthquakeapi.model.QuakeEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Seeded in-memory quake data for benchmarks that need more rows than the files in data/.
+ * The quakes are the ones {@link SyntheticFeed} writes for the same size and seed: clustered in source zones, with
+ * Gutenberg-Richter magnitudes and titles like the feed's, "72km SW of Delta Junction, Alaska", so region facets,
+ * phrase filters and the spatial indexes see the skew they see on real data.
+ */
+public final class SyntheticQuakes {
+
+    private SyntheticQuakes() {
+    }
+
+    public static ArrayList<QuakeEntry> generate(int n, long seed) {
+        return new ArrayList<>(Arrays.asList(SyntheticFeed.entries(n, seed)));
+    }
+}
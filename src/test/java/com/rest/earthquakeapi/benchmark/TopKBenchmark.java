@@ -0,0 +1,54 @@
+package com.rest.earthquakeapi.benchmark;
+
+import com.rest.earthquakeapi.index.TopKSelector;
+import com.rest.earthquakeapi.metrics.QuakeMetrics;
+import com.rest.earthquakeapi.model.QuakeEntry;
+import com.rest.earthquakeapi.service.EarthQuakeClientImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /largest-quakes: the repeated scan-and-remove of {@link EarthQuakeClientImpl#getLargest}
+ * against the bounded heap of {@link TopKSelector}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class TopKBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int n;
+
+    @Param({"10", "100"})
+    public int k;
+
+    private ArrayList<QuakeEntry> quakes;
+    private double[] magnitudes;
+    private EarthQuakeClientImpl client;
+
+    @Setup
+    public void setUp() {
+        quakes = SyntheticQuakes.generate(n, 42);
+        magnitudes = new double[n];
+        for (int row = 0; row < n; row++) {
+            magnitudes[row] = quakes.get(row).getMagnitude();
+        }
+        client = new EarthQuakeClientImpl(null, new QuakeMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public List<QuakeEntry> scanAndRemove() {
+        return client.getLargest(quakes, k);
+    }
+
+    @Benchmark
+    public int[] boundedHeap() {
+        return TopKSelector.largest(magnitudes, k);
+    }
+}
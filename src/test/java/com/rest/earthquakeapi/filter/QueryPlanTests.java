@@ -0,0 +1,133 @@
+package com.rest.earthquakeapi.filter;
+
+import com.rest.earthquakeapi.ParserManager.StaxEarthQuakeParser;
+import com.rest.earthquakeapi.apache.Location;
+import com.rest.earthquakeapi.index.DistancePrecision;
+import com.rest.earthquakeapi.snapshot.QuakeSnapshot;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Both strategies of a plan against running {@link MatchAllFilter#satisfies} on every candidate of the week feed.
+ */
+class QueryPlanTests {
+
+	private final QuakeSnapshot snapshot;
+	private final long from;
+	private final long to;
+
+	QueryPlanTests() {
+		snapshot = new QuakeSnapshot("data/nov20quakedata.atom", new StaxEarthQuakeParser().read("data/nov20quakedata.atom"), 0L);
+		long[] times = snapshot.getColumns().getTimes().clone();
+		Arrays.sort(times);
+		from = times[times.length / 4];
+		to = times[times.length * 3 / 4];
+	}
+
+	@Test
+	void rowLoopAndBitmapKeepTheSameRows() {
+		for (MatchAllFilter maf : filterSets()) {
+			for (int[] candidates : candidateSets()) {
+				int[] expected = IntStream.of(candidates).filter(row -> maf.satisfies(snapshot.getEntries().get(row))).toArray();
+				int[] byLoops = maf.plan(snapshot).execute("test", candidates, QueryPlan.Strategy.ROW_LOOP);
+				int[] byBitmaps = maf.plan(snapshot).execute("test", candidates, QueryPlan.Strategy.BITMAP);
+				int[] byEstimate = maf.plan(snapshot).execute("test", candidates);
+				assertArrayEquals(expected, byLoops, maf.plan(snapshot).toString());
+				assertArrayEquals(expected, byBitmaps, maf.plan(snapshot).toString());
+				assertArrayEquals(expected, byEstimate, maf.plan(snapshot).toString());
+			}
+		}
+	}
+
+	@Test
+	void explainShowsTheRowsOfEveryStep() {
+		MatchAllFilter maf = new MatchAllFilter();
+		maf.addFilter(new MagnitudeFilter(1.0, 5.0));
+		maf.addFilter(new DepthFilter(0.0, 0.0));
+		maf.addFilter(new MagnitudeFilter(2.0, 9.0));
+		maf.addFilter(new PhraseFilter("any", "Alaska"));
+		maf.addFilter(new TimeFilter(from, to));
+
+		for (QueryPlan.Strategy strategy : QueryPlan.Strategy.values()) {
+			QueryPlan plan = maf.plan(snapshot);
+			int[] all = IntStream.range(0, snapshot.size()).toArray();
+			int[] rows = plan.execute("every row", all, strategy);
+
+			assertEquals(strategy, plan.getStrategy());
+			assertEquals("every row", plan.getAccessPath());
+			assertEquals(snapshot.size(), plan.getCandidates());
+			assertEquals(rows.length, plan.getMatched());
+			assertArrayEquals(rows, plan.rows());
+			assertTrue(rows.length > 0);
+			// the two magnitude ranges are fused and the empty depth range is left out
+			assertEquals(2, plan.getNotes().size(), plan.getNotes().toString());
+			assertTrue(plan.getNotes().get(0).startsWith("fused"));
+			assertTrue(plan.getNotes().get(1).startsWith("left out"));
+			assertEquals(3, plan.getSteps().size());
+			for (QueryPlan.Step step : plan.getSteps()) {
+				assertNotNull(step.getRowsIn(), step.toString());
+				assertTrue(step.getRowsOut() <= step.getRowsIn(), step.toString());
+				assertNotNull(step.getEstimatedSelectivity());
+			}
+			if (strategy == QueryPlan.Strategy.ROW_LOOP) {
+				assertEquals(snapshot.size(), plan.getSteps().get(0).getRowsIn());
+				for (int i = 1; i < plan.getSteps().size(); i++) {
+					assertEquals(plan.getSteps().get(i - 1).getRowsOut(), plan.getSteps().get(i).getRowsIn());
+				}
+				assertEquals(rows.length, plan.getSteps().get(2).getRowsOut());
+			}
+		}
+	}
+
+	@Test
+	void bitmapsAreOnlyChosenForManyCandidates() {
+		MatchAllFilter maf = new MatchAllFilter();
+		maf.addFilter(new PhraseFilter("any", "California"));
+		maf.addFilter(new MagnitudeFilter(1.0, 5.0));
+		assertEquals(QueryPlan.Strategy.ROW_LOOP, maf.plan(snapshot).cheaperStrategy(10));
+		assertEquals(QueryPlan.Strategy.BITMAP, maf.plan(snapshot).cheaperStrategy(snapshot.size()));
+	}
+
+	private List<MatchAllFilter> filterSets() {
+		Location anchorage = new Location(61.2, -149.9);
+		List<MatchAllFilter> sets = new ArrayList<>();
+		sets.add(all(new MagnitudeFilter(1.0, 3.0), new DepthFilter(-20000.0, -1000.0)));
+		sets.add(all(new TimeFilter(from, to), new MagnitudeFilter(0.0, 2.5)));
+		sets.add(all(new RegionFilter("Alaska"), new MagnitudeFilter(1.5, 10.0), new TimeFilter(Long.MIN_VALUE, to)));
+		sets.add(all(new PhraseFilter("any", "California"), new MagnitudeFilter(2.0, 10.0), new MagnitudeFilter(0.0, 4.0)));
+		sets.add(all(new PhraseFilter("start", "m 1", true), new DepthFilter(0.0, 0.0)));
+		sets.add(all(new DistanceFilter(anchorage, 500_000, DistancePrecision.EXACT), new MagnitudeFilter(1.0, 10.0)));
+		sets.add(all(new DistanceFilter(anchorage, 500_000, DistancePrecision.FAST), new TimeFilter(from, Long.MAX_VALUE)));
+		// not a column filter, runs last over whole entries
+		sets.add(all(new MagnitudeFilter(0.5, 10.0), qe -> qe.getTitle() != null && qe.getTitle().contains("Hawaii")));
+		sets.add(all(new TimeFilter(to, from)));
+		sets.add(all());
+		return sets;
+	}
+
+	private List<int[]> candidateSets() {
+		List<int[]> sets = new ArrayList<>();
+		sets.add(IntStream.range(0, snapshot.size()).toArray());
+		sets.add(IntStream.range(0, snapshot.size()).filter(row -> row % 3 == 1).toArray());
+		sets.add(IntStream.range(0, 50).toArray());
+		sets.add(new int[0]);
+		return sets;
+	}
+
+	private static MatchAllFilter all(Filter... filters) {
+		MatchAllFilter maf = new MatchAllFilter();
+		for (Filter filter : filters) {
+			maf.addFilter(filter);
+		}
+		return maf;
+	}
+}
@@ -0,0 +1,88 @@
+package com.rest.earthquakeapi.index;
+
+import com.rest.earthquakeapi.apache.Location;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The tree against sorting every row by its distance to the query point.
+ */
+class KdTreeTests {
+
+	private static final double[][] QUERIES = {{61.2, -149.9}, {-6.211, 106.845}, {0, 0}, {89.9, 10}, {-45, 179.9}};
+
+	private final double[] latitudes = new double[2000];
+	private final double[] longitudes = new double[2000];
+	private final KdTree tree;
+
+	KdTreeTests() {
+		Random random = new Random(7);
+		for (int row = 0; row < latitudes.length; row++) {
+			if (row % 4 == 0 && row > 0) {
+				// every fourth quake on the same spot as an earlier one, so equal distances are ordered by row
+				latitudes[row] = latitudes[row / 2];
+				longitudes[row] = longitudes[row / 2];
+			} else {
+				latitudes[row] = Math.toDegrees(Math.asin(2 * random.nextDouble() - 1));
+				longitudes[row] = random.nextDouble() * 360 - 180;
+			}
+		}
+		tree = KdTree.build(latitudes, longitudes);
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 10, 250, 2000})
+	void nearestIsTheBruteForceOrderByExactDistance(int k) {
+		for (double[] q : QUERIES) {
+			assertArrayEquals(bruteForce(q[0], q[1], k), tree.nearest(q[0], q[1], k));
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 10, 250, 2000})
+	void fastModeFindsTheNearestBySphericalDistance(int k) {
+		for (double[] q : QUERIES) {
+			double[] expected = IntStream.range(0, latitudes.length)
+					.mapToDouble(row -> DistancePrecision.FAST.distance(latitudes[row], longitudes[row], q[0], q[1]))
+					.sorted().limit(k).toArray();
+			double[] actual = IntStream.of(tree.nearest(q[0], q[1], k, DistancePrecision.FAST))
+					.mapToDouble(row -> DistancePrecision.FAST.distance(latitudes[row], longitudes[row], q[0], q[1]))
+					.toArray();
+			assertArrayEquals(expected, actual, 1e-6);
+		}
+	}
+
+	@Test
+	void moreThanTheSizeReturnsEveryRow() {
+		int[] all = tree.nearest(61.2, -149.9, Integer.MAX_VALUE);
+		assertEquals(latitudes.length, all.length);
+		assertArrayEquals(bruteForce(61.2, -149.9, latitudes.length), all);
+		assertEquals(latitudes.length, tree.nearest(61.2, -149.9, Integer.MAX_VALUE, DistancePrecision.FAST).length);
+	}
+
+	@Test
+	void anEmptyTreeOrNoRowsAskedForReturnsNothing() {
+		KdTree empty = KdTree.build(new double[0], new double[0]);
+		assertEquals(0, empty.nearest(10, 10, 5).length);
+		assertEquals(0, empty.nearest(10, 10, 5, DistancePrecision.FAST).length);
+		assertEquals(0, tree.nearest(10, 10, 0).length);
+	}
+
+	private int[] bruteForce(double latitude, double longitude, int k) {
+		return IntStream.range(0, latitudes.length).boxed()
+				.sorted(Comparator.<Integer>comparingDouble(row ->
+						Location.distance(latitudes[row], longitudes[row], latitude, longitude))
+						.thenComparingInt(row -> row))
+				.limit(k)
+				.mapToInt(Integer::intValue)
+				.toArray();
+	}
+}
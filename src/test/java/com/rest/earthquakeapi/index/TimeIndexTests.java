@@ -0,0 +1,59 @@
+package com.rest.earthquakeapi.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The index against checking the time of every row.
+ */
+class TimeIndexTests {
+
+	private final long[] times = new long[3000];
+	private final TimeIndex index;
+
+	TimeIndexTests() {
+		Random random = new Random(11);
+		long start = 1_447_977_600_000L; //2015-11-20
+		for (int row = 0; row < times.length; row++) {
+			// many quakes share a second, so the bounds of a window fall on runs of equal times
+			times[row] = row % 5 == 0 && row > 0 ? times[row - 1] : start + random.nextInt(7 * 86_400) * 1000L;
+		}
+		index = TimeIndex.build(times);
+	}
+
+	@Test
+	void windowsMatchTheRowsWithATimeInside() {
+		Random random = new Random(3);
+		long[] edges = {Long.MIN_VALUE, times[0], times[17], times[1500], times[2999], Long.MAX_VALUE};
+		for (int i = 0; i < 200; i++) {
+			long a = i < 36 ? edges[i / 6] : times[random.nextInt(times.length)] + random.nextInt(3) - 1;
+			long b = i < 36 ? edges[i % 6] : a + random.nextInt(86_400_000);
+			assertWindow(a, b);
+		}
+	}
+
+	@Test
+	void anEmptyIndexOrInvertedWindowMatchesNothing() {
+		assertWindow(times[20] + 1, times[20]);
+		assertWindow(Long.MAX_VALUE, Long.MIN_VALUE);
+		TimeIndex empty = TimeIndex.build(new long[0]);
+		assertEquals(0, empty.rowsBetween(Long.MIN_VALUE, Long.MAX_VALUE).length);
+		assertEquals(0, empty.countBetween(Long.MIN_VALUE, Long.MAX_VALUE));
+		assertEquals(0, empty.bitsBetween(Long.MIN_VALUE, Long.MAX_VALUE).cardinality());
+	}
+
+	private void assertWindow(long from, long to) {
+		int[] expected = IntStream.range(0, times.length).filter(row -> times[row] >= from && times[row] <= to).toArray();
+		String window = "[" + from + ", " + to + "]";
+		assertArrayEquals(expected, index.rowsBetween(from, to), window);
+		assertEquals(expected.length, index.countBetween(from, to), window);
+		BitSet bits = index.bitsBetween(from, to);
+		assertArrayEquals(expected, bits.stream().toArray(), window);
+	}
+}
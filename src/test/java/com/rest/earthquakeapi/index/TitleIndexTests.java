@@ -0,0 +1,60 @@
+package com.rest.earthquakeapi.index;
+
+import com.rest.earthquakeapi.ParserManager.StaxEarthQuakeParser;
+import com.rest.earthquakeapi.filter.PhraseFilter;
+import com.rest.earthquakeapi.model.QuakeEntry;
+import com.rest.earthquakeapi.service.EarthQuakeClientImpl;
+import com.rest.earthquakeapi.snapshot.QuakeColumns;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * The index against matching every title of the week feed with the String based filters. The feed gets one more
+ * entry without a title, which no phrase matches.
+ */
+class TitleIndexTests {
+
+	private static final String[] PHRASES = {"Alaska", "alaska", "California", "CALIFORNIA", "km", "of", "M", "",
+			"Quarry Blast", "Explosion - ", "5km N", "Japan", "Ala", "zzz"};
+
+	private final List<QuakeEntry> entries;
+	private final QuakeColumns columns;
+
+	TitleIndexTests() {
+		entries = new ArrayList<>(new StaxEarthQuakeParser().read("data/nov20quakedata.atom"));
+		entries.add(200, new QuakeEntry("untitled", 10, 20, 3.0, null, -1000, null, 0L, ""));
+		columns = QuakeColumns.from(entries);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"start", "end", "any"})
+	void matchesTheSameRowsAsFilterByPhrase(String where) {
+		TitleIndex index = TitleIndex.build(columns.getTitles(), columns.getTitleIds(), false);
+		List<QuakeEntry> titled = entries.stream().filter(qe -> qe.getTitle() != null).toList();
+		for (String phrase : PHRASES) {
+			int[] expected = EarthQuakeClientImpl.filterByPhrase(titled, where, phrase).stream()
+					.mapToInt(entries::indexOf)
+					.toArray();
+			assertArrayEquals(expected, index.rows(index.titlesMatching(where, phrase)), where + " '" + phrase + "'");
+		}
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"start", "end", "any"})
+	void matchesTheSameRowsAsThePhraseFilterIgnoringCase(String where) {
+		TitleIndex index = TitleIndex.build(columns.getTitles(), columns.getTitleIds(), true);
+		for (String phrase : PHRASES) {
+			PhraseFilter filter = new PhraseFilter(where, phrase, true);
+			int[] expected = IntStream.range(0, entries.size())
+					.filter(row -> filter.satisfies(entries.get(row)))
+					.toArray();
+			assertArrayEquals(expected, index.rows(index.titlesMatching(where, phrase)), where + " '" + phrase + "'");
+		}
+	}
+}
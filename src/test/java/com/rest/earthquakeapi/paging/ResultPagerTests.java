@@ -0,0 +1,204 @@
+package com.rest.earthquakeapi.paging;
+
+import com.rest.earthquakeapi.ParserManager.StaxEarthQuakeParser;
+import com.rest.earthquakeapi.metrics.QuakeMetrics;
+import com.rest.earthquakeapi.model.QuakeEntry;
+import com.rest.earthquakeapi.service.EarthquakeDataService;
+import com.rest.earthquakeapi.snapshot.QuakeSnapshot;
+import com.rest.earthquakeapi.snapshot.SnapshotRows;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResultPagerTests {
+
+	private static final List<Integer> ITEMS = IntStream.range(0, 95).boxed().toList();
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void pagesCutTheListing() throws IOException {
+		ResultPager pager = new ResultPager(service(feed()));
+		ListingQuery query = query(pager, Map.of("region", new String[]{"Alaska"}));
+
+		ListingPage<Integer> second = pager.page(ITEMS, 2, 10, query);
+		assertEquals(ITEMS.subList(10, 20), second.getItems());
+		assertEquals(2, second.getPage());
+		assertEquals(95, second.getTotalCount());
+		assertEquals(10, second.getTotalPages());
+		assertNotNull(second.getNextCursor());
+
+		ListingPage<Integer> last = pager.page(ITEMS, 10, 10, query);
+		assertEquals(ITEMS.subList(90, 95), last.getItems());
+		assertNull(last.getNextCursor());
+		assertTrue(pager.page(ITEMS, 11, 10, query).getItems().isEmpty());
+		assertEquals(ResultPager.DEFAULT_SIZE, pager.page(ITEMS, null, null, query).getItems().size());
+
+		assertThrows(IllegalArgumentException.class, () -> pager.page(ITEMS, 0, 10, query));
+		assertThrows(IllegalArgumentException.class, () -> pager.page(ITEMS, 1, 0, query));
+		assertThrows(IllegalArgumentException.class, () -> pager.page(ITEMS, 1, ResultPager.MAX_SIZE + 1, query));
+	}
+
+	@Test
+	void cursorsWalkTheWholeListing() throws IOException {
+		ResultPager pager = new ResultPager(service(feed()));
+		ListingQuery query = query(pager, Map.of("sort", new String[]{"magnitude"}, "page", new String[]{"1"}));
+
+		ListingPage<Integer> page = pager.page(ITEMS, 1, 7, query);
+		List<Integer> walked = new ArrayList<>(page.getItems());
+		while (page.getNextCursor() != null) {
+			String cursor = page.getNextCursor();
+			// the query the cursor continues is the listing's, without the paging parameters
+			assertEquals(query.key(), pager.queryOf(cursor).key());
+			page = pager.next(ITEMS, cursor, query(pager, pager.queryOf(cursor).getParameters()));
+			walked.addAll(page.getItems());
+		}
+		assertEquals(ITEMS, walked);
+		assertEquals(14, page.getPage());
+	}
+
+	@Test
+	void deepPagesAreCutFromTheKeptRows() throws IOException {
+		EarthquakeDataService dataService = service(feed());
+		ResultPager pager = new ResultPager(dataService);
+		ListingQuery query = query(pager, Map.of("sort", new String[]{"magnitude"}));
+		QuakeSnapshot snapshot = dataService.getSnapshot();
+		SnapshotRows listing = snapshot.entriesAt(IntStream.range(0, snapshot.size()).toArray());
+
+		ListingPage<QuakeEntry> page = pager.page(listing, 1, 3, query);
+		List<String> walked = new ArrayList<>(ids(page.getItems()));
+		while (page.getNextCursor() != null) {
+			// the listing is not handed in again, every page is copied out of the kept rows
+			page = pager.resume(page.getNextCursor(), query);
+			walked.addAll(ids(page.getItems()));
+		}
+		assertEquals(ids(listing), walked);
+
+		// a pager that does not keep the rows, as after a restart, computes the listing once and keeps it again
+		ResultPager restarted = new ResultPager(dataService);
+		String cursor = pager.page(listing, 4, 3, query).getNextCursor();
+		assertNull(restarted.resume(cursor, query));
+		ListingPage<QuakeEntry> computed = restarted.next(listing, cursor, query);
+		assertEquals(ids(listing.subList(12, 15)), ids(computed.getItems()));
+		assertEquals(ids(listing.subList(15, 18)), ids(restarted.resume(computed.getNextCursor(), query).getItems()));
+	}
+
+	@Test
+	void theLeastRecentlyUsedRowsAreDropped() throws IOException {
+		EarthquakeDataService dataService = service(feed());
+		ResultPager pager = new ResultPager(dataService);
+		SnapshotRows overHalf = dataService.getSnapshot().entriesAt(new int[ResultPager.KEPT_ROWS / 2 + 1]);
+		ListingQuery first = query(pager, Map.of("region", new String[]{"first"}));
+		ListingQuery second = query(pager, Map.of("region", new String[]{"second"}));
+
+		String firstCursor = pager.page(overHalf, 1, 10, first).getNextCursor();
+		assertNotNull(pager.resume(firstCursor, first));
+		String secondCursor = pager.page(overHalf, 1, 10, second).getNextCursor();
+		assertNull(pager.resume(firstCursor, first));
+		assertNotNull(pager.resume(secondCursor, second));
+		// a listing of other items than quakes is not kept
+		assertNull(pager.resume(pager.page(ITEMS, 1, 10, first).getNextCursor(), first));
+	}
+
+	@Test
+	void cursorExpiresWhenTheQuakesAreRefreshed() throws IOException, InterruptedException {
+		Path feed = feed();
+		EarthquakeDataService dataService = service(feed);
+		ResultPager pager = new ResultPager(dataService);
+		ListingQuery before = query(pager, Map.of());
+		String cursor = pager.page(ITEMS, 1, 10, before).getNextCursor();
+
+		Files.writeString(feed, Files.readString(feed).replace("<title>M 0.3 - 2km SE of Anza", "<title>M 9.9 - 2km SE of Anza"));
+		Files.setLastModifiedTime(feed, FileTime.fromMillis(Files.getLastModifiedTime(feed).toMillis() + 1000));
+		Thread.sleep(2); //the stamp is the load time in millis
+		dataService.fetchEarthQuakeData();
+		assertTrue(pager.snapshotStamp() > before.getSnapshotStamp());
+
+		// read before the refresh, the listing might come from either snapshot
+		IllegalArgumentException computedDuring = assertThrows(IllegalArgumentException.class, () -> pager.next(ITEMS, cursor, before));
+		assertTrue(computedDuring.getMessage().contains("expired"));
+		IllegalArgumentException computedAfter = assertThrows(IllegalArgumentException.class,
+				() -> pager.next(ITEMS, cursor, query(pager, Map.of())));
+		assertTrue(computedAfter.getMessage().contains("expired"));
+	}
+
+	@Test
+	void badCursorsAreRejected() throws IOException {
+		ResultPager pager = new ResultPager(service(feed()));
+		ListingQuery query = query(pager, Map.of("region", new String[]{"Alaska"}));
+		long stamp = pager.snapshotStamp();
+
+		for (String cursor : new String[]{"", "not a cursor", "%%%", encode("12:10"), encode("x:10:10:/earthquakes/by-region?"),
+				encode(stamp + ":10:" + (ResultPager.MAX_SIZE + 1) + ":/earthquakes/by-region?region=Alaska"),
+				encode(stamp + ":10:0:/earthquakes/by-region?region=Alaska"),
+				encode(stamp + ":-10:10:/earthquakes/by-region?region=Alaska"),
+				encode(stamp + ":10:10:no-path")}) {
+			IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> pager.next(ITEMS, cursor, query), cursor);
+			assertEquals("Invalid cursor", e.getMessage());
+		}
+
+		String other = encode(stamp + ":10:10:/earthquakes/by-region?region=California");
+		assertEquals("Cursor belongs to another listing", assertThrows(IllegalArgumentException.class,
+				() -> pager.next(ITEMS, other, query)).getMessage());
+		String forged = encode((stamp - 1) + ":10:10:/earthquakes/by-region?region=Alaska");
+		assertTrue(assertThrows(IllegalArgumentException.class, () -> pager.next(ITEMS, forged, query)).getMessage().contains("expired"));
+		// a well-formed cursor past the end is an empty last page
+		assertTrue(pager.next(ITEMS, encode(stamp + ":500:10:/earthquakes/by-region?region=Alaska"), query).getItems().isEmpty());
+	}
+
+	@Test
+	void queryKeepsEveryValueThroughTheCursor() throws IOException {
+		ResultPager pager = new ResultPager(service(feed()));
+		ListingQuery query = query(pager, Map.of("phrase", new String[]{"a&b=c %d, ü:?"}, "where", new String[]{"any"},
+				"tag", new String[]{"one", "two"}));
+
+		ListingQuery continued = pager.queryOf(pager.page(ITEMS, 1, 10, query).getNextCursor());
+		assertEquals(query.key(), continued.key());
+		assertEquals("/earthquakes/by-region", continued.getPath());
+		assertArrayEquals(new String[]{"a&b=c %d, ü:?"}, continued.getParameters().get("phrase"));
+		assertArrayEquals(new String[]{"one", "two"}, continued.getParameters().get("tag"));
+		assertEquals(pager.snapshotStamp(), continued.getSnapshotStamp());
+	}
+
+	private Path feed() throws IOException {
+		return Files.copy(Path.of("data/nov20quakedatasmall.atom"), dir.resolve("feed.atom"));
+	}
+
+	private static EarthquakeDataService service(Path feed) {
+		EarthquakeDataService dataService = new EarthquakeDataService(new StaxEarthQuakeParser(), feed.toString(), "",
+				new QuakeMetrics(new SimpleMeterRegistry()));
+		dataService.init();
+		return dataService;
+	}
+
+	private static ListingQuery query(ResultPager pager, Map<String, String[]> parameters) {
+		return ListingQuery.of("/earthquakes/by-region", parameters, pager.snapshotStamp());
+	}
+
+	private static List<String> ids(List<QuakeEntry> quakes) {
+		return quakes.stream().map(QuakeEntry::getId).toList();
+	}
+
+	private static String encode(String cursor) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+	}
+}
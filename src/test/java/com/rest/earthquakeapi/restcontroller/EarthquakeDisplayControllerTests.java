@@ -0,0 +1,129 @@
+package com.rest.earthquakeapi.restcontroller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rest.earthquakeapi.ParserManager.StaxEarthQuakeParser;
+import com.rest.earthquakeapi.apache.Location;
+import com.rest.earthquakeapi.model.QuakeEntry;
+import com.rest.earthquakeapi.service.EarthQuakeClientImpl;
+import com.rest.earthquakeapi.sorting.DistanceComparator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Paging through the endpoints, with the cursor parameters restored by the filter.
+ */
+@SpringBootTest(properties = "earthquake.snapshot-file=")
+@AutoConfigureMockMvc
+class EarthquakeDisplayControllerTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private ObjectMapper mapper;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@Test
+	void aCursorAloneContinuesTheListing() throws Exception {
+		JsonNode whole = json("/earthquakes/by-region?region=California&sort=magnitude");
+		JsonNode page = json("/earthquakes/by-region?region=California&sort=magnitude&size=7");
+		assertEquals(json("/earthquakes/by-region?region=California&sort=magnitude&size=7&page=2").get("items"),
+				json("/earthquakes/by-region?cursor=" + page.get("nextCursor").asText()).get("items"));
+
+		List<JsonNode> walked = new ArrayList<>();
+		page.get("items").forEach(walked::add);
+		while (!page.get("nextCursor").isNull()) {
+			page = json("/earthquakes/by-region?cursor=" + page.get("nextCursor").asText());
+			page.get("items").forEach(walked::add);
+		}
+		List<JsonNode> expected = new ArrayList<>();
+		whole.forEach(expected::add);
+		assertEquals(expected, walked);
+	}
+
+	@Test
+	void cursorsOfAKeptListingDoNotComputeItAgain() throws Exception {
+		JsonNode page = json("/earthquakes/by-region?region=Alaska&sort=depth&size=5");
+		// every computation of the listing sorts it once
+		Timer sorts = registry.get("earthquake.sort").tag("key", "depth").timer();
+		long sorted = sorts.count();
+		int pages = 1;
+		while (!page.get("nextCursor").isNull()) {
+			page = json("/earthquakes/by-region?cursor=" + page.get("nextCursor").asText());
+			pages++;
+		}
+		assertTrue(pages > 3, "pages: " + pages);
+		assertEquals(sorted, sorts.count());
+	}
+
+	@Test
+	void parametersSentWithACursorAreIgnored() throws Exception {
+		String cursor = json("/earthquakes/filter-all?minMagnitude=0.1&maxMagnitude=9&minDepth=-700000&maxDepth=-1"
+				+ "&latitude=61.2&longitude=-149.9&maxDistance=2000000&phrase=Alaska&where=any&size=3").get("nextCursor").asText();
+		JsonNode next = json("/earthquakes/filter-all?minMagnitude=5&phrase=Japan&cursor=" + cursor);
+		assertEquals(3, next.get("items").size());
+		next.get("items").forEach(qe -> assertTrue(qe.get("title").asText().contains("Alaska"), qe.toString()));
+	}
+
+	@Test
+	void closestQuakesAreTheNearestToTheGivenPoint() throws Exception {
+		// latitude and longitude far apart, a swapped or repeated coordinate would land somewhere else entirely
+		Location anchorage = new Location(61.2, -149.9);
+		List<String> expected = new EarthQuakeClientImpl(null, null)
+				.getClosest(new StaxEarthQuakeParser().read("data/nov20quakedata.atom"), anchorage, 5).stream()
+				.map(QuakeEntry::getId)
+				.toList();
+		List<String> closest = new ArrayList<>();
+		json("/earthquakes/closest-quakes?latitude=61.2&longitude=-149.9&howMany=5").forEach(qe -> closest.add(qe.get("id").asText()));
+		assertEquals(expected, closest);
+	}
+
+	@Test
+	void nearbyQuakesAreSortedByDistance() throws Exception {
+		Location anchorage = new Location(61.2, -149.9);
+		List<String> expected = new StaxEarthQuakeParser().read("data/nov20quakedata.atom").stream()
+				.filter(qe -> Location.distance((Double) qe.getLocation().getLatitude(), qe.getLocation().getLongitude(), 61.2, -149.9) < 500_000)
+				.sorted(new DistanceComparator(anchorage))
+				.map(QuakeEntry::getId)
+				.toList();
+		List<String> nearby = new ArrayList<>();
+		json("/earthquakes/nearby?distMax=500000&latitude=61.2&longitude=-149.9").forEach(qe -> nearby.add(qe.get("id").asText()));
+		assertTrue(expected.size() > 10);
+		assertEquals(expected, nearby);
+	}
+
+	@Test
+	void badCursorsAreABadRequest() throws Exception {
+		mvc.perform(get("/earthquakes/by-region?cursor=garbage"))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().string("Invalid cursor"));
+		String cursor = json("/earthquakes/by-region?region=California&size=5").get("nextCursor").asText();
+		mvc.perform(get("/earthquakes/bigQuakes?cursor=" + cursor))
+				.andExpect(status().isBadRequest())
+				.andExpect(content().string("Cursor belongs to another listing"));
+		mvc.perform(get("/earthquakes/by-region?region=California&size=" + 1001))
+				.andExpect(status().isBadRequest());
+	}
+
+	private JsonNode json(String url) throws Exception {
+		String body = mvc.perform(get(url)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+		return mapper.readTree(body);
+	}
+}
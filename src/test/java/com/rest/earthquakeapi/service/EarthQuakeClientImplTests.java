@@ -0,0 +1,101 @@
+package com.rest.earthquakeapi.service;
+
+import com.rest.earthquakeapi.ParserManager.StaxEarthQuakeParser;
+import com.rest.earthquakeapi.apache.Location;
+import com.rest.earthquakeapi.filter.QueryPlan;
+import com.rest.earthquakeapi.index.DistancePrecision;
+import com.rest.earthquakeapi.metrics.QuakeMetrics;
+import com.rest.earthquakeapi.model.QuakeEntry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The radius queries against measuring every quake of the week feed with {@link Location#distance}.
+ */
+class EarthQuakeClientImplTests {
+
+	private static final double[][] CENTERS = {{61.2, -149.9}, {36.1314, -95.9372}, {19.4, -155.3}, {0, 0}, {-20, 179.5}};
+	private static final double[] RADII = {10_000, 150_000, 1_000_000, 5_000_000};
+
+	private final EarthquakeDataService dataService;
+	private final EarthQuakeClientImpl client;
+
+	EarthQuakeClientImplTests() {
+		QuakeMetrics metrics = new QuakeMetrics(new SimpleMeterRegistry());
+		dataService = new EarthquakeDataService(new StaxEarthQuakeParser(), "data/nov20quakedata.atom", "", metrics);
+		dataService.init();
+		client = new EarthQuakeClientImpl(dataService, metrics);
+	}
+
+	@ParameterizedTest
+	@EnumSource(DistancePrecision.class)
+	void nearMeIsEveryQuakeCloserThanTheRadius(DistancePrecision precision) {
+		for (double[] center : CENTERS) {
+			for (double radius : RADII) {
+				List<QuakeEntry> expected = dataService.getSnapshot().getEntries().stream()
+						.filter(qe -> exactDistance(qe, center) < radius)
+						.toList();
+				assertEquals(ids(expected), ids(client.earthQuakesNearMe(radius, new Location(center[0], center[1]), precision)),
+						precision + " " + radius + " m around (" + center[0] + ", " + center[1] + ")");
+			}
+		}
+	}
+
+	@ParameterizedTest
+	@EnumSource(DistancePrecision.class)
+	void filterAllAndItsExplainKeepTheSameQuakes(DistancePrecision precision) {
+		for (double[] center : CENTERS) {
+			for (double radius : RADII) {
+				Location location = new Location(center[0], center[1]);
+				List<QuakeEntry> expected = dataService.getSnapshot().getEntries().stream()
+						.filter(qe -> qe.getMagnitude() >= 0.5 && qe.getMagnitude() <= 6.0)
+						.filter(qe -> qe.getDepth() >= -100_000 && qe.getDepth() <= -1_000)
+						.filter(qe -> exactDistance(qe, center) < radius)
+						.toList();
+				List<QuakeEntry> filtered = client.filterPossibleAllEarthquakeData(0.5, 6.0, -100_000.0, -1_000.0,
+						location, radius, "", "any", null, null, null, precision);
+				assertEquals(ids(expected), ids(filtered), precision + " " + radius + " m around (" + center[0] + ", " + center[1] + ")");
+
+				QueryPlan plan = client.explainPossibleAllEarthquakeData(0.5, 6.0, -100_000.0, -1_000.0,
+						location, radius, "", "any", null, null, null, precision);
+				assertNotNull(plan.getStrategy());
+				assertEquals(expected.size(), plan.getMatched());
+				assertEquals(ids(expected), ids(dataService.getSnapshot().entriesAt(plan.rows())));
+				assertFalse(plan.getSteps().stream().anyMatch(step -> step.getFilter().startsWith("region")),
+						"a region filter without a region is left out");
+			}
+		}
+	}
+
+	@Test
+	void getClosestReturnsEveryQuakeWhenAskedForMore() {
+		List<QuakeEntry> few = new ArrayList<>(dataService.getSnapshot().getEntries().subList(0, 4));
+		List<QuakeEntry> closest = client.getClosest(few, new Location(61.2, -149.9), 10);
+		assertEquals(4, closest.size());
+		assertEquals(Set.copyOf(few), Set.copyOf(closest));
+		assertTrue(client.getClosest(List.of(), new Location(61.2, -149.9), 3).isEmpty());
+	}
+
+	/**
+	 * Entries are materialised anew each time they are read, so listings are compared by their ids.
+	 */
+	private static List<String> ids(List<QuakeEntry> quakes) {
+		return quakes.stream().map(QuakeEntry::getId).toList();
+	}
+
+	private static double exactDistance(QuakeEntry qe, double[] center) {
+		Location quake = qe.getLocation();
+		return Location.distance((Double) quake.getLatitude(), quake.getLongitude(), center[0], center[1]);
+	}
+}
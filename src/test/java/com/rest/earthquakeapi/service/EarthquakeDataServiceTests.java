@@ -0,0 +1,209 @@
+package com.rest.earthquakeapi.service;
+
+import com.rest.earthquakeapi.ParserManager.StaxEarthQuakeParser;
+import com.rest.earthquakeapi.metrics.QuakeMetrics;
+import com.rest.earthquakeapi.model.QuakeEntry;
+import com.rest.earthquakeapi.snapshot.QuakeDelta;
+import com.rest.earthquakeapi.snapshot.QuakeSnapshot;
+import com.rest.earthquakeapi.snapshot.SnapshotFile;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Refreshes against a stub feed server that serves the files in data/ with an ETag, and answers 304 when the
+ * client sends the current ETag back.
+ */
+class EarthquakeDataServiceTests {
+
+	private static final String SMALL = "data/nov20quakedatasmall.atom";
+	private static final String FULL = "data/nov20quakedata.atom";
+
+	private HttpServer server;
+	private volatile String served = SMALL;
+	private volatile String etag = "\"small\"";
+	private volatile int cutAt = -1; //when set, the body breaks off after this many bytes
+	private final AtomicInteger fullResponses = new AtomicInteger();
+	private final AtomicInteger notModified = new AtomicInteger();
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/feed.atom", exchange -> {
+			if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+				notModified.incrementAndGet();
+				exchange.sendResponseHeaders(304, -1);
+				exchange.close();
+				return;
+			}
+			byte[] body = Files.readAllBytes(Path.of(served));
+			exchange.getResponseHeaders().set("ETag", etag);
+			exchange.sendResponseHeaders(200, cutAt < 0 ? body.length : 0);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body, 0, cutAt < 0 ? body.length : cutAt);
+			}
+			fullResponses.incrementAndGet();
+		});
+		server.start();
+	}
+
+	@AfterEach
+	void stopServer() {
+		server.stop(0);
+	}
+
+	private EarthquakeDataService service() {
+		return service("");
+	}
+
+	private EarthquakeDataService service(String snapshotFile) {
+		return new EarthquakeDataService(new StaxEarthQuakeParser(),
+				"http://127.0.0.1:" + server.getAddress().getPort() + "/feed.atom", snapshotFile, new QuakeMetrics(new SimpleMeterRegistry()));
+	}
+
+	@Test
+	void unchangedFeedIsNotDownloadedAgain() {
+		EarthquakeDataService service = service();
+		service.fetchEarthQuakeData();
+		QuakeSnapshot first = service.getSnapshot();
+		assertEquals(new StaxEarthQuakeParser().read(SMALL).size(), first.size());
+
+		service.fetchEarthQuakeData();
+
+		assertEquals(1, fullResponses.get());
+		assertEquals(1, notModified.get());
+		assertSame(first, service.getSnapshot());
+	}
+
+	@Test
+	void changedFeedIsAppliedAsADelta() {
+		EarthquakeDataService service = service();
+		service.fetchEarthQuakeData();
+		QuakeSnapshot small = service.getSnapshot();
+		List<QuakeEntry> full = new StaxEarthQuakeParser().read(FULL);
+		QuakeDelta expected = QuakeDelta.between(small, full);
+
+		served = FULL;
+		etag = "\"full\"";
+		service.fetchEarthQuakeData();
+
+		QuakeSnapshot loaded = service.getSnapshot();
+		assertNotSame(small, loaded);
+		assertEquals(full.size(), loaded.size());
+		Set<String> smallIds = new HashSet<>(List.of(small.getColumns().getIds()));
+		long alreadyLoaded = full.stream().filter(qe -> smallIds.contains(qe.getId())).count();
+		assertEquals(full.size() - alreadyLoaded, expected.getInserted().size());
+		assertEquals(small.size() - alreadyLoaded, expected.getDeleted().size());
+		for (QuakeEntry qe : full) {
+			assertTrue(loaded.rowOf(qe.getId()) >= 0);
+		}
+	}
+
+	@Test
+	void sameQuakesUnderANewEtagKeepTheSnapshot() {
+		EarthquakeDataService service = service();
+		service.fetchEarthQuakeData();
+		QuakeSnapshot first = service.getSnapshot();
+
+		etag = "\"small-again\"";
+		service.fetchEarthQuakeData();
+
+		assertEquals(2, fullResponses.get());
+		assertSame(first, service.getSnapshot());
+	}
+
+	@Test
+	void feedThatBreaksOffIsFetchedAgainInFull(@TempDir Path dir) throws IOException {
+		Path file = dir.resolve("quakes.snapshot");
+		EarthquakeDataService service = service(file.toString());
+		service.fetchEarthQuakeData();
+		QuakeSnapshot small = service.getSnapshot();
+		byte[] stored = Files.readAllBytes(file);
+
+		served = FULL;
+		etag = "\"full\"";
+		cutAt = (int) Files.size(Path.of(FULL)) / 2;
+		service.fetchEarthQuakeData();
+
+		assertEquals(2, fullResponses.get());
+		assertSame(small, service.getSnapshot());
+		assertArrayEquals(stored, Files.readAllBytes(file));
+
+		cutAt = -1;
+		service.fetchEarthQuakeData();
+
+		// the etag of the broken body was not sent back, so the same etag is not answered with a 304
+		assertEquals(0, notModified.get());
+		assertEquals(3, fullResponses.get());
+		assertEquals(new StaxEarthQuakeParser().read(FULL).size(), service.getSnapshot().size());
+		assertEquals(service.getSnapshot().size(), SnapshotFile.read(file, service.getSnapshot().getSource()).size());
+	}
+
+	@Test
+	void restartServesTheSnapshotFileBeforeTheFeedIsRead(@TempDir Path dir) throws IOException {
+		Path file = dir.resolve("quakes.snapshot");
+		EarthquakeDataService first = service(file.toString());
+		first.init();
+		QuakeSnapshot loaded = first.getSnapshot();
+		assertTrue(Files.isRegularFile(file));
+
+		server.stop(0); //the feed is gone, only the file can answer
+		EarthquakeDataService restarted = service(file.toString());
+		restarted.init();
+
+		QuakeSnapshot stored = restarted.getSnapshot();
+		assertEquals(loaded.getLoadedAt(), stored.getLoadedAt());
+		assertEquals(loaded.size(), stored.size());
+		for (int row = 0; row < loaded.size(); row++) {
+			QuakeEntry e = loaded.getEntries().get(row);
+			QuakeEntry a = stored.getEntries().get(row);
+			assertEquals(e.getId(), a.getId());
+			assertEquals(e.getTitle(), a.getTitle());
+			assertEquals(e.getMagnitude(), a.getMagnitude());
+			assertEquals(e.getDepth(), a.getDepth());
+			assertEquals(e.getTime(), a.getTime());
+			assertEquals(e.getDateTime(), a.getDateTime());
+			assertEquals(e.getLink(), a.getLink());
+			assertEquals(e.getLocation().getLatitude(), a.getLocation().getLatitude());
+			assertEquals(e.getLocation().getLongitude(), a.getLocation().getLongitude());
+		}
+		assertNull(SnapshotFile.read(file, "data/another.atom"));
+	}
+
+	@Test
+	void deltaFindsUpdatedQuakes() {
+		List<QuakeEntry> feed = new StaxEarthQuakeParser().read(SMALL);
+		QuakeSnapshot snapshot = new QuakeSnapshot(SMALL, feed, 0L);
+		assertTrue(QuakeDelta.between(snapshot, feed).isEmpty());
+
+		QuakeEntry changed = feed.get(3);
+		changed.setMagnitude(changed.getMagnitude() + 1.0);
+		QuakeDelta delta = QuakeDelta.between(snapshot, feed.subList(0, feed.size() - 1));
+
+		assertFalse(delta.isEmpty());
+		assertEquals(List.of(changed.getId()), delta.getUpdated());
+		assertEquals(List.of(feed.get(feed.size() - 1).getId()), delta.getDeleted());
+		assertTrue(delta.getInserted().isEmpty());
+	}
+}
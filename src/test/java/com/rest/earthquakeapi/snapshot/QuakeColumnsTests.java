@@ -0,0 +1,57 @@
+package com.rest.earthquakeapi.snapshot;
+
+import com.rest.earthquakeapi.ParserManager.StaxEarthQuakeParser;
+import com.rest.earthquakeapi.filter.RegionFilter;
+import com.rest.earthquakeapi.model.QuakeEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class QuakeColumnsTests {
+
+	@Test
+	void regionIsThePartOfTheTitleAfterTheComma() {
+		assertEquals("Alaska", QuakeColumns.regionOf("72km SW of Delta Junction, Alaska"));
+		assertEquals("South of the Fiji Islands", QuakeColumns.regionOf("South of the Fiji Islands"));
+		assertEquals("Delta Junction,", QuakeColumns.regionOf("Delta Junction,"));
+		assertEquals("Delta Junction, ", QuakeColumns.regionOf("Delta Junction, "));
+		assertEquals(",", QuakeColumns.regionOf(","));
+		assertNull(QuakeColumns.regionOf(null));
+	}
+
+	@Test
+	void regionFilterKeepsTheSameRowsAsTheTitles() {
+		List<QuakeEntry> entries = new ArrayList<>(new StaxEarthQuakeParser().read("data/nov20quakedatasmall.atom"));
+		entries.add(new QuakeEntry("trailing comma", 10, 20, 3.0, "Delta Junction,", -1000, null, 0L, ""));
+		entries.add(new QuakeEntry("untitled", 10, 20, 3.0, null, -1000, null, 0L, ""));
+		QuakeSnapshot snapshot = new QuakeSnapshot("test", entries, 0L);
+
+		for (String region : new String[]{"California", "Alaska", "Delta Junction,", "Nowhere"}) {
+			RegionFilter filter = new RegionFilter(region);
+			int[] expected = IntStream.range(0, entries.size()).filter(row -> filter.satisfies(entries.get(row))).toArray();
+			int[] rows = IntStream.range(0, entries.size()).toArray();
+			int kept = filter.select(snapshot, rows, rows.length);
+			assertArrayEquals(expected, IntStream.of(rows).limit(kept).toArray(), region);
+			assertArrayEquals(expected, filter.bitmap(snapshot).stream().toArray(), region);
+			assertEquals(expected.length / (double) entries.size(), filter.selectivity(snapshot.getStats()), 1e-12, region);
+		}
+	}
+
+	@Test
+	void entriesAreMaterialisedEachTimeTheyAreRead() {
+		QuakeSnapshot snapshot = new QuakeSnapshot("test", new StaxEarthQuakeParser().read("data/nov20quakedatasmall.atom"), 0L);
+		SnapshotRows listing = snapshot.entriesAt(new int[]{3, 1});
+
+		assertNotSame(snapshot.getEntries().get(1), snapshot.getEntries().get(1));
+		assertNotSame(listing.get(1), listing.get(1));
+		assertEquals(snapshot.getEntries().get(1).getId(), listing.get(1).getId());
+		assertEquals(snapshot.getEntries().get(3).getTitle(), listing.get(0).getTitle());
+	}
+}
@@ -0,0 +1,119 @@
+package com.rest.earthquakeapi.sorting;
+
+import com.rest.earthquakeapi.ParserManager.StaxEarthQuakeParser;
+import com.rest.earthquakeapi.metrics.QuakeMetrics;
+import com.rest.earthquakeapi.model.QuakeEntry;
+import com.rest.earthquakeapi.service.EarthquakeDataService;
+import com.rest.earthquakeapi.snapshot.QuakeSnapshot;
+import com.rest.earthquakeapi.snapshot.SnapshotRows;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DifferentSortersTests {
+
+	@TempDir
+	Path dir;
+
+	@ParameterizedTest
+	@EnumSource(SortKey.class)
+	void sortsAListingLikeTheComparator(SortKey key) throws IOException {
+		EarthquakeDataService dataService = service(Files.copy(Path.of("data/nov20quakedatasmall.atom"), dir.resolve("feed.atom")));
+		DifferentSorters sorters = new DifferentSorters(dataService, new QuakeMetrics(new SimpleMeterRegistry()));
+		List<QuakeEntry> listing = everyRow(dataService.getSnapshot());
+
+		List<String> expected = ids(sortedByComparator(listing, key));
+		assertEquals(expected, ids(sorters.sort(listing, key)));
+		assertEquals(expected, ids(sorters.sort(new ArrayList<>(listing), key)));
+		assertEquals(expected, ids(sorters.sortAll(key)));
+	}
+
+	@Test
+	void sortsAListingOfAnEarlierSnapshotByItsOwnValues() throws IOException {
+		Path feed = Files.copy(Path.of("data/nov20quakedatasmall.atom"), dir.resolve("feed.atom"));
+		EarthquakeDataService dataService = service(feed);
+		DifferentSorters sorters = new DifferentSorters(dataService, new QuakeMetrics(new SimpleMeterRegistry()));
+		List<QuakeEntry> listing = everyRow(dataService.getSnapshot());
+
+		// the refresh raises the magnitude of the first quake of the listing, from 0.3 to 9.9
+		Files.writeString(feed, Files.readString(feed).replace("<title>M 0.3 - 2km SE of Anza", "<title>M 9.9 - 2km SE of Anza"));
+		Files.setLastModifiedTime(feed, FileTime.fromMillis(Files.getLastModifiedTime(feed).toMillis() + 1000));
+		dataService.fetchEarthQuakeData();
+		assertEquals(9.9, dataService.getSnapshot().getEntries().get(0).getMagnitude());
+		assertEquals(0.3, listing.get(0).getMagnitude());
+
+		assertEquals(ids(sortedByComparator(listing, SortKey.MAGNITUDE)), ids(sorters.sort(listing, SortKey.MAGNITUDE)));
+	}
+
+	@Test
+	void sortsAQuakeWithoutATitleFirst() throws IOException {
+		Path feed = Files.writeString(dir.resolve("feed.atom"), Files.readString(Path.of("data/nov20quakedatasmall.atom"))
+				.replace("<title>M 0.3 - 2km SE of Anza, California</title>", ""));
+		EarthquakeDataService dataService = service(feed); //builds the title index right away
+		DifferentSorters sorters = new DifferentSorters(dataService, new QuakeMetrics(new SimpleMeterRegistry()));
+
+		List<QuakeEntry> byTitle = sorters.sortAll(SortKey.TITLE);
+		assertNull(byTitle.get(0).getTitle());
+		assertEquals(ids(sortedByComparator(byTitle.subList(1, byTitle.size()), SortKey.TITLE)), ids(byTitle.subList(1, byTitle.size())));
+		assertEquals(0, dataService.getSnapshot().getTitleIndex(false).titlesMatching("any", "Anza").length);
+	}
+
+	@ParameterizedTest
+	@EnumSource(value = SortKey.class, names = {"TITLE", "TITLE_DEPTH"})
+	void sortsAnUntitledQuakeOfAnEarlierSnapshotFirst(SortKey key) throws IOException {
+		Path feed = Files.writeString(dir.resolve("feed.atom"), Files.readString(Path.of("data/nov20quakedatasmall.atom"))
+				.replace("<title>M 0.3 - 2km SE of Anza, California</title>", ""));
+		EarthquakeDataService dataService = service(feed);
+		DifferentSorters sorters = new DifferentSorters(dataService, new QuakeMetrics(new SimpleMeterRegistry()));
+		List<QuakeEntry> listing = everyRow(dataService.getSnapshot());
+		List<QuakeEntry> fromTheIndex = sorters.sort(listing, key);
+
+		// after the refresh the listing is sorted by the comparator, which has to agree with the precomputed order
+		Files.writeString(feed, Files.readString(feed).replace("<title>M 4.8 - 17km W of Nidri", "<title>M 4.9 - 17km W of Nidri"));
+		Files.setLastModifiedTime(feed, FileTime.fromMillis(Files.getLastModifiedTime(feed).toMillis() + 1000));
+		dataService.fetchEarthQuakeData();
+		assertNotSame(dataService.getSnapshot(), ((SnapshotRows) listing).getSnapshot());
+
+		List<QuakeEntry> byComparator = sorters.sort(listing, key);
+		assertNull(byComparator.get(0).getTitle());
+		assertEquals(ids(fromTheIndex), ids(byComparator));
+	}
+
+	private static EarthquakeDataService service(Path feed) {
+		EarthquakeDataService dataService = new EarthquakeDataService(new StaxEarthQuakeParser(), feed.toString(), "",
+				new QuakeMetrics(new SimpleMeterRegistry()));
+		dataService.init();
+		return dataService;
+	}
+
+	private static List<QuakeEntry> everyRow(QuakeSnapshot snapshot) {
+		return snapshot.entriesAt(IntStream.range(0, snapshot.size()).toArray());
+	}
+
+	/**
+	 * Entries are materialised anew each time they are read, so listings are compared by their ids.
+	 */
+	private static List<String> ids(List<QuakeEntry> quakes) {
+		return quakes.stream().map(QuakeEntry::getId).toList();
+	}
+
+	private static List<QuakeEntry> sortedByComparator(List<QuakeEntry> listing, SortKey key) {
+		List<QuakeEntry> sorted = new ArrayList<>(listing);
+		sorted.sort(key.getComparator());
+		return sorted;
+	}
+}